@@ -0,0 +1,72 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.dto.CardEventDto;
+import com.example.cardsservice.entity.Card;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative payloads shared by the benchmarks, modelled on the events in verify-flow.sh.
+ */
+final class BenchmarkData {
+
+    static final String EVENT_JSON = "{\"tokenRef\":\"tok_BENCH_000001\",\"maskedCardNumber\":\"4111xxxxxxxx1111\","
+            + "\"last4\":\"1111\",\"programCode\":\"PRG_001\",\"programCategory\":\"STANDARD\",\"network\":\"VISA\","
+            + "\"bin\":\"411111\",\"lifecycleStatus\":\"ACTIVE\",\"rawStatus\":\"OPEN\","
+            + "\"customerMobileNumber\":\"9998887776\",\"custId\":\"CUST_001\",\"accountNo\":\"ACC_001\","
+            + "\"issuedBySystem\":\"CMS_A\",\"issuanceChannel\":\"DIGITAL\",\"eventTimestamp\":\"2025-12-04T02:10:56\"}";
+
+    private BenchmarkData() {
+    }
+
+    static CardEventDto event() {
+        CardEventDto event = new CardEventDto();
+        event.setTokenRef("tok_BENCH_000001");
+        event.setMaskedCardNumber("4111xxxxxxxx1111");
+        event.setLast4("1111");
+        event.setProgramCode("PRG_001");
+        event.setProgramCategory("STANDARD");
+        event.setNetwork("VISA");
+        event.setBin("411111");
+        event.setLifecycleStatus("ACTIVE");
+        event.setRawStatus("OPEN");
+        event.setCustomerMobileNumber("9998887776");
+        event.setCustId("CUST_001");
+        event.setAccountNo("ACC_001");
+        event.setIssuedBySystem("CMS_A");
+        event.setIssuanceChannel("DIGITAL");
+        event.setEventTimestamp("2025-12-04T02:10:56");
+        return event;
+    }
+
+    static Card card(int index) {
+        Card card = new Card();
+        card.setId((long) index);
+        card.setTokenRef("tok_BENCH_" + index);
+        card.setMaskedCardNumber("4111xxxxxxxx1111");
+        card.setLast4("1111");
+        card.setProgramCode("PRG_001");
+        card.setProgramCategory("STANDARD");
+        card.setNetwork("VISA");
+        card.setBin("411111");
+        card.setLifecycleStatus("ACTIVE");
+        card.setRawStatus("OPEN");
+        card.setCustomerMobileNumber("9998887776");
+        card.setCustId("CUST_001");
+        card.setAccountNo("ACC_001");
+        card.setIssuedBySystem("CMS_A");
+        card.setIssuanceChannel("DIGITAL");
+        card.setEventTimestamp(LocalDateTime.of(2025, 12, 4, 2, 10, 56));
+        return card;
+    }
+
+    static List<Card> cards(int count) {
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(card(i));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.mapper.CardMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload building on the C360 sync path: the entity body posted to C360 and the
+ * event DTO serialized for the retry and DLQ topics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class C360PayloadBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Card card = BenchmarkData.card(1);
+
+    @Benchmark
+    public String retryQueueMessage() throws Exception {
+        return objectMapper.writeValueAsString(CardMapper.toEventDto(card));
+    }
+
+    @Benchmark
+    public byte[] c360RequestBody() throws Exception {
+        return objectMapper.writeValueAsBytes(card);
+    }
+}
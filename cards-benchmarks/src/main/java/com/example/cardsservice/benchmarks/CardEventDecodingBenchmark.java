@@ -0,0 +1,41 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.dto.CardEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON to {@link CardEventDto} decoding as done per record by the Kafka consumers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CardEventDecodingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader eventReader = objectMapper.readerFor(CardEventDto.class);
+
+    @Benchmark
+    public CardEventDto objectMapperReadValue() throws Exception {
+        return objectMapper.readValue(BenchmarkData.EVENT_JSON, CardEventDto.class);
+    }
+
+    @Benchmark
+    public CardEventDto objectReaderReadValue() throws Exception {
+        return eventReader.readValue(BenchmarkData.EVENT_JSON);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.dto.CardEventDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.mapper.CardMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CardEventDto} to {@link Card} mapping shared by CardEventConsumer and
+ * CardRetryConsumer, including timestamp parsing and the stale-event check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CardMappingBenchmark {
+
+    private final CardEventDto event = BenchmarkData.event();
+    private final Card existing = BenchmarkData.card(1);
+
+    @Benchmark
+    public Card mapNewCard() {
+        Card card = new Card();
+        CardMapper.applyEvent(event, card, CardMapper.parseEventTimestamp(event.getEventTimestamp()));
+        return card;
+    }
+
+    @Benchmark
+    public boolean staleCheckAndMapExisting() {
+        LocalDateTime eventTimestamp = CardMapper.parseEventTimestamp(event.getEventTimestamp());
+        if (CardMapper.isStale(existing.getEventTimestamp(), eventTimestamp)) {
+            return false;
+        }
+        CardMapper.applyEvent(event, existing, eventTimestamp);
+        return true;
+    }
+}
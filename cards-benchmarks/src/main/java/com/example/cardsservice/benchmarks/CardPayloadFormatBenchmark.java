@@ -0,0 +1,105 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.dto.SyncPendingCardDto;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.mapper.CardPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON against CBOR for the card list bodies: {@code GET /cards} (stored JSON, re-encoded
+ * for CBOR callers) and a {@code /api/cards/sync/pending} page. Payload sizes, plain and
+ * gzipped as the server compresses large responses, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CardPayloadFormatBenchmark {
+
+    @Param({ "5", "50" })
+    private int cards;
+
+    private final ObjectMapper jsonMapper = mapper(new ObjectMapper());
+    private final ObjectMapper cborMapper = mapper(new ObjectMapper(new CBORFactory()));
+
+    private List<CardResponseDto> responseList;
+    private List<SyncPendingCardDto> pendingPage;
+    private byte[] storedJson;
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        responseList = BenchmarkData.cards(cards).stream().map(CardMapper::toResponseDto).toList();
+        pendingPage = BenchmarkData.cards(cards).stream().map(CardMapper::toSyncPendingDto).toList();
+        storedJson = jsonMapper.writeValueAsBytes(responseList);
+
+        byte[] pendingJson = jsonMapper.writeValueAsBytes(pendingPage);
+        byte[] pendingCbor = cborMapper.writeValueAsBytes(pendingPage);
+        System.out.printf("%n# Payload bytes for %d cards (plain / gzip): GET /cards json %d / %d, cbor %d / %d; "
+                + "sync/pending json %d / %d, cbor %d / %d%n", cards,
+                storedJson.length, gzip(storedJson).length,
+                CardPayloads.jsonToCbor(storedJson).length, gzip(CardPayloads.jsonToCbor(storedJson)).length,
+                pendingJson.length, gzip(pendingJson).length, pendingCbor.length, gzip(pendingCbor).length);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cardsStoredJson() {
+        // What GET /cards does for JSON callers: the stored body as is
+        return storedJson;
+    }
+
+    @Benchmark
+    public byte[] cardsTranscodedCbor() {
+        return CardPayloads.jsonToCbor(storedJson);
+    }
+
+    @Benchmark
+    public byte[] cardsGzippedJson() throws IOException {
+        return gzip(storedJson);
+    }
+
+    @Benchmark
+    public byte[] pendingPageJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(pendingPage);
+    }
+
+    @Benchmark
+    public byte[] pendingPageCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(pendingPage);
+    }
+}
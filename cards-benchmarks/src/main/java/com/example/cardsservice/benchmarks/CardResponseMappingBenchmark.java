@@ -0,0 +1,50 @@
+package com.example.cardsservice.benchmarks;
+
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.mapper.CardMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Response list building for {@code GET /cards} as done by CardIntegrationService.getCards
+ * when the customer's card view is not built yet and the cards table answers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CardResponseMappingBenchmark {
+
+    @Param({ "1", "5", "20" })
+    private int cardsPerCustomer;
+
+    private List<Card> cards;
+
+    @Setup
+    public void setUp() {
+        cards = BenchmarkData.cards(cardsPerCustomer);
+    }
+
+    @Benchmark
+    public List<CardResponseDto> mapResponseList() {
+        return cards.stream()
+                .map(CardMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+}
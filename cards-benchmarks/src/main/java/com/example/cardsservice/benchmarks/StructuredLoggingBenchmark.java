@@ -0,0 +1,143 @@
+package com.example.cardsservice.benchmarks;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.cardsservice.logging.HotPathLogger;
+import com.example.cardsservice.service.C360SyncService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Per-event cost of the structured logging pattern used by C360SyncService and
+ * CardRetryConsumer: {@code StructuredArguments.kv(...)} argument allocation, the
+ * log call itself and the MDC setup/clear done for every sync attempt. Output is
+ * formatted with the service's log pattern into a null stream, so encoding is
+ * measured but not I/O.
+ * The {@code hotPath*} variants go through {@link HotPathLogger} with the production
+ * {@code c360-sync} sampling (one line in 100).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StructuredLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [cards-service,%X{traceId:-},%X{spanId:-}] --- [%t] %logger{39} : %m%n";
+
+    @Param({ "INFO", "WARN" })
+    private String loggerLevel;
+
+    private Logger logger;
+    private HotPathLogger hotLog;
+    private OutputStreamAppender<ILoggingEvent> appender;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        logger = context.getLogger("com.example.cardsservice.service.C360SyncService");
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        logger.setLevel(ch.qos.logback.classic.Level.toLevel(loggerLevel));
+
+        HotPathLogger.configure("benchmark-c360-sync", 100, 0);
+        hotLog = HotPathLogger.getLogger(C360SyncService.class, "benchmark-c360-sync");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.detachAndStopAllAppenders();
+    }
+
+    @Benchmark
+    public void syncAttemptLogWithKeyValues() {
+        logger.info("Syncing card to Customer360",
+                kv("attempt", 1),
+                kv("maxAttempts", 4));
+    }
+
+    @Benchmark
+    public void syncSuccessLogWithKeyValues() {
+        logger.info("Successfully synced card to Customer360",
+                kv("durationMs", 45L));
+    }
+
+    @Benchmark
+    public void mdcSetupAndClear() {
+        MDC.put("tokenRef", "tok_BENCH_000001");
+        MDC.put("cardId", String.valueOf(1L));
+        MDC.put("traceId", "64f3e2a1b2c3d4e5");
+        MDC.put("spanId", "1a2b3c4d5e6f7g8h");
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void perEventLoggingWithMdc() {
+        MDC.put("tokenRef", "tok_BENCH_000001");
+        MDC.put("cardId", String.valueOf(1L));
+        logger.info("Syncing card to Customer360",
+                kv("attempt", 1),
+                kv("maxAttempts", 4));
+        logger.info("Successfully synced card to Customer360",
+                kv("durationMs", 45L));
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void hotPathSyncAttemptLog() {
+        if (hotLog.shouldLog(org.slf4j.event.Level.INFO)) {
+            hotLog.log(org.slf4j.event.Level.INFO, "Syncing card to Customer360", "attempt", 1, "maxAttempts", 4);
+        }
+    }
+
+    @Benchmark
+    public void hotPathPerEventLogging() {
+        // MDC is only written when the thread does not already carry this card
+        if (!"tok_BENCH_000001".equals(MDC.get("tokenRef"))) {
+            MDC.put("tokenRef", "tok_BENCH_000001");
+            MDC.put("cardId", String.valueOf(1L));
+        }
+        if (hotLog.shouldLog(org.slf4j.event.Level.INFO)) {
+            hotLog.log(org.slf4j.event.Level.INFO, "Syncing card to Customer360", "attempt", 1, "maxAttempts", 4);
+        }
+        if (hotLog.shouldLog(org.slf4j.event.Level.INFO)) {
+            hotLog.log(org.slf4j.event.Level.INFO, "Successfully synced card to Customer360", "durationMs", 45L);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.cardsservice.config;
+
+import com.example.cardsservice.logging.HotPathLogger;
+import lombok.Data;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+
+/**
+ * Applies {@code cards.logging.hot-path.<category>.sample-rate} and
+ * {@code .max-per-second} to {@link HotPathLogger}. Categories without settings log
+ * every line.
+ */
+@Configuration
+public class HotPathLoggingConfig {
+
+    public HotPathLoggingConfig(Environment environment) {
+        Binder.get(environment)
+                .bind("cards.logging.hot-path", Bindable.mapOf(String.class, CategorySettings.class))
+                .orElse(Collections.emptyMap())
+                .forEach((category, settings) ->
+                        HotPathLogger.configure(category, settings.getSampleRate(), settings.getMaxPerSecond()));
+    }
+
+    @Data
+    public static class CategorySettings {
+        /** Write one line in this many. */
+        private int sampleRate = 1;
+        /** Lines per second after sampling; 0 is unlimited. */
+        private int maxPerSecond = 0;
+    }
+}
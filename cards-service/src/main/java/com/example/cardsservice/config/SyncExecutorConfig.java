@@ -0,0 +1,133 @@
+package com.example.cardsservice.config;
+
+import com.example.cardsservice.executor.SyncExecutors;
+import com.example.cardsservice.executor.SyncPendingRejectionPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Bounded executors for C360 sync work, configured per executor through
+ * {@code c360.executor.<dispatch|retry|resync|critical>.*}. Queue depth, active and pool size are
+ * published by Boot's executor metrics ({@code executor.*{name=<bean>}}); rejections are
+ * counted by {@link SyncPendingRejectionPolicy}.
+ * <p>
+ * Each is a fixed pool of {@code core-size} workers in front of a {@code queue-capacity}
+ * queue. A worker only starts a sync's attempt chain, so the pool does not need to grow
+ * with C360 latency; a thread pool only adds threads past its core once the queue is
+ * full, so a larger maximum would only have delayed rejections.
+ * <p>
+ * With {@code c360.executor.virtual-threads=true} the workers are virtual threads when
+ * the JDK supports them (21+); the bounds and metrics stay the same.
+ */
+@Configuration
+@Slf4j
+public class SyncExecutorConfig {
+
+    private final MeterRegistry meterRegistry;
+    private final Binder binder;
+    private final boolean virtualThreads;
+
+    public SyncExecutorConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.binder = Binder.get(environment);
+        this.virtualThreads = binder.bind("c360.executor.virtual-threads", Boolean.class).orElse(false);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor c360DispatchExecutor() {
+        return executor("c360DispatchExecutor", "c360-dispatch", settings("dispatch", new ExecutorSettings(16, 1_000)));
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor c360RetryExecutor() {
+        return executor("c360RetryExecutor", "c360-retry", settings("retry", new ExecutorSettings(8, 500)));
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor c360ResyncExecutor() {
+        return executor("c360ResyncExecutor", "c360-resync", settings("resync", new ExecutorSettings(4, 200)));
+    }
+
+    /**
+     * Workers and queue reserved for BLOCKED/HOTLISTED transitions.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor c360CriticalExecutor() {
+        return executor("c360CriticalExecutor", "c360-critical", settings("critical", new ExecutorSettings(8, 1_000)));
+    }
+
+    @Bean
+    public SyncExecutors syncExecutors(@Qualifier("c360DispatchExecutor") ThreadPoolTaskExecutor dispatch,
+            @Qualifier("c360RetryExecutor") ThreadPoolTaskExecutor retry,
+            @Qualifier("c360ResyncExecutor") ThreadPoolTaskExecutor resync,
+            @Qualifier("c360CriticalExecutor") ThreadPoolTaskExecutor critical) {
+        return new SyncExecutors(dispatch, retry, resync, critical);
+    }
+
+    private ExecutorSettings settings(String executor, ExecutorSettings defaults) {
+        return binder.bind("c360.executor." + executor, Bindable.ofInstance(defaults)).orElse(defaults);
+    }
+
+    /**
+     * @param beanName tags {@code executor.rejected} like Boot tags the other {@code executor.*} meters
+     */
+    private ThreadPoolTaskExecutor executor(String beanName, String threadPrefix, ExecutorSettings executorSettings) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadPrefix + "-");
+        executor.setCorePoolSize(executorSettings.getCoreSize());
+        executor.setMaxPoolSize(executorSettings.getCoreSize());
+        executor.setQueueCapacity(executorSettings.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new SyncPendingRejectionPolicy(beanName, meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        if (virtualThreads) {
+            ThreadFactory factory = virtualThreadFactory(threadPrefix + "-");
+            if (factory != null) {
+                executor.setThreadFactory(factory);
+            } else {
+                log.warn("Virtual threads requested for {} but not supported by this JDK; using platform threads", beanName);
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * {@code Thread.ofVirtual().name(prefix, 0).factory()}, looked up reflectively so the
+     * service still builds and runs on JDK 17.
+     */
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Data
+    public static class ExecutorSettings {
+        private int coreSize;
+        private int queueCapacity;
+
+        public ExecutorSettings() {
+        }
+
+        ExecutorSettings(int coreSize, int queueCapacity) {
+            this.coreSize = coreSize;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.cardsservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
@@ -12,21 +14,50 @@ import java.time.Duration;
 @Configuration
 public class WebClientConfig {
 
+    @Value("${c360.client.response-timeout-ms:10000}")
+    private long responseTimeoutMs = 10_000;
+
+    @Value("${c360.client.connect-timeout-ms:5000}")
+    private int connectTimeoutMs = 5_000;
+
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
+    @Primary
+    public WebClient webClient(WebClient.Builder builder,
+            @Value("${c360.client.max-connections:100}") int maxConnections,
+            @Value("${c360.client.pending-acquire-max-count:2000}") int pendingAcquireMaxCount) {
+        return c360WebClient(builder, "c360-connection-pool", maxConnections, pendingAcquireMaxCount);
+    }
+
+    /**
+     * Client for BLOCKED/HOTLISTED syncs, on a pool of its own so they never wait for a
+     * connection behind routine updates.
+     */
+    @Bean
+    public WebClient c360CriticalWebClient(WebClient.Builder builder,
+            @Value("${c360.client.critical.max-connections:20}") int maxConnections,
+            @Value("${c360.client.critical.pending-acquire-max-count:1000}") int pendingAcquireMaxCount) {
+        return c360WebClient(builder, "c360-critical-connection-pool", maxConnections, pendingAcquireMaxCount);
+    }
+
+    private WebClient c360WebClient(WebClient.Builder builder, String poolName, int maxConnections,
+            int pendingAcquireMaxCount) {
         // Configure connection pool
-        ConnectionProvider connectionProvider = ConnectionProvider.builder("c360-connection-pool")
-                .maxConnections(100)
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(poolName)
+                .maxConnections(maxConnections)
                 .maxIdleTime(Duration.ofSeconds(20))
                 .maxLifeTime(Duration.ofSeconds(60))
                 .pendingAcquireTimeout(Duration.ofSeconds(60))
+                // Syncs in flight are bounded by the consumer backpressure (high watermark plus
+                // one poll), not by this pool: a burst beyond the connections waits for one
+                // instead of failing and counting against the circuit breaker
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
                 .evictInBackground(Duration.ofSeconds(120))
                 .build();
 
         // Configure HTTP client with timeouts
         HttpClient httpClient = HttpClient.create(connectionProvider)
-                .responseTimeout(Duration.ofSeconds(10))
-                .option(io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000);
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .option(io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
 
         return builder
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
@@ -2,83 +2,435 @@ package com.example.cardsservice.consumer;
 
 import com.example.cardsservice.dto.CardEventDto;
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.SyncPriority;
+import com.example.cardsservice.jfr.CardIngestEvent;
+import com.example.cardsservice.logging.HotPathLogger;
+import com.example.cardsservice.logging.LogRedaction;
+import com.example.cardsservice.mapper.CardMapper;
 import com.example.cardsservice.repository.CardRepository;
 import com.example.cardsservice.service.C360SyncService;
+import com.example.cardsservice.service.CardEventAuditService;
+import com.example.cardsservice.service.CardLifecycleHistoryService;
+import com.example.cardsservice.service.CustomerCardViewService;
+import com.example.cardsservice.service.CustomerCardViewService.SavedCard;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.event.Level;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class CardEventConsumer {
 
+    public static final String LISTENER_ID = "cardEventsListener";
+
+    private static final HotPathLogger hotLog = HotPathLogger.getLogger(CardEventConsumer.class, "ingest");
+    private static final HotPathLogger staleLog = HotPathLogger.getLogger(CardEventConsumer.class, "ingest-stale");
+
     private final CardRepository cardRepository;
+    private final CustomerCardViewService customerCardViews;
+    private final TransactionOperations transactions;
     private final C360SyncService c360SyncService;
+    private final InFlightSyncTracker inFlightSyncs;
+    private final CardEventAuditService audit;
+    private final CardLifecycleHistoryService lifecycleHistory;
+    private final MeterRegistry meterRegistry;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @KafkaListener(topics = "card-events", groupId = "card-repo-group")
-    public void consume(String message) {
-        log.info("Received message: {}", message);
+    // Per-stage ingestion timers
+    private final Timer decodeTimer;
+    private final Timer dbReadTimer;
+    private final Timer dbWriteTimer;
+    private final Timer dispatchTimer;
+    private final Timer persistFreshnessTimer;
+
+    private final Map<TopicPartition, AtomicLong> partitionLag = new ConcurrentHashMap<>();
+
+    public CardEventConsumer(CardRepository cardRepository,
+            CustomerCardViewService customerCardViews,
+            TransactionOperations transactions,
+            C360SyncService c360SyncService,
+            InFlightSyncTracker inFlightSyncs,
+            CardEventAuditService audit,
+            CardLifecycleHistoryService lifecycleHistory,
+            MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.customerCardViews = customerCardViews;
+        this.transactions = transactions;
+        this.c360SyncService = c360SyncService;
+        this.inFlightSyncs = inFlightSyncs;
+        this.audit = audit;
+        this.lifecycleHistory = lifecycleHistory;
+        this.meterRegistry = meterRegistry;
+
+        this.decodeTimer = stageTimer("decode", meterRegistry);
+        this.dbReadTimer = stageTimer("db_read", meterRegistry);
+        this.dbWriteTimer = stageTimer("db_write", meterRegistry);
+        this.dispatchTimer = stageTimer("dispatch", meterRegistry);
+
+        this.persistFreshnessTimer = Timer.builder("cards.event.freshness")
+                .description("Time from the CMS eventTimestamp to the given pipeline stage")
+                .tag("stage", "persisted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Receives each poll as one batch, so a poll costs one read of its cards and one
+     * transaction for their saves and customer views instead of one of each per record.
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "card-events", groupId = "card-repo-group", batch = "true")
+    public void onMessages(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        List<IngestedRecord> batch = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            batch.add(new IngestedRecord(record.value(), record.partition(), record.offset()));
+        }
+        processBatch(batch);
+
+        Set<TopicPartition> partitions = new LinkedHashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            inFlightSyncs.track(partition, record.offset(), batch.get(i).sync);
+            partitions.add(partition);
+        }
+        for (TopicPartition partition : partitions) {
+            recordLag(partition, consumer);
+        }
+    }
+
+    /**
+     * Ingests one event outside the listener, without batching. Returns the C360
+     * sync started for it, or {@code null} when the event was invalid, stale or failed.
+     */
+    public CompletableFuture<Boolean> consume(String message) {
+        IngestedRecord ingest = new IngestedRecord(message, -1, -1);
+        try {
+            if (decode(ingest)) {
+                processOne(ingest);
+            }
+        } catch (Exception e) {
+            logFailure(ingest, e);
+        } finally {
+            finish(ingest);
+        }
+        return ingest.sync;
+    }
+
+    /**
+     * Ingests a poll in chunks of distinct tokenRefs: a tokenRef seen again starts a new
+     * chunk, so every event is applied on top of the state the previous one saved.
+     */
+    private void processBatch(List<IngestedRecord> batch) {
+        List<IngestedRecord> chunk = new ArrayList<>();
+        Set<String> tokenRefs = new HashSet<>();
         try {
-            CardEventDto event = objectMapper.readValue(message, CardEventDto.class);
+            for (IngestedRecord ingest : batch) {
+                try {
+                    if (!decode(ingest)) {
+                        continue;
+                    }
+                } catch (Exception e) {
+                    logFailure(ingest, e);
+                    continue;
+                }
+                if (!tokenRefs.add(ingest.tokenRef)) {
+                    processChunk(chunk);
+                    chunk = new ArrayList<>();
+                    tokenRefs.clear();
+                    tokenRefs.add(ingest.tokenRef);
+                }
+                chunk.add(ingest);
+            }
+            processChunk(chunk);
+        } finally {
+            batch.forEach(this::finish);
+        }
+    }
 
-            if (event.getTokenRef() == null) {
-                log.error("Missing tokenRef in event: {}", message);
-                return;
+    /**
+     * Reads the chunk's cards with one query and saves them with their customer views in
+     * one transaction. When that fails the chunk is retried one record at a time, so a
+     * bad record only costs itself.
+     */
+    private void processChunk(List<IngestedRecord> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<IngestedRecord> saved;
+        try {
+            saved = writeChunk(chunk);
+        } catch (RuntimeException e) {
+            log.warn("Batch write of {} card events failed; retrying them one at a time", chunk.size(), e);
+            for (IngestedRecord ingest : chunk) {
+                ingest.outcome = "error";
+                try {
+                    processOne(ingest);
+                } catch (Exception recordFailure) {
+                    logFailure(ingest, recordFailure);
+                }
+            }
+            return;
+        }
+        for (IngestedRecord ingest : saved) {
+            try {
+                dispatch(ingest);
+            } catch (Exception e) {
+                logFailure(ingest, e);
             }
+        }
+    }
 
-            Optional<Card> existingCardOpt = cardRepository.findByTokenRef(event.getTokenRef());
+    private List<IngestedRecord> writeChunk(List<IngestedRecord> chunk) {
+        // Read in the write's transaction: the cards stay managed and are saved without a merge
+        // re-selecting each of them. The customers' card views change with the cards or not at all
+        return transactions.execute(status -> {
+            long start = System.nanoTime();
+            List<String> tokenRefs = new ArrayList<>(chunk.size());
+            for (IngestedRecord ingest : chunk) {
+                tokenRefs.add(ingest.tokenRef);
+            }
+            Map<String, Card> existing = new HashMap<>();
+            for (Card card : cardRepository.findByTokenRefIn(tokenRefs)) {
+                existing.put(card.getTokenRef(), card);
+            }
+            long read = System.nanoTime();
+            for (IngestedRecord ingest : chunk) {
+                recordRead(ingest, (read - start) / chunk.size());
+            }
 
-            // Parse event timestamp
-            LocalDateTime eventTimestamp = null;
-            if (event.getEventTimestamp() != null) {
-                eventTimestamp = LocalDateTime.parse(event.getEventTimestamp(), DateTimeFormatter.ISO_DATE_TIME);
+            List<IngestedRecord> toSave = new ArrayList<>();
+            for (IngestedRecord ingest : chunk) {
+                if (prepare(ingest, Optional.ofNullable(existing.get(ingest.tokenRef)))) {
+                    toSave.add(ingest);
+                }
+            }
+            if (toSave.isEmpty()) {
+                return toSave;
             }
 
-            // Check for stale events before processing
-            if (existingCardOpt.isPresent() && eventTimestamp != null &&
-                    existingCardOpt.get().getEventTimestamp() != null &&
-                    eventTimestamp.isBefore(existingCardOpt.get().getEventTimestamp())) {
-                log.warn("Ignoring stale event for tokenRef: {}", event.getTokenRef());
-                return;
+            long writeStart = System.nanoTime();
+            List<SavedCard> savedCards = new ArrayList<>(toSave.size());
+            for (IngestedRecord ingest : toSave) {
+                ingest.saved = cardRepository.save(ingest.card);
+                savedCards.add(new SavedCard(ingest.saved, ingest.previousMobileNumber));
+            }
+            customerCardViews.onCardsSaved(savedCards);
+            cardRepository.flush();
+            long written = System.nanoTime();
+            for (IngestedRecord ingest : toSave) {
+                recordWrite(ingest, (written - writeStart) / toSave.size());
             }
+            return toSave;
+        });
+    }
 
-            Card card = existingCardOpt.orElse(new Card());
-
-            // Map fields from DTO
-            card.setTokenRef(event.getTokenRef());
-            card.setMaskedCardNumber(event.getMaskedCardNumber());
-            card.setLast4(event.getLast4());
-            card.setProgramCode(event.getProgramCode());
-            card.setProgramCategory(event.getProgramCategory());
-            card.setNetwork(event.getNetwork());
-            card.setBin(event.getBin());
-            card.setLifecycleStatus(event.getLifecycleStatus());
-            card.setRawStatus(event.getRawStatus());
-            card.setCustomerMobileNumber(event.getCustomerMobileNumber());
-            card.setCustId(event.getCustId());
-            card.setAccountNo(event.getAccountNo());
-            card.setIssuedBySystem(event.getIssuedBySystem());
-            card.setIssuanceChannel(event.getIssuanceChannel());
-            card.setEventTimestamp(eventTimestamp);
-
-            Card savedCard = cardRepository.save(card);
-            log.info("Saved card: {}", savedCard.getTokenRef());
-
-            // Sync to C360 with automatic retry mechanism
-            c360SyncService.syncToC360(savedCard);
+    private void processOne(IngestedRecord ingest) {
+        long start = System.nanoTime();
+        Optional<Card> existingCardOpt = cardRepository.findByTokenRef(ingest.tokenRef);
+        recordRead(ingest, System.nanoTime() - start);
+        if (!prepare(ingest, existingCardOpt)) {
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("Error processing message: {}", message, e);
-            // In a real scenario, we might throw here to let Kafka retry or DLQ handle it
-            // throw new RuntimeException(e);
+        long writeStart = System.nanoTime();
+        // The customer's card view changes with the card or not at all
+        ingest.saved = transactions.execute(status -> {
+            Card saved = cardRepository.save(ingest.card);
+            customerCardViews.onCardSaved(saved, ingest.previousMobileNumber);
+            return saved;
+        });
+        recordWrite(ingest, System.nanoTime() - writeStart);
+        dispatch(ingest);
+    }
+
+    /**
+     * Decodes the event; false when it has no tokenRef and cannot be ingested.
+     */
+    private boolean decode(IngestedRecord ingest) throws IOException {
+        long start = System.nanoTime();
+        ingest.event = objectMapper.readValue(ingest.message, CardEventDto.class);
+        long decoded = System.nanoTime();
+        decodeTimer.record(decoded - start, TimeUnit.NANOSECONDS);
+        ingest.jfrEvent.decodeNanos = decoded - start;
+
+        if (ingest.event.getTokenRef() == null) {
+            log.error("Missing tokenRef in event: {}", LogRedaction.redactPayload(ingest.message));
+            ingest.outcome = "invalid";
+            return false;
+        }
+        ingest.tokenRef = ingest.event.getTokenRef();
+
+        // Parse event timestamp
+        ingest.eventTimestamp = CardMapper.parseEventTimestamp(ingest.event.getEventTimestamp());
+        return true;
+    }
+
+    /**
+     * Applies the event to the stored card, or a new one; false when the event is older
+     * than what is stored and is skipped.
+     */
+    private boolean prepare(IngestedRecord ingest, Optional<Card> existingCardOpt) {
+        // Check for stale events before processing
+        if (existingCardOpt.isPresent() &&
+                CardMapper.isStale(existingCardOpt.get().getEventTimestamp(), ingest.eventTimestamp)) {
+            if (staleLog.shouldLog(Level.WARN)) {
+                staleLog.log(Level.WARN, "Ignoring stale event", "tokenRef", ingest.tokenRef);
+            }
+            ingest.outcome = "stale";
+            return false;
+        }
+
+        Card card = existingCardOpt.orElse(new Card());
+        ingest.previousStatus = card.getLifecycleStatus();
+        ingest.previousRawStatus = card.getRawStatus();
+        ingest.previousMobileNumber = card.getCustomerMobileNumber();
+
+        // Map fields from DTO
+        CardMapper.applyEvent(ingest.event, card, ingest.eventTimestamp);
+        card.setSyncRequestedAt(LocalDateTime.now());
+        ingest.card = card;
+        return true;
+    }
+
+    private void dispatch(IngestedRecord ingest) {
+        Card savedCard = ingest.saved;
+        recordFreshness(persistFreshnessTimer, ingest.eventTimestamp);
+        // Queued only when a status changed; written in batches off this thread
+        lifecycleHistory.record(savedCard, ingest.previousStatus, ingest.previousRawStatus);
+        if (hotLog.shouldLog(Level.INFO)) {
+            hotLog.log(Level.INFO, "Saved card", "tokenRef", ingest.tokenRef,
+                    "partition", ingest.partition, "offset", ingest.offset);
+        }
+
+        long start = System.nanoTime();
+        // Sync to C360 with automatic retry mechanism; BLOCKED/HOTLISTED transitions jump the queue
+        ingest.sync = c360SyncService.syncToC360(savedCard,
+                SyncPriority.forTransition(ingest.previousStatus, savedCard.getLifecycleStatus()));
+        long dispatched = System.nanoTime() - start;
+        dispatchTimer.record(dispatched, TimeUnit.NANOSECONDS);
+        ingest.jfrEvent.dispatchNanos = dispatched;
+        ingest.outcome = "saved";
+    }
+
+    private void recordRead(IngestedRecord ingest, long nanos) {
+        dbReadTimer.record(nanos, TimeUnit.NANOSECONDS);
+        ingest.jfrEvent.dbReadNanos = nanos;
+    }
+
+    private void recordWrite(IngestedRecord ingest, long nanos) {
+        dbWriteTimer.record(nanos, TimeUnit.NANOSECONDS);
+        ingest.jfrEvent.dbWriteNanos = nanos;
+    }
+
+    private static void logFailure(IngestedRecord ingest, Exception e) {
+        log.error("Error processing message at partition {} offset {}: {}",
+                ingest.partition, ingest.offset, LogRedaction.redactPayload(ingest.message), e);
+        // In a real scenario, we might throw here to let Kafka retry or DLQ handle it
+        // throw new RuntimeException(e);
+    }
+
+    private void finish(IngestedRecord ingest) {
+        // Queued for the batch writer; events without a tokenRef cannot be looked up and are not kept
+        if (ingest.tokenRef != null) {
+            audit.append(ingest.tokenRef, ingest.partition, ingest.offset, ingest.outcome, ingest.message);
+        }
+        CardIngestEvent jfrEvent = ingest.jfrEvent;
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.partition = ingest.partition;
+            jfrEvent.offset = ingest.offset;
+            jfrEvent.tokenRef = ingest.tokenRef;
+            jfrEvent.outcome = ingest.outcome;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Lag is taken from the consumer's cached fetch metadata, so it costs no broker
+     * round trip; partitions without a known end offset keep their last value.
+     */
+    private void recordLag(TopicPartition partition, Consumer<?, ?> consumer) {
+        if (consumer == null) {
+            return;
+        }
+        OptionalLong lag = consumer.currentLag(partition);
+        if (lag.isPresent()) {
+            partitionLag.computeIfAbsent(partition, this::registerLagGauge).set(lag.getAsLong());
+        }
+    }
+
+    private AtomicLong registerLagGauge(TopicPartition partition) {
+        AtomicLong lag = new AtomicLong();
+        Gauge.builder("cards.consumer.lag", lag, AtomicLong::get)
+                .description("Records behind the log end offset per partition, from the consumer position")
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return lag;
+    }
+
+    private static void recordFreshness(Timer timer, LocalDateTime eventTimestamp) {
+        if (eventTimestamp != null) {
+            timer.record(Duration.between(eventTimestamp, LocalDateTime.now()));
+        }
+    }
+
+    private static Timer stageTimer(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("cards.ingest.stage.duration")
+                .description("Time spent in each card-events ingestion stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One event on its way through ingestion, with what each stage found.
+     */
+    private static final class IngestedRecord {
+        private final String message;
+        private final int partition;
+        private final long offset;
+        // Only filled in and committed while a JFR recording is active
+        private final CardIngestEvent jfrEvent = new CardIngestEvent();
+        private String outcome = "error";
+        private CardEventDto event;
+        private String tokenRef;
+        private LocalDateTime eventTimestamp;
+        private String previousStatus;
+        private String previousRawStatus;
+        private String previousMobileNumber;
+        private Card card;
+        private Card saved;
+        private CompletableFuture<Boolean> sync;
+
+        private IngestedRecord(String message, int partition, long offset) {
+            this.message = message;
+            this.partition = partition;
+            this.offset = offset;
+            jfrEvent.begin();
         }
     }
 }
@@ -2,28 +2,42 @@ package com.example.cardsservice.consumer;
 
 import com.example.cardsservice.dto.CardEventDto;
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.SyncPriority;
+import com.example.cardsservice.logging.HotPathLogger;
+import com.example.cardsservice.mapper.CardMapper;
 import com.example.cardsservice.repository.CardRepository;
 import com.example.cardsservice.service.C360SyncService;
+import com.example.cardsservice.service.CustomerCardViewService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.slf4j.event.Level;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ExecutionException;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 @Service
 @Slf4j
 public class CardRetryConsumer {
 
+    public static final String LISTENER_ID = "cardRetryListener";
+    public static final String CRITICAL_LISTENER_ID = "cardRetryCriticalListener";
+
+    private static final HotPathLogger hotLog = HotPathLogger.getLogger(CardRetryConsumer.class, "c360-retry");
+
     private final CardRepository cardRepository;
+    private final CustomerCardViewService customerCardViews;
+    private final TransactionOperations transactions;
     private final C360SyncService c360SyncService;
     private final ObjectMapper objectMapper;
     private final Counter retrySuccessCounter;
@@ -32,10 +46,14 @@ public class CardRetryConsumer {
     private static final int MAX_RETRY_ATTEMPTS = 5;
 
     public CardRetryConsumer(CardRepository cardRepository,
+            CustomerCardViewService customerCardViews,
+            TransactionOperations transactions,
             C360SyncService c360SyncService,
             ObjectMapper objectMapper,
             MeterRegistry meterRegistry) {
         this.cardRepository = cardRepository;
+        this.customerCardViews = customerCardViews;
+        this.transactions = transactions;
         this.c360SyncService = c360SyncService;
         this.objectMapper = objectMapper;
 
@@ -48,22 +66,44 @@ public class CardRetryConsumer {
                 .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "${c360.sync.retry.topic:card-events-retry}", groupId = "card-retry-consumer-group", containerFactory = "kafkaListenerContainerFactory")
+    @KafkaListener(id = LISTENER_ID, topics = "${c360.sync.retry.topic:card-events-retry}", groupId = "card-retry-consumer-group", containerFactory = "kafkaListenerContainerFactory")
     public void consumeRetryQueue(@Payload String message,
             @Header(value = KafkaHeaders.RECEIVED_TOPIC, required = false) String topic,
             @Header(value = KafkaHeaders.OFFSET, required = false) Long offset,
-            @Header(value = "retry-count", required = false, defaultValue = "0") Integer retryCount) {
+            @Header(value = C360SyncService.RETRY_COUNT_HEADER, required = false, defaultValue = "0") String retryCount) {
+        processRetry(message, topic, offset, retryCount, SyncPriority.NORMAL);
+    }
 
+    /**
+     * Retries of BLOCKED/HOTLISTED transitions. A container and consumer group of their
+     * own keep them from waiting behind the routine retry backlog, and they sync on the
+     * critical executor.
+     */
+    @KafkaListener(id = CRITICAL_LISTENER_ID, topics = "${c360.sync.retry.critical-topic:card-events-retry-critical}", groupId = "card-retry-critical-consumer-group", containerFactory = "kafkaListenerContainerFactory")
+    public void consumeCriticalRetryQueue(@Payload String message,
+            @Header(value = KafkaHeaders.RECEIVED_TOPIC, required = false) String topic,
+            @Header(value = KafkaHeaders.OFFSET, required = false) Long offset,
+            @Header(value = C360SyncService.RETRY_COUNT_HEADER, required = false, defaultValue = "0") String retryCount) {
+        processRetry(message, topic, offset, retryCount, SyncPriority.CRITICAL);
+    }
+
+    /**
+     * @param retryCountHeader the record's {@value C360SyncService#RETRY_COUNT_HEADER}; stamped
+     *                         as text, which the listener adapter would otherwise decode as a binary int
+     */
+    private void processRetry(String message, String topic, Long offset, String retryCountHeader,
+            SyncPriority priority) {
         MDC.put("topic", topic);
         MDC.put("offset", String.valueOf(offset));
-        MDC.put("retryCount", String.valueOf(retryCount));
+        MDC.put("retryCount", retryCountHeader);
 
-        log.info("Received message from retry queue",
-                kv("topic", topic),
-                kv("offset", offset),
-                kv("retryCount", retryCount));
+        if (hotLog.shouldLog(Level.INFO)) {
+            hotLog.log(Level.INFO, "Received message from retry queue",
+                    "topic", topic, "offset", offset, "retryCount", retryCountHeader);
+        }
 
         try {
+            int retryCount = Integer.parseInt(retryCountHeader.trim());
             CardEventDto event = objectMapper.readValue(message, CardEventDto.class);
             MDC.put("tokenRef", event.getTokenRef());
 
@@ -86,14 +126,19 @@ public class CardRetryConsumer {
                     });
 
             // Attempt to sync
-            boolean success = c360SyncService.syncToC360(card).get();
+            // A failed sync pushes the card back with the count incremented
+            boolean success = c360SyncService.retrySync(card, priority, retryCount).get();
 
             if (success) {
                 retrySuccessCounter.increment();
-                log.info("Successfully processed retry queue message");
+                if (hotLog.shouldLog(Level.INFO)) {
+                    hotLog.log(Level.INFO, "Successfully processed retry queue message");
+                }
             } else {
                 retryFailureCounter.increment();
-                log.warn("Failed to process retry queue message. Will be retried by Kafka.");
+                if (hotLog.shouldLog(Level.WARN)) {
+                    hotLog.log(Level.WARN, "Failed to process retry queue message. Will be retried by Kafka.");
+                }
             }
 
         } catch (ExecutionException | InterruptedException e) {
@@ -121,30 +166,13 @@ public class CardRetryConsumer {
 
     private Card mapEventToCard(CardEventDto event) {
         Card card = new Card();
-        card.setTokenRef(event.getTokenRef());
-        card.setMaskedCardNumber(event.getMaskedCardNumber());
-        card.setLast4(event.getLast4());
-        card.setProgramCode(event.getProgramCode());
-        card.setProgramCategory(event.getProgramCategory());
-        card.setNetwork(event.getNetwork());
-        card.setBin(event.getBin());
-        card.setLifecycleStatus(event.getLifecycleStatus());
-        card.setRawStatus(event.getRawStatus());
-        card.setCustomerMobileNumber(event.getCustomerMobileNumber());
-        card.setCustId(event.getCustId());
-        card.setAccountNo(event.getAccountNo());
-        card.setIssuedBySystem(event.getIssuedBySystem());
-        card.setIssuanceChannel(event.getIssuanceChannel());
-
-        if (event.getEventTimestamp() != null) {
-            card.setEventTimestamp(LocalDateTime.parse(event.getEventTimestamp(), DateTimeFormatter.ISO_DATE_TIME));
-        }
-
-        return cardRepository.save(card);
-    }
-
-    // Helper method for structured logging
-    private static org.slf4j.event.KeyValuePair kv(String key, Object value) {
-        return new org.slf4j.event.KeyValuePair(key, value);
+        CardMapper.applyEvent(event, card, CardMapper.parseEventTimestamp(event.getEventTimestamp()));
+        card.setSyncRequestedAt(LocalDateTime.now());
+
+        return transactions.execute(status -> {
+            Card saved = cardRepository.save(card);
+            customerCardViews.onCardSaved(saved, null);
+            return saved;
+        });
     }
 }
@@ -0,0 +1,204 @@
+package com.example.cardsservice.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks the C360 syncs started for each partition and hands them off cleanly when the
+ * partition moves to another consumer. Boot registers it on every listener container.
+ * <p>
+ * Before revoked partitions are handed off, syncs still in flight for them get up to
+ * {@code drain-timeout-ms} to finish. Syncs still queued after that are cancelled and
+ * their cards marked {@code syncPending} for the reconciler; syncs already running are
+ * left to complete. The offsets of every processed record are then committed with
+ * {@code commitSync}, so the new owner starts after them instead of re-saving and
+ * re-syncing the same cards. With the cooperative-sticky assignor only the partitions
+ * that actually move are revoked; the rest keep consuming through the rebalance.
+ * <p>
+ * The time spent in each callback is recorded as {@code cards.consumer.rebalance.duration};
+ * the coordinator's own view is in the {@code kafka.consumer.coordinator.rebalance.*} client metrics.
+ */
+@Component
+@Slf4j
+public class InFlightSyncTracker implements ConsumerAwareRebalanceListener {
+
+    private final Map<TopicPartition, PartitionWork> partitions = new ConcurrentHashMap<>();
+
+    private final Timer revokeTimer;
+    private final Timer assignTimer;
+    private final Timer lostTimer;
+    private final Counter drainedCounter;
+    private final Counter cancelledCounter;
+    private final Counter runningCounter;
+    private final Counter commitFailureCounter;
+
+    @Value("${cards.consumer.rebalance.drain-timeout-ms:5000}")
+    private long drainTimeoutMs = 5_000;
+
+    @Value("${cards.consumer.rebalance.commit-timeout-ms:5000}")
+    private long commitTimeoutMs = 5_000;
+
+    public InFlightSyncTracker(MeterRegistry meterRegistry) {
+        this.revokeTimer = rebalanceTimer("revoked", meterRegistry);
+        this.assignTimer = rebalanceTimer("assigned", meterRegistry);
+        this.lostTimer = rebalanceTimer("lost", meterRegistry);
+        this.drainedCounter = handoffCounter("drained", meterRegistry);
+        this.cancelledCounter = handoffCounter("cancelled", meterRegistry);
+        this.runningCounter = handoffCounter("left_running", meterRegistry);
+        this.commitFailureCounter = Counter.builder("cards.consumer.rebalance.commit_failures")
+                .description("Synchronous offset commits that failed while handing off revoked partitions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that the record at {@code offset} has been handled by the listener, with
+     * {@code sync} the C360 sync it started, if any.
+     */
+    public void track(TopicPartition partition, long offset, CompletableFuture<?> sync) {
+        PartitionWork work = partitions.computeIfAbsent(partition, p -> new PartitionWork());
+        work.nextOffset = offset + 1;
+        if (sync != null && !sync.isDone()) {
+            work.inFlight.add(sync);
+            sync.whenComplete((result, error) -> work.inFlight.remove(sync));
+        }
+    }
+
+    public int inFlight(TopicPartition partition) {
+        PartitionWork work = partitions.get(partition);
+        return work == null ? 0 : work.inFlight.size();
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        long start = System.nanoTime();
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (TopicPartition partition : revoked) {
+            PartitionWork work = partitions.remove(partition);
+            if (work != null) {
+                inFlight.addAll(work.inFlight);
+                if (work.nextOffset >= 0) {
+                    offsets.put(partition, new OffsetAndMetadata(work.nextOffset));
+                }
+            }
+        }
+
+        int cancelled = drain(inFlight);
+        if (!offsets.isEmpty()) {
+            try {
+                consumer.commitSync(offsets, Duration.ofMillis(commitTimeoutMs));
+            } catch (RuntimeException e) {
+                commitFailureCounter.increment();
+                log.warn("Failed to commit offsets {} before handing off revoked partitions", offsets, e);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        revokeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Handed off partitions {} in {}ms ({} in-flight syncs, {} cancelled to syncPending)",
+                revoked, TimeUnit.NANOSECONDS.toMillis(elapsed), inFlight.size(), cancelled);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        long start = System.nanoTime();
+        // Another consumer may already own these: nothing can be committed, and waiting
+        // would only delay it. Queued syncs fall back to syncPending.
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (TopicPartition partition : lost) {
+            PartitionWork work = partitions.remove(partition);
+            if (work != null) {
+                inFlight.addAll(work.inFlight);
+            }
+        }
+        cancel(inFlight);
+        lostTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.warn("Lost partitions {} ({} in-flight syncs)", lost, inFlight.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        long start = System.nanoTime();
+        for (TopicPartition partition : assigned) {
+            partitions.putIfAbsent(partition, new PartitionWork());
+        }
+        assignTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!assigned.isEmpty()) {
+            log.info("Assigned partitions {}", assigned);
+        }
+    }
+
+    /**
+     * Waits up to the drain timeout for {@code inFlight}, then cancels what has not
+     * started. Returns the number cancelled.
+     */
+    private int drain(List<CompletableFuture<?>> inFlight) {
+        if (inFlight.isEmpty()) {
+            return 0;
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                    .get(drainTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Failed syncs have taken their own retry-topic path; stragglers are cancelled below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return cancel(inFlight);
+    }
+
+    private int cancel(List<CompletableFuture<?>> inFlight) {
+        int cancelled = 0;
+        for (CompletableFuture<?> sync : inFlight) {
+            if (sync.isDone() && !sync.isCancelled()) {
+                drainedCounter.increment();
+            } else if (sync.cancel(false)) {
+                cancelledCounter.increment();
+                cancelled++;
+            } else {
+                runningCounter.increment();
+            }
+        }
+        return cancelled;
+    }
+
+    private static Timer rebalanceTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("cards.consumer.rebalance.duration")
+                .description("Time spent in the rebalance callback, during which the consumer is not polling")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static Counter handoffCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("cards.consumer.rebalance.syncs")
+                .description("In-flight C360 syncs of revoked or lost partitions, by how they were handed off")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class PartitionWork {
+        private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile long nextOffset = -1;
+    }
+}
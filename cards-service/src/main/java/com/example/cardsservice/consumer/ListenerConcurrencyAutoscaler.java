@@ -0,0 +1,349 @@
+package com.example.cardsservice.consumer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the concurrency of the card-events and retry listener containers at runtime.
+ * Every interval it takes the container's total partition lag (from the consumers' own
+ * fetch metrics) and the mean per-record processing time since the last evaluation
+ * (Spring Kafka's {@code spring.kafka.listener} timers over the records the consumers
+ * report consumed, so batch listeners are costed per record), and sizes the container to
+ * drain that lag within {@code target-drain-ms}, bounded by
+ * {@code cards.consumer.autoscaling.listeners.<card-events|card-retry>.min/max} and the
+ * partitions it owns.
+ * <p>
+ * It never scales up while the DB connection pool has waiters or is fully in use, nor
+ * while the container is paused by backpressure. A scale-up jumps straight to the
+ * target; scale-down goes one consumer at a time. Changes restart the container,
+ * which rebalances the group, so at most one change per {@code cooldown-ms} is applied.
+ */
+@Component
+@Slf4j
+public class ListenerConcurrencyAutoscaler {
+
+    private static final int HISTORY_SIZE = 20;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Map<String, Bounds> bounds = new LinkedHashMap<>();
+    private final Map<String, ListenerState> states = new ConcurrentHashMap<>();
+
+    @Value("${cards.consumer.autoscaling.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cards.consumer.autoscaling.cooldown-ms:60000}")
+    private long cooldownMs = 60_000;
+
+    @Value("${cards.consumer.autoscaling.target-drain-ms:30000}")
+    private long targetDrainMs = 30_000;
+
+    public ListenerConcurrencyAutoscaler(KafkaListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry,
+            ObjectProvider<DataSource> dataSource,
+            Environment environment) {
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.dataSource = dataSource;
+
+        Binder binder = Binder.get(environment);
+        bounds.put(CardEventConsumer.LISTENER_ID, bounds(binder, "card-events", new Bounds(1, 6)));
+        bounds.put(CardRetryConsumer.LISTENER_ID, bounds(binder, "card-retry", new Bounds(1, 3)));
+    }
+
+    @Scheduled(fixedDelayString = "${cards.consumer.autoscaling.interval-ms:15000}",
+            initialDelayString = "${cards.consumer.autoscaling.interval-ms:15000}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        boolean dbSaturated = dbPoolSaturated();
+        bounds.forEach((listenerId, listenerBounds) -> evaluate(listenerId, listenerBounds, dbSaturated));
+    }
+
+    /**
+     * Current concurrency, bounds and recent decisions per listener, for the actuator view.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        bounds.forEach((listenerId, listenerBounds) -> {
+            Map<String, Object> listener = new LinkedHashMap<>();
+            ListenerState state = states.get(listenerId);
+            listener.put("concurrency", state == null ? null : state.concurrency);
+            listener.put("min", listenerBounds.getMin());
+            listener.put("max", listenerBounds.getMax());
+            listener.put("lastEvaluation", state == null ? null : state.lastEvaluation);
+            listener.put("recentChanges", state == null ? List.of() : state.changes());
+            view.put(listenerId, listener);
+        });
+        return view;
+    }
+
+    void evaluate(String listenerId, Bounds listenerBounds, boolean dbSaturated) {
+        MessageListenerContainer candidate = listenerRegistry.getListenerContainer(listenerId);
+        if (!(candidate instanceof ConcurrentMessageListenerContainer) || !candidate.isRunning()) {
+            return;
+        }
+        ConcurrentMessageListenerContainer<?, ?> container = (ConcurrentMessageListenerContainer<?, ?>) candidate;
+        ListenerState state = states.computeIfAbsent(listenerId, this::newState);
+
+        int current = container.getConcurrency();
+        Map<String, ? extends Map<MetricName, ? extends Metric>> metrics = container.metrics();
+        long lag = totalLag(metrics);
+        double meanProcessingMs = state.meanProcessingMs(listenerTimers(listenerId), recordsConsumed(metrics));
+        Collection<?> assigned = container.getAssignedPartitions();
+        int partitions = assigned == null ? 0 : assigned.size();
+
+        int target = desiredConcurrency(lag, meanProcessingMs, targetDrainMs,
+                listenerBounds.getMin(), listenerBounds.getMax(), partitions);
+        String reason = target > current ? "lag" : target < current ? "idle" : "steady";
+        if (meanProcessingMs < 0 && lag > 0) {
+            // Nothing processed since the last evaluation: no per-record cost to size with
+            target = current;
+            reason = "no_samples";
+        } else if (target > current && dbSaturated) {
+            target = current;
+            reason = "db_pool_saturated";
+        } else if (container.isPauseRequested()) {
+            target = current;
+            reason = "paused";
+        } else if (target < current) {
+            target = current - 1;
+        }
+
+        state.concurrency = current;
+        state.desired = target;
+        state.lag = lag;
+        state.lastEvaluation = decision(current, target, lag, meanProcessingMs, dbSaturated, reason);
+
+        long now = System.nanoTime();
+        if (target != current && now - state.lastChangeNanos >= TimeUnit.MILLISECONDS.toNanos(cooldownMs)) {
+            state.lastChangeNanos = now;
+            state.record(state.lastEvaluation);
+            (target > current ? state.scaledUp : state.scaledDown).increment();
+            log.info("Scaling {} concurrency {} -> {} ({}: lag {}, {}ms per record)",
+                    listenerId, current, target, reason, lag, String.format("%.2f", meanProcessingMs));
+            final int newConcurrency = target;
+            container.stop(() -> {
+                container.setConcurrency(newConcurrency);
+                container.start();
+            });
+        }
+    }
+
+    /**
+     * Consumers needed to drain {@code lag} within {@code targetDrainMs} at the observed
+     * per-record cost, within the bounds and never more than the partitions owned.
+     */
+    static int desiredConcurrency(long lag, double meanProcessingMs, long targetDrainMs, int min, int max,
+            int assignedPartitions) {
+        int needed = meanProcessingMs <= 0 ? min
+                : (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(lag * meanProcessingMs / targetDrainMs));
+        int upper = assignedPartitions > 0 ? Math.min(max, assignedPartitions) : max;
+        return Math.max(min, Math.min(needed, upper));
+    }
+
+    static long totalLag(Map<String, ? extends Map<MetricName, ? extends Metric>> metrics) {
+        long lag = 0;
+        for (Map<MetricName, ? extends Metric> clientMetrics : metrics.values()) {
+            for (Map.Entry<MetricName, ? extends Metric> metric : clientMetrics.entrySet()) {
+                MetricName name = metric.getKey();
+                if ("records-lag".equals(name.name()) && "consumer-fetch-manager-metrics".equals(name.group())
+                        && name.tags().containsKey("partition")) {
+                    Object value = metric.getValue().metricValue();
+                    if (value instanceof Number && !Double.isNaN(((Number) value).doubleValue())) {
+                        lag += ((Number) value).longValue();
+                    }
+                }
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Records handed to the listener by the container's consumers so far, or -1 when
+     * the clients do not report it.
+     */
+    static long recordsConsumed(Map<String, ? extends Map<MetricName, ? extends Metric>> metrics) {
+        long consumed = -1;
+        for (Map<MetricName, ? extends Metric> clientMetrics : metrics.values()) {
+            for (Map.Entry<MetricName, ? extends Metric> metric : clientMetrics.entrySet()) {
+                MetricName name = metric.getKey();
+                if ("records-consumed-total".equals(name.name()) && "consumer-fetch-manager-metrics".equals(name.group())
+                        && !name.tags().containsKey("topic")) {
+                    Object value = metric.getValue().metricValue();
+                    if (value instanceof Number && !Double.isNaN(((Number) value).doubleValue())) {
+                        consumed = Math.max(consumed, 0) + ((Number) value).longValue();
+                    }
+                }
+            }
+        }
+        return consumed;
+    }
+
+    private Collection<Timer> listenerTimers(String listenerId) {
+        // Child containers are named <listenerId>-<n>
+        List<Timer> timers = new ArrayList<>();
+        for (Timer timer : meterRegistry.find("spring.kafka.listener").timers()) {
+            String name = timer.getId().getTag("name");
+            if (name != null && name.startsWith(listenerId + "-")) {
+                timers.add(timer);
+            }
+        }
+        return timers;
+    }
+
+    private boolean dbPoolSaturated() {
+        DataSource source = dataSource.getIfAvailable();
+        if (!(source instanceof HikariDataSource)) {
+            return false;
+        }
+        HikariDataSource hikari = (HikariDataSource) source;
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool != null
+                && (pool.getThreadsAwaitingConnection() > 0 || pool.getActiveConnections() >= hikari.getMaximumPoolSize());
+    }
+
+    private ListenerState newState(String listenerId) {
+        ListenerState state = new ListenerState(
+                changeCounter(listenerId, "up"), changeCounter(listenerId, "down"));
+        Gauge.builder("cards.consumer.concurrency", state, s -> s.concurrency)
+                .description("Current concurrency of the listener container")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        Gauge.builder("cards.consumer.concurrency.desired", state, s -> s.desired)
+                .description("Concurrency the autoscaler wants for the listener container")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        Gauge.builder("cards.consumer.autoscaling.lag", state, s -> s.lag)
+                .description("Total partition lag seen by the autoscaler for the listener container")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private Counter changeCounter(String listenerId, String direction) {
+        return Counter.builder("cards.consumer.autoscaling.changes")
+                .description("Concurrency changes applied by the autoscaler")
+                .tag("listener", listenerId)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Object> decision(int from, int to, long lag, double meanProcessingMs,
+            boolean dbSaturated, String reason) {
+        Map<String, Object> decision = new LinkedHashMap<>();
+        decision.put("at", Instant.now().toString());
+        decision.put("from", from);
+        decision.put("to", to);
+        decision.put("reason", reason);
+        decision.put("lag", lag);
+        decision.put("meanProcessingMs", meanProcessingMs < 0 ? null : meanProcessingMs);
+        decision.put("dbPoolSaturated", dbSaturated);
+        return decision;
+    }
+
+    private static Bounds bounds(Binder binder, String key, Bounds defaults) {
+        return binder.bind("cards.consumer.autoscaling.listeners." + key, Bindable.ofInstance(defaults))
+                .orElse(defaults);
+    }
+
+    @Data
+    public static class Bounds {
+        private int min;
+        private int max;
+
+        public Bounds() {
+        }
+
+        Bounds(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private static final class ListenerState {
+        private final Counter scaledUp;
+        private final Counter scaledDown;
+        private final Deque<Map<String, Object>> history = new ArrayDeque<>();
+        private volatile int concurrency;
+        private volatile int desired;
+        private volatile long lag;
+        private volatile Map<String, Object> lastEvaluation;
+        private long lastChangeNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+        private long lastCount;
+        private double lastTotalMs;
+
+        private ListenerState(Counter scaledUp, Counter scaledDown) {
+            this.scaledUp = scaledUp;
+            this.scaledDown = scaledDown;
+        }
+
+        /**
+         * Mean time per record since the previous call, or -1 when nothing was processed.
+         * A batch listener's timers count polls rather than records, so records are taken
+         * from the consumers' own count when it is reported.
+         */
+        private double meanProcessingMs(Collection<Timer> timers, long recordsConsumed) {
+            long invocations = 0;
+            double totalMs = 0;
+            for (Timer timer : timers) {
+                invocations += timer.count();
+                totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+            long count = recordsConsumed >= 0 ? recordsConsumed : invocations;
+            if (count < lastCount || totalMs < lastTotalMs) {
+                // Timers are re-registered when the container restarts with a new concurrency
+                lastCount = 0;
+                lastTotalMs = 0;
+            }
+            long records = count - lastCount;
+            double elapsedMs = totalMs - lastTotalMs;
+            lastCount = count;
+            lastTotalMs = totalMs;
+            return records > 0 ? elapsedMs / records : -1;
+        }
+
+        private synchronized void record(Map<String, Object> change) {
+            if (history.size() == HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            history.addLast(change);
+        }
+
+        private synchronized List<Map<String, Object>> changes() {
+            return new ArrayList<>(history);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.cardsservice.consumer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/listenerscaling}: concurrency, bounds, the last evaluation and
+ * recent changes made by {@link ListenerConcurrencyAutoscaler}, per listener.
+ */
+@Component
+@Endpoint(id = "listenerscaling")
+public class ListenerScalingEndpoint {
+
+    private final ListenerConcurrencyAutoscaler autoscaler;
+
+    public ListenerScalingEndpoint(ListenerConcurrencyAutoscaler autoscaler) {
+        this.autoscaler = autoscaler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> listeners() {
+        return autoscaler.describe();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.cardsservice.consumer;
+
+import com.example.cardsservice.service.C360SyncService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes C360 backpressure back into Kafka: the {@code card-events} listener is paused
+ * while too many syncs are in flight or the {@code c360Sync} breaker is open, and
+ * resumed once in-flight syncs drain to the low watermark with the breaker no longer
+ * open. While paused, unread events wait in Kafka instead of in the sync executors'
+ * queues.
+ * <p>
+ * Syncs hold no executor thread while in flight; what bounds them is the C360 connection
+ * pool. The watermarks are therefore measured against its connections plus pending
+ * acquires: unless configured, the high watermark is half of that capacity and the low
+ * watermark a fifth of the high one, and configured values must keep the high watermark
+ * below it. Otherwise the pool would start failing acquires, and the syncs with them,
+ * before consumption pauses.
+ * <p>
+ * The retry-topic listeners are paused while the breaker is open as well: every record
+ * they read would only be pushed straight back to the retry topic. They resume as soon
+ * as the breaker leaves OPEN, and their records are then its half-open probes. Without
+ * the automatic OPEN to HALF_OPEN transition nothing else would probe C360, so in that
+ * configuration they keep running.
+ */
+@Component
+@Slf4j
+public class SyncBackpressureController {
+
+    enum Reason {
+        IN_FLIGHT("in_flight"),
+        BREAKER_OPEN("breaker_open");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final List<String> RETRY_LISTENER_IDS =
+            List.of(CardRetryConsumer.LISTENER_ID, CardRetryConsumer.CRITICAL_LISTENER_ID);
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final C360SyncService c360SyncService;
+    private final CircuitBreaker circuitBreaker;
+    private final int connectionCapacity;
+    private final Timer pausedTimer;
+    private final Map<Reason, Counter> pauseCounters = new EnumMap<>(Reason.class);
+
+    private volatile Reason pausedFor;
+    private volatile long pausedAtNanos;
+    private volatile boolean retryListenersPaused;
+
+    @Value("${cards.consumer.backpressure.enabled:true}")
+    private boolean enabled = true;
+
+    // 0 derives the watermark from the C360 connection pool's capacity
+    @Value("${cards.consumer.backpressure.high-watermark:0}")
+    private int highWatermark;
+
+    @Value("${cards.consumer.backpressure.low-watermark:0}")
+    private int lowWatermark;
+
+    @Value("${cards.consumer.backpressure.pause-on-breaker-open:true}")
+    private boolean pauseOnBreakerOpen = true;
+
+    public SyncBackpressureController(KafkaListenerEndpointRegistry listenerRegistry,
+            C360SyncService c360SyncService,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${c360.client.max-connections:100}") int maxConnections,
+            @Value("${c360.client.pending-acquire-max-count:2000}") int pendingAcquireMaxCount) {
+        this.listenerRegistry = listenerRegistry;
+        this.c360SyncService = c360SyncService;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("c360Sync");
+        this.connectionCapacity = maxConnections + pendingAcquireMaxCount;
+
+        this.pausedTimer = Timer.builder("cards.consumer.backpressure.paused")
+                .description("Time the card-events listener spent paused by C360 backpressure, per pause")
+                .register(meterRegistry);
+
+        for (Reason reason : Reason.values()) {
+            pauseCounters.put(reason, Counter.builder("cards.consumer.backpressure.pauses")
+                    .description("Times the card-events listener was paused, by the watermark that tripped")
+                    .tag("reason", reason.tag)
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("cards.consumer.backpressure.active", this, controller -> controller.isPaused() ? 1 : 0)
+                .description("1 while the card-events listener is paused by C360 backpressure")
+                .register(meterRegistry);
+
+        TimeGauge.builder("cards.consumer.backpressure.current_pause", this, TimeUnit.NANOSECONDS,
+                        SyncBackpressureController::currentPauseNanos)
+                .description("Duration of the ongoing backpressure pause, 0 when consuming")
+                .register(meterRegistry);
+
+        // React to the breaker opening without waiting for the next check
+        circuitBreaker.getEventPublisher().onStateTransition(event -> evaluate());
+    }
+
+    @PostConstruct
+    void initWatermarks() {
+        if (highWatermark <= 0) {
+            highWatermark = connectionCapacity / 2;
+        }
+        if (lowWatermark <= 0) {
+            lowWatermark = highWatermark / 5;
+        }
+        if (lowWatermark >= highWatermark || highWatermark >= connectionCapacity) {
+            throw new IllegalStateException("Backpressure watermarks must satisfy low-watermark (" + lowWatermark
+                    + ") < high-watermark (" + highWatermark + ") < c360.client max-connections + "
+                    + "pending-acquire-max-count (" + connectionCapacity + ")");
+        }
+        log.info("Backpressure watermarks: high {}, low {} (C360 connection capacity {})",
+                highWatermark, lowWatermark, connectionCapacity);
+    }
+
+    @Scheduled(fixedDelayString = "${cards.consumer.backpressure.check-interval-ms:200}")
+    public synchronized void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        CircuitBreaker.State state = circuitBreaker.getState();
+        boolean breakerOpen = pauseOnBreakerOpen
+                && (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN);
+        evaluateRetryListeners(breakerOpen, state);
+
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(CardEventConsumer.LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+
+        int inFlight = c360SyncService.inFlightSyncs();
+
+        if (pausedFor == null) {
+            Reason reason = breakerOpen ? Reason.BREAKER_OPEN : inFlight >= highWatermark ? Reason.IN_FLIGHT : null;
+            if (reason != null) {
+                container.pause();
+                pausedFor = reason;
+                pausedAtNanos = System.nanoTime();
+                pauseCounters.get(reason).increment();
+                log.warn("Pausing card-events consumption: {} (in-flight syncs {}, breaker {})",
+                        reason.tag, inFlight, state);
+            }
+        } else if (!breakerOpen && inFlight <= lowWatermark) {
+            container.resume();
+            long pausedNanos = System.nanoTime() - pausedAtNanos;
+            pausedTimer.record(pausedNanos, TimeUnit.NANOSECONDS);
+            log.info("Resuming card-events consumption after {}ms (in-flight syncs {}, breaker {})",
+                    TimeUnit.NANOSECONDS.toMillis(pausedNanos), inFlight, state);
+            pausedFor = null;
+        }
+    }
+
+    private void evaluateRetryListeners(boolean breakerOpen, CircuitBreaker.State state) {
+        boolean pause = breakerOpen
+                && circuitBreaker.getCircuitBreakerConfig().isAutomaticTransitionFromOpenToHalfOpenEnabled();
+        if (pause == retryListenersPaused) {
+            return;
+        }
+        for (String listenerId : RETRY_LISTENER_IDS) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+            if (container != null && container.isRunning()) {
+                if (pause) {
+                    container.pause();
+                } else {
+                    container.resume();
+                }
+            }
+        }
+        retryListenersPaused = pause;
+        log.info("{} retry-topic consumption (breaker {})", pause ? "Pausing" : "Resuming", state);
+    }
+
+    public boolean isPaused() {
+        return pausedFor != null;
+    }
+
+    public boolean isRetryListenersPaused() {
+        return retryListenersPaused;
+    }
+
+    private double currentPauseNanos() {
+        return pausedFor == null ? 0 : System.nanoTime() - pausedAtNanos;
+    }
+}
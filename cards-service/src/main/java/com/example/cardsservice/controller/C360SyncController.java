@@ -1,6 +1,7 @@
 package com.example.cardsservice.controller;
 
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.mapper.CardMapper;
 import com.example.cardsservice.repository.CardRepository;
 import com.example.cardsservice.service.C360SyncService;
 import lombok.RequiredArgsConstructor;
@@ -10,10 +11,17 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * C360 sync admin endpoints. Responses are JSON unless the caller asks for
+ * {@code application/cbor}, which the CBOR message converter answers from the same
+ * objects.
+ */
 @RestController
 @RequestMapping("/api/cards/sync")
 @RequiredArgsConstructor
@@ -56,7 +64,7 @@ public class C360SyncController {
         Page<Card> pendingCards = cardRepository.findBySyncPending(true, PageRequest.of(page, size));
 
         Map<String, Object> response = new HashMap<>();
-        response.put("cards", pendingCards.getContent());
+        response.put("cards", pendingCards.getContent().stream().map(CardMapper::toSyncPendingDto).toList());
         response.put("totalElements", pendingCards.getTotalElements());
         response.put("totalPages", pendingCards.getTotalPages());
         response.put("currentPage", page);
@@ -79,8 +87,13 @@ public class C360SyncController {
         int successCount = 0;
         int failureCount = 0;
 
+        // Submitted up front so the resync executor works through them in parallel
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
         for (Card card : cards) {
-            boolean success = c360SyncService.syncToC360(card).join();
+            results.add(c360SyncService.resync(card));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            boolean success = result.join();
             if (success) {
                 successCount++;
             } else {
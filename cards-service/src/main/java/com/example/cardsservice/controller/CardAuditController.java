@@ -0,0 +1,37 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.CardEventAuditRecordDto;
+import com.example.cardsservice.service.CardEventAuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cards/audit")
+@RequiredArgsConstructor
+@Slf4j
+public class CardAuditController {
+
+    private final CardEventAuditService auditService;
+
+    /**
+     * Raw CMS events received for a card between two days (ISO dates, inclusive); defaults to the last seven days
+     */
+    @GetMapping("/{tokenRef}")
+    public ResponseEntity<List<CardEventAuditRecordDto>> getAuditRecords(
+            @PathVariable String tokenRef,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(6);
+        log.info("Audit records requested (from: {}, to: {})", start, end);
+
+        return ResponseEntity.ok(auditService.find(tokenRef, start, end));
+    }
+}
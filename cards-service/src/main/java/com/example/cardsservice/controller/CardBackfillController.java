@@ -0,0 +1,47 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.BackfillJobDto;
+import com.example.cardsservice.service.CardBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cards/backfill")
+@RequiredArgsConstructor
+@Slf4j
+public class CardBackfillController {
+
+    private final CardBackfillService cardBackfillService;
+
+    /**
+     * Start a bulk backfill from a snapshot file under cards.backfill.base-dir
+     */
+    @PostMapping
+    public ResponseEntity<BackfillJobDto> startBackfill(
+            @RequestParam String file,
+            @RequestParam(defaultValue = "NDJSON") BackfillJobDto.Format format,
+            @RequestParam(defaultValue = "false") boolean resume) {
+
+        log.info("Backfill requested for file: {} (format: {}, resume: {})", file, format, resume);
+
+        try {
+            BackfillJobDto job = cardBackfillService.submit(file, format, resume);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get progress of a backfill job
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackfillJobDto> getBackfillJob(@PathVariable String jobId) {
+        return cardBackfillService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
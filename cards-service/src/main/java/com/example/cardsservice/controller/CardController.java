@@ -1,7 +1,13 @@
 package com.example.cardsservice.controller;
 
+import com.example.cardsservice.mapper.CardPayloads;
+import com.example.cardsservice.mapper.MobileNumbers;
 import com.example.cardsservice.service.CardIntegrationService;
+import com.example.cardsservice.service.CardListResult;
+import org.springframework.http.HttpHeaders;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,10 +22,28 @@ public class CardController {
 
     private final CardIntegrationService cardIntegrationService;
 
-    @GetMapping
-    public java.util.List<com.example.cardsservice.dto.CardResponseDto> getCards(
-            @RequestHeader("X-Mobile-Number") String mobileNumber) {
-        return cardIntegrationService.getCards(mobileNumber);
+    // The body is the stored JSON array of CardResponseDto, copied as-is, or its CBOR encoding cached alongside it
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<byte[]> getCards(
+            @RequestHeader("X-Mobile-Number") String mobileNumber,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // +91..., 0... and bare digits all resolve to the same customer
+        Long mobileKey = MobileNumbers.toKey(mobileNumber);
+        if (mobileKey == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        CardListResult result = cardIntegrationService.getCards(mobileKey);
+        MediaType contentType = CardPayloads.negotiate(accept);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType).varyBy(HttpHeaders.ACCEPT);
+        // A list from the read cache says how old it is and, when degraded, which fields it lacks
+        if (result.isStale()) {
+            response.header(HttpHeaders.AGE, String.valueOf(result.getAgeSeconds()))
+                    .header("X-Cards-Stale", "true");
+        }
+        if (!result.getOmittedFields().isEmpty()) {
+            response.header("X-Cards-Omitted-Fields", String.join(",", result.getOmittedFields()));
+        }
+        return response.body(MediaType.APPLICATION_CBOR.equals(contentType) ? result.getCborBody() : result.getBody());
     }
 
     @GetMapping("/eligible-cards")
@@ -0,0 +1,80 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.CardLifecycleTransitionDto;
+import com.example.cardsservice.mapper.MobileNumbers;
+import com.example.cardsservice.service.CardLifecycleHistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/cards/history")
+@Slf4j
+public class CardHistoryController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final CardLifecycleHistoryService historyService;
+    private final ObjectWriter transitionWriter;
+
+    public CardHistoryController(CardLifecycleHistoryService historyService, ObjectMapper objectMapper) {
+        this.historyService = historyService;
+        this.transitionWriter = objectMapper.writerFor(CardLifecycleTransitionDto.class);
+    }
+
+    /**
+     * Stream a card's status transitions as NDJSON, oldest first; from is inclusive, to exclusive
+     */
+    @GetMapping("/{tokenRef}")
+    public ResponseEntity<StreamingResponseBody> getCardHistory(
+            @PathVariable String tokenRef,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Card history requested (from: {}, to: {})", from, to);
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> historyService.streamByCard(tokenRef, from, to, lineWriter(out)));
+    }
+
+    /**
+     * Stream the status transitions of every card of a customer as NDJSON, oldest first
+     */
+    @GetMapping("/customer")
+    public ResponseEntity<StreamingResponseBody> getCustomerHistory(
+            @RequestHeader("X-Mobile-Number") String mobileNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Long mobileKey = MobileNumbers.toKey(mobileNumber);
+        if (mobileKey == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Customer history requested (from: {}, to: {})", from, to);
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> historyService.streamByCustomer(mobileKey, from, to, lineWriter(out)));
+    }
+
+    private Consumer<CardLifecycleTransitionDto> lineWriter(OutputStream out) {
+        return transition -> {
+            try {
+                out.write(transitionWriter.writeValueAsBytes(transition));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
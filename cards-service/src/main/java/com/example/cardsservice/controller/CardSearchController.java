@@ -0,0 +1,60 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.CardSearchPageDto;
+import com.example.cardsservice.dto.CardSearchRequestDto;
+import com.example.cardsservice.mapper.MobileNumbers;
+import com.example.cardsservice.service.CardSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cards/search")
+@RequiredArgsConstructor
+@Slf4j
+public class CardSearchController {
+
+    private final CardSearchService cardSearchService;
+
+    /**
+     * Search cards by last4 with the customer's mobile number (X-Mobile-Number), bin, program code,
+     * lifecycle status or issuing system, one keyset page at a time
+     */
+    @GetMapping
+    public ResponseEntity<CardSearchPageDto> search(
+            @RequestHeader(value = "X-Mobile-Number", required = false) String mobileNumber,
+            @RequestParam(required = false) String last4,
+            @RequestParam(required = false) String bin,
+            @RequestParam(required = false) String programCode,
+            @RequestParam(required = false) String lifecycleStatus,
+            @RequestParam(required = false) String issuedBySystem,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "${cards.search.default-page-size:50}") int limit) {
+
+        log.info("Card search requested (last4: {}, bin: {}, programCode: {}, lifecycleStatus: {}, issuedBySystem: {}, afterId: {}, limit: {})",
+                last4 != null, bin, programCode, lifecycleStatus, issuedBySystem, afterId, limit);
+
+        CardSearchRequestDto request = new CardSearchRequestDto();
+        if (mobileNumber != null) {
+            Long mobileKey = MobileNumbers.toKey(mobileNumber);
+            if (mobileKey == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            request.setMobileKey(mobileKey);
+        }
+        request.setLast4(last4);
+        request.setBin(bin);
+        request.setProgramCode(programCode);
+        request.setLifecycleStatus(lifecycleStatus);
+        request.setIssuedBySystem(issuedBySystem);
+        request.setAfterId(afterId);
+        request.setLimit(limit);
+
+        try {
+            return ResponseEntity.ok(cardSearchService.search(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
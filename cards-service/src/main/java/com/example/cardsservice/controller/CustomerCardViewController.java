@@ -0,0 +1,39 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.ViewRebuildJobDto;
+import com.example.cardsservice.service.CustomerCardViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cards/customer-view")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerCardViewController {
+
+    private final CustomerCardViewService customerCardViewService;
+
+    /**
+     * Regenerate every customer card view from the cards table
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<ViewRebuildJobDto> startRebuild() {
+        log.info("Customer view rebuild requested");
+
+        ViewRebuildJobDto job = customerCardViewService.submitRebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Get progress of a rebuild job
+     */
+    @GetMapping("/rebuild/{jobId}")
+    public ResponseEntity<ViewRebuildJobDto> getRebuildJob(@PathVariable String jobId) {
+        return customerCardViewService.getRebuildJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cardsservice.controller;
+
+import com.example.cardsservice.dto.DlqReplayJobDto;
+import com.example.cardsservice.service.DlqReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/cards/dlq-replay")
+@RequiredArgsConstructor
+@Slf4j
+public class DlqReplayController {
+
+    private final DlqReplayService dlqReplayService;
+
+    /**
+     * Replay DLQ records selected by offset or time range (ISO-8601 instants), optionally
+     * filtered by issuing system and error type
+     */
+    @PostMapping
+    public ResponseEntity<DlqReplayJobDto> startReplay(
+            @RequestParam(required = false) Integer partition,
+            @RequestParam(required = false) Long fromOffset,
+            @RequestParam(required = false) Long toOffset,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toTime,
+            @RequestParam(required = false) String issuedBySystem,
+            @RequestParam(required = false) String errorType,
+            @RequestParam(defaultValue = "${cards.dlq-replay.default-rate-per-second:20}") int ratePerSecond,
+            @RequestParam(defaultValue = "${cards.dlq-replay.default-parallelism:4}") int parallelism) {
+
+        log.info("DLQ replay requested (partition: {}, offsets: {}-{}, time: {}-{}, issuedBySystem: {}, errorType: {}, rate: {}/s, parallelism: {})",
+                partition, fromOffset, toOffset, fromTime, toTime, issuedBySystem, errorType, ratePerSecond, parallelism);
+
+        DlqReplayJobDto request = new DlqReplayJobDto();
+        request.setPartition(partition);
+        request.setFromOffset(fromOffset);
+        request.setToOffset(toOffset);
+        request.setFromTime(fromTime);
+        request.setToTime(toTime);
+        request.setIssuedBySystem(issuedBySystem);
+        request.setErrorType(errorType);
+        request.setRatePerSecond(ratePerSecond);
+        request.setParallelism(parallelism);
+
+        DlqReplayJobDto job = dlqReplayService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Get progress and outcome counts of a replay job
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DlqReplayJobDto> getReplayJob(@PathVariable String jobId) {
+        return dlqReplayService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancel a replay job; records already released still finish their sync
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<DlqReplayJobDto> cancelReplayJob(@PathVariable String jobId) {
+        return dlqReplayService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
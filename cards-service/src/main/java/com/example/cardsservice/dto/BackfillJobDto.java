@@ -0,0 +1,34 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Data
+public class BackfillJobDto {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+    private String file;
+    private Format format;
+    private volatile Status status = Status.QUEUED;
+    private volatile long resumedFromOffset;
+    private volatile long totalBytes;
+    private final AtomicLong processedBytes = new AtomicLong();
+    private final AtomicLong recordsRead = new AtomicLong();
+    private final AtomicLong recordsInserted = new AtomicLong();
+    private final AtomicLong recordsUpdated = new AtomicLong();
+    private final AtomicLong recordsStale = new AtomicLong();
+    private final AtomicLong recordsInvalid = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+}
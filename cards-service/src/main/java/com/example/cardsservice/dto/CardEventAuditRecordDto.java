@@ -0,0 +1,19 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One CMS event as received by the Kafka consumer, with the raw payload kept verbatim.
+ */
+@Data
+public class CardEventAuditRecordDto {
+    private String tokenRef;
+    private int partition;
+    private long offset;
+    private LocalDateTime receivedAt;
+    // saved, stale or error
+    private String outcome;
+    private String payload;
+}
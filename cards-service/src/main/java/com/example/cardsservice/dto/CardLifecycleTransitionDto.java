@@ -0,0 +1,16 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CardLifecycleTransitionDto {
+    private String tokenRef;
+    private String previousStatus;
+    private String lifecycleStatus;
+    private String previousRawStatus;
+    private String rawStatus;
+    private LocalDateTime eventTimestamp;
+    private LocalDateTime recordedAt;
+}
@@ -9,6 +9,7 @@ public class CardResponseDto {
     private String maskedCardNumber;
     private String last4;
     private String programCode;
+    @NonCacheable
     private String lifecycleStatus;
     private LocalDateTime eventTimestamp;
 }
@@ -0,0 +1,12 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CardSearchPageDto {
+    private List<CardSearchResultDto> cards;
+    // Pass as afterId for the next page; null on the last page
+    private Long nextAfterId;
+}
@@ -0,0 +1,21 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+/**
+ * Filters of an operational card search; null filters are not applied. last4 is only
+ * accepted together with the customer's mobile key.
+ */
+@Data
+public class CardSearchRequestDto {
+    private Long mobileKey;
+    private String last4;
+    private String bin;
+    private String programCode;
+    private String lifecycleStatus;
+    private String issuedBySystem;
+
+    // Keyset cursor: the nextAfterId of the previous page
+    private Long afterId;
+    private int limit;
+}
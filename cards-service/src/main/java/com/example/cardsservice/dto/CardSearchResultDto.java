@@ -0,0 +1,21 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class CardSearchResultDto {
+    private Long id;
+    private String tokenRef;
+    private String maskedCardNumber;
+    private String last4;
+    private String bin;
+    private String network;
+    private String programCode;
+    private String lifecycleStatus;
+    private String rawStatus;
+    private String issuedBySystem;
+    private LocalDateTime eventTimestamp;
+    private LocalDateTime updatedAt;
+    private boolean syncPending;
+}
@@ -0,0 +1,51 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Data
+public class DlqReplayJobDto {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private String jobId;
+    private String topic;
+
+    // Selection: an offset range, a time range, or the whole topic; applies to every selected partition
+    private Integer partition;
+    private Long fromOffset;
+    private Long toOffset;
+    private Instant fromTime;
+    private Instant toTime;
+
+    // Filters; null matches everything
+    private String issuedBySystem;
+    private String errorType;
+
+    private int ratePerSecond;
+    private int parallelism;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long totalRecords;
+    private final AtomicLong recordsScanned = new AtomicLong();
+    private final AtomicLong recordsFiltered = new AtomicLong();
+    private final AtomicLong recordsReplayed = new AtomicLong();
+    private final AtomicLong recordsSynced = new AtomicLong();
+    private final AtomicLong recordsSyncFailed = new AtomicLong();
+    private final AtomicLong recordsSkipped = new AtomicLong();
+    private final AtomicLong recordsErrored = new AtomicLong();
+    private final AtomicLong breakerWaitMs = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public double getProgress() {
+        return totalRecords == 0 ? (status == Status.COMPLETED ? 1.0 : 0.0)
+                : Math.min(1.0, (double) recordsScanned.get() / totalRecords);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.cardsservice.dto;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a response field that must not be served from a cached copy once its source is
+ * unreachable, such as a card's lifecycle status: a client acting on an outdated BLOCKED
+ * or ACTIVE is worse off than one told the value is unknown.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface NonCacheable {
+}
@@ -0,0 +1,30 @@
+package com.example.cardsservice.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class SyncPendingCardDto {
+    private Long id;
+    private String tokenRef;
+    private String maskedCardNumber;
+    private String last4;
+    private String programCode;
+    private String programCategory;
+    private String network;
+    private String bin;
+    private String lifecycleStatus;
+    private String rawStatus;
+    private String customerMobileNumber;
+    private String custId;
+    private String accountNo;
+    private String issuedBySystem;
+    private String issuanceChannel;
+    private LocalDateTime eventTimestamp;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private boolean syncPending;
+    private LocalDateTime syncRequestedAt;
+    private int syncRetryCount;
+    private LocalDateTime lastSyncAttempt;
+}
@@ -1,13 +1,25 @@
 package com.example.cardsservice.entity;
 
+import com.example.cardsservice.mapper.MobileNumbers;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cards", indexes = {
         @Index(name = "idx_token_ref", columnList = "tokenRef", unique = true),
-        @Index(name = "idx_mobile", columnList = "customerMobileNumber")
+        @Index(name = "idx_mobile_key", columnList = "customerMobileKey"),
+        // Operational search (CardSearchService): each index ends in id so keyset pages are read from it alone
+        @Index(name = "idx_search_last4_mobile_key", columnList = "last4, customerMobileKey, id"),
+        @Index(name = "idx_search_bin", columnList = "bin, id"),
+        @Index(name = "idx_search_program", columnList = "program_code_id, id"),
+        @Index(name = "idx_search_program_status", columnList = "program_code_id, lifecycle_status_id, id"),
+        @Index(name = "idx_search_status", columnList = "lifecycle_status_id, id"),
+        @Index(name = "idx_search_issuer", columnList = "issued_by_system_id, id"),
+        @Index(name = "idx_search_issuer_status", columnList = "issued_by_system_id, lifecycle_status_id, id")
 })
 @Data
 public class Card {
@@ -25,19 +37,44 @@ public class Card {
     @Column(nullable = false)
     private String last4;
 
+    // Low-cardinality attributes are stored as card_attribute_values codes; the entity sees the strings
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "program_code_id")
     private String programCode;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "program_category_id")
     private String programCategory;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "network_id")
     private String network;
+
     private String bin;
 
-    @Column(nullable = false)
+    // Nullable in the schema only so rows written before the dictionary can be encoded; always written
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "lifecycle_status_id")
     private String lifecycleStatus;
 
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "raw_status_id")
     private String rawStatus;
+
     private String customerMobileNumber;
+
+    // MobileNumbers.toKey(customerMobileNumber), kept in step on every write; customer lookups use this
+    private Long customerMobileKey;
+
     private String custId;
     private String accountNo;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "issued_by_system_id")
     private String issuedBySystem;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "issuance_channel_id")
     private String issuanceChannel;
 
     private LocalDateTime eventTimestamp;
@@ -49,19 +86,138 @@ public class Card {
 
     private boolean syncPending;
 
+    // When the current change was persisted; starts the C360 SLA clock
+    private LocalDateTime syncRequestedAt;
+
     @Column(nullable = false)
     private int syncRetryCount = 0;
 
     private LocalDateTime lastSyncAttempt;
 
+    // The string columns the attributes were stored in before the dictionary. Written alongside the
+    // codes while instances of the previous release, which write only these, may still be running, and
+    // read first when set, since such an instance updates them alone. See CardAttributeMigration.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "program_code")
+    private String legacyProgramCode;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "program_category")
+    private String legacyProgramCategory;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "network")
+    private String legacyNetwork;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "lifecycle_status")
+    private String legacyLifecycleStatus;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "raw_status")
+    private String legacyRawStatus;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "issued_by_system")
+    private String legacyIssuedBySystem;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "issuance_channel")
+    private String legacyIssuanceChannel;
+
+    public String getProgramCode() {
+        return legacyProgramCode != null ? legacyProgramCode : programCode;
+    }
+
+    public void setProgramCode(String programCode) {
+        this.programCode = programCode;
+        this.legacyProgramCode = programCode;
+    }
+
+    public String getProgramCategory() {
+        return legacyProgramCategory != null ? legacyProgramCategory : programCategory;
+    }
+
+    public void setProgramCategory(String programCategory) {
+        this.programCategory = programCategory;
+        this.legacyProgramCategory = programCategory;
+    }
+
+    public String getNetwork() {
+        return legacyNetwork != null ? legacyNetwork : network;
+    }
+
+    public void setNetwork(String network) {
+        this.network = network;
+        this.legacyNetwork = network;
+    }
+
+    public String getLifecycleStatus() {
+        return legacyLifecycleStatus != null ? legacyLifecycleStatus : lifecycleStatus;
+    }
+
+    public void setLifecycleStatus(String lifecycleStatus) {
+        this.lifecycleStatus = lifecycleStatus;
+        this.legacyLifecycleStatus = lifecycleStatus;
+    }
+
+    public String getRawStatus() {
+        return legacyRawStatus != null ? legacyRawStatus : rawStatus;
+    }
+
+    public void setRawStatus(String rawStatus) {
+        this.rawStatus = rawStatus;
+        this.legacyRawStatus = rawStatus;
+    }
+
+    public String getIssuedBySystem() {
+        return legacyIssuedBySystem != null ? legacyIssuedBySystem : issuedBySystem;
+    }
+
+    public void setIssuedBySystem(String issuedBySystem) {
+        this.issuedBySystem = issuedBySystem;
+        this.legacyIssuedBySystem = issuedBySystem;
+    }
+
+    public String getIssuanceChannel() {
+        return legacyIssuanceChannel != null ? legacyIssuanceChannel : issuanceChannel;
+    }
+
+    public void setIssuanceChannel(String issuanceChannel) {
+        this.issuanceChannel = issuanceChannel;
+        this.legacyIssuanceChannel = issuanceChannel;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        customerMobileKey = MobileNumbers.toKey(customerMobileNumber);
+        alignCodes();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        customerMobileKey = MobileNumbers.toKey(customerMobileNumber);
+        alignCodes();
+    }
+
+    // A row last written by the previous release has codes behind its strings; rewrite them on any update
+    private void alignCodes() {
+        programCode = getProgramCode();
+        programCategory = getProgramCategory();
+        network = getNetwork();
+        lifecycleStatus = getLifecycleStatus();
+        rawStatus = getRawStatus();
+        issuedBySystem = getIssuedBySystem();
+        issuanceChannel = getIssuanceChannel();
     }
 }
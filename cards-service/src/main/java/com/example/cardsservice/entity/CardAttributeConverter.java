@@ -0,0 +1,29 @@
+package com.example.cardsservice.entity;
+
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a dictionary-encoded {@link Card} attribute as its code. Instantiated by
+ * Hibernate through the Spring bean container, so the dictionary is injected.
+ */
+@Converter
+public class CardAttributeConverter implements AttributeConverter<String, Integer> {
+
+    private final CardAttributeDictionary dictionary;
+
+    public CardAttributeConverter(CardAttributeDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String value) {
+        return dictionary.encode(value);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer code) {
+        return dictionary.decode(code);
+    }
+}
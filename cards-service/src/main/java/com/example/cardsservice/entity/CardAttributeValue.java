@@ -0,0 +1,23 @@
+package com.example.cardsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One entry of the card attribute dictionary: the low-cardinality strings of
+ * {@code cards} (network, statuses, program, issuing system and channel) are stored
+ * there as the integer code of their entry. See CardAttributeDictionary.
+ */
+@Entity
+@Table(name = "card_attribute_values")
+@Data
+public class CardAttributeValue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer code;
+
+    // Binary collation on MySQL: db/mysql/card-attribute-values-binary-collation.sql
+    @Column(nullable = false, unique = true)
+    private String attributeValue;
+}
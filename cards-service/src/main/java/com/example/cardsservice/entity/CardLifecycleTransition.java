@@ -0,0 +1,49 @@
+package com.example.cardsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One change of a card's lifecycle or raw status. Append-only; written by
+ * CardLifecycleHistoryService, statuses stored as card_attribute_values codes.
+ */
+@Entity
+@Table(name = "card_lifecycle_history", indexes = {
+        @Index(name = "idx_history_token_time", columnList = "tokenRef, eventTimestamp"),
+        @Index(name = "idx_history_mobile_key_time", columnList = "customerMobileKey, eventTimestamp")
+})
+@Data
+public class CardLifecycleTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String tokenRef;
+
+    // The card's customer when the change happened
+    private Long customerMobileKey;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "previous_status_id")
+    private String previousStatus;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "lifecycle_status_id")
+    private String lifecycleStatus;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "previous_raw_status_id")
+    private String previousRawStatus;
+
+    @Convert(converter = CardAttributeConverter.class)
+    @Column(name = "raw_status_id")
+    private String rawStatus;
+
+    private LocalDateTime eventTimestamp;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
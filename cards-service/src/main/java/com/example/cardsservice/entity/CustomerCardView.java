@@ -0,0 +1,28 @@
+package com.example.cardsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One customer's cards as served by {@code GET /cards}, keyed by the canonical mobile
+ * number. Derived from {@code cards}; see CustomerCardViewService.
+ */
+@Entity
+@Table(name = "customer_cards")
+@Data
+public class CustomerCardView {
+
+    @Id
+    private Long mobileKey;
+
+    // JSON array of CardResponseDto, written to the response as-is; null until first built
+    @Lob
+    @Column(length = 16777215)
+    private byte[] cards;
+
+    @Column(nullable = false)
+    private int cardCount;
+
+    private LocalDateTime updatedAt;
+}
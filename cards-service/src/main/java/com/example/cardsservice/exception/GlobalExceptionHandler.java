@@ -1,5 +1,9 @@
 package com.example.cardsservice.exception;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -8,10 +12,33 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry;
+
+    public GlobalExceptionHandler(ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    /**
+     * An open breaker is a temporary refusal, not a server error: the client is told to
+     * come back once the breaker may let calls through again.
+     */
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<Object> handleCallNotPermitted(CallNotPermittedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Service temporarily unavailable");
+        body.put("details", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex.getCausingCircuitBreakerName())))
+                .body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGlobalException(Exception ex) {
         Map<String, Object> body = new HashMap<>();
@@ -21,4 +48,15 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // The breaker's wait in the open state, rounded up to whole seconds
+    private long retryAfterSeconds(String breakerName) {
+        CircuitBreakerRegistry registry = circuitBreakerRegistry.getIfAvailable();
+        if (registry == null) {
+            return 1;
+        }
+        long waitMs = registry.circuitBreaker(breakerName).getCircuitBreakerConfig()
+                .getWaitIntervalFunctionInOpenState().apply(1);
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMs + 999));
+    }
 }
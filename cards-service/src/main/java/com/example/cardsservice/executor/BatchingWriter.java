@@ -0,0 +1,95 @@
+package com.example.cardsservice.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue drained by one thread that hands the sink everything that arrived within
+ * a linger window (up to a batch size) at once, so the sink can write it in a single
+ * transaction. Producers never block: {@link #offer} returns false when the queue is
+ * full. The sink is expected to handle its own failures.
+ */
+public class BatchingWriter<T> {
+
+    private final BlockingQueue<T> queue;
+    private final Consumer<List<T>> sink;
+    private final ExecutorService executor;
+
+    public BatchingWriter(String threadName, int capacity, Consumer<List<T>> sink) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.executor = Executors.newSingleThreadExecutor(r -> new Thread(r, threadName));
+    }
+
+    public void start(int batchSize, long lingerMs) {
+        executor.submit(() -> drainLoop(batchSize, lingerMs));
+    }
+
+    public boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Hands everything queued to the sink on the calling thread.
+     */
+    public void flush() {
+        List<T> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+    }
+
+    /**
+     * Stops the drain thread and flushes what is left on the calling thread.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void drainLoop(int batchSize, long lingerMs) {
+        List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                // Group commit: whatever arrives within the linger window goes in the same batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                sink.accept(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cardsservice.executor;
+
+import com.example.cardsservice.entity.Card;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A C360 sync of one card, queued on one of the {@link SyncExecutors}. The worker only
+ * starts the attempt chain and is free again while C360 answers and between backoff
+ * attempts; {@link #result()} completes when the chain does. When the executor is
+ * saturated, {@link SyncPendingRejectionPolicy} calls {@link #reject()} and the card is
+ * left for the pending-sync reconciler.
+ * <p>
+ * Cancelling {@link #result()} before a worker picks the task up does the same, which
+ * is how work for revoked partitions is handed off on a rebalance; once the attempt
+ * chain has started, cancel has no effect and the sync runs to completion.
+ */
+public final class CardSyncTask implements Runnable {
+
+    private final Card card;
+    private final Function<Card, CompletableFuture<Boolean>> sync;
+    private final Consumer<Card> onRejected;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Boolean> result = new Result();
+
+    public CardSyncTask(Card card, Function<Card, CompletableFuture<Boolean>> sync, Consumer<Card> onRejected) {
+        this.card = card;
+        this.sync = sync;
+        this.onRejected = onRejected;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public CompletableFuture<Boolean> result() {
+        return result;
+    }
+
+    @Override
+    public void run() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sync.apply(card).whenComplete((synced, error) -> {
+                if (error == null) {
+                    result.complete(Boolean.TRUE.equals(synced));
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    void reject() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            onRejected.accept(card);
+        } finally {
+            result.complete(false);
+        }
+    }
+
+    private final class Result extends CompletableFuture<Boolean> {
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!started.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                onRejected.accept(card);
+            } finally {
+                super.cancel(false);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cardsservice.executor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The bulkheads C360 sync work runs on, so a slow C360 cannot starve one kind of
+ * work with another:
+ * <ul>
+ * <li>{@code dispatch}: syncs started by the card-events consumer</li>
+ * <li>{@code retry}: syncs of messages read from the retry topic</li>
+ * <li>{@code resync}: bulk manual resyncs of pending cards</li>
+ * <li>{@code critical}: {@link SyncPriority#CRITICAL} syncs from either consumer, with
+ * threads of their own so they never queue behind routine updates</li>
+ * </ul>
+ */
+public class SyncExecutors {
+
+    private final Executor dispatch;
+    private final Executor retry;
+    private final Executor resync;
+    private final Executor critical;
+
+    public SyncExecutors(Executor dispatch, Executor retry, Executor resync, Executor critical) {
+        this.dispatch = dispatch;
+        this.retry = retry;
+        this.resync = resync;
+        this.critical = critical;
+    }
+
+    /**
+     * Runs every sync on the calling thread; for tests and offline tools.
+     */
+    public static SyncExecutors callerRuns() {
+        Executor direct = Runnable::run;
+        return new SyncExecutors(direct, direct, direct, direct);
+    }
+
+    public Executor dispatch() {
+        return dispatch;
+    }
+
+    public Executor retry() {
+        return retry;
+    }
+
+    public Executor resync() {
+        return resync;
+    }
+
+    public Executor critical() {
+        return critical;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cardsservice.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Rejection policy for the sync executors: instead of throwing at the Kafka listener
+ * or the caller, a rejected {@link CardSyncTask} marks its card {@code syncPending}
+ * and completes with {@code false}. Anything else is rejected as usual.
+ */
+public class SyncPendingRejectionPolicy implements RejectedExecutionHandler {
+
+    private final String executorName;
+    private final Counter rejectedCounter;
+
+    public SyncPendingRejectionPolicy(String executorName, MeterRegistry meterRegistry) {
+        this.executorName = executorName;
+        this.rejectedCounter = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the executor's threads and queue were full")
+                .tag("name", executorName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejectedCounter.increment();
+        if (task instanceof CardSyncTask) {
+            ((CardSyncTask) task).reject();
+            return;
+        }
+        throw new RejectedExecutionException("Executor " + executorName + " is saturated");
+    }
+}
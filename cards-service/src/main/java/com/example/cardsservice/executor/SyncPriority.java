@@ -0,0 +1,32 @@
+package com.example.cardsservice.executor;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * How urgently a card update must reach C360. A change into a blocking lifecycle status
+ * is {@link #CRITICAL}: it runs on the reserved {@code critical} executor and, if it
+ * has to be retried, goes through the critical retry topic, so a backlog of routine
+ * updates never delays it.
+ */
+public enum SyncPriority {
+    CRITICAL,
+    NORMAL;
+
+    private static final Set<String> CRITICAL_STATUSES = Set.of("BLOCKED", "HOTLISTED");
+
+    /**
+     * {@link #CRITICAL} when the card moves into BLOCKED or HOTLISTED from any other
+     * status, including a card seen for the first time; {@link #NORMAL} otherwise.
+     */
+    public static SyncPriority forTransition(String previousStatus, String newStatus) {
+        if (!isCritical(newStatus)) {
+            return NORMAL;
+        }
+        return previousStatus != null && previousStatus.equalsIgnoreCase(newStatus) ? NORMAL : CRITICAL;
+    }
+
+    static boolean isCritical(String status) {
+        return status != null && CRITICAL_STATUSES.contains(status.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.cardsservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single C360 call made by {@code C360SyncService}; the event duration is the HTTP
+ * round trip. Calls short-circuited by the open breaker are recorded with no duration.
+ */
+@Name("com.example.cards.C360SyncAttempt")
+@Label("C360 Sync Attempt")
+@Category({ "Cards", "C360" })
+@Description("One attempt to push a card to Customer360")
+@StackTrace(false)
+public class C360SyncAttemptEvent extends Event {
+
+    @Label("Token Reference")
+    public String tokenRef;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Outcome")
+    @Description("success, failure or breaker_open")
+    public String outcome;
+
+    @Label("Error Type")
+    public String errorType;
+}
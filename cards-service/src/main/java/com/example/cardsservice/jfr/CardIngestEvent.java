@@ -0,0 +1,51 @@
+package com.example.cardsservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One card-events record through {@code CardEventConsumer}, with the time spent
+ * in each ingestion stage. Records are read and written a poll at a time, so the DB
+ * stages are the record's share of its batch.
+ */
+@Name("com.example.cards.Ingest")
+@Label("Card Ingest")
+@Category({ "Cards", "Ingestion" })
+@Description("A card-events record decoded, persisted and dispatched for C360 sync")
+@StackTrace(false)
+public class CardIngestEvent extends Event {
+
+    @Label("Partition")
+    public int partition = -1;
+
+    @Label("Offset")
+    public long offset = -1;
+
+    @Label("Token Reference")
+    public String tokenRef;
+
+    @Label("Outcome")
+    @Description("saved, stale, invalid or error")
+    public String outcome;
+
+    @Label("Decode")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeNanos;
+
+    @Label("DB Read")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbReadNanos;
+
+    @Label("DB Write")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbWriteNanos;
+
+    @Label("Dispatch")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dispatchNanos;
+}
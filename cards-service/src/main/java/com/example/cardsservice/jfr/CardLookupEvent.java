@@ -0,0 +1,29 @@
+package com.example.cardsservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read-path lookup of a customer's cards. The mobile number is deliberately not
+ * recorded; {@code source} says which store answered.
+ */
+@Name("com.example.cards.CardLookup")
+@Label("Card Lookup")
+@Category({ "Cards", "Read Path" })
+@Description("Cards looked up for a customer on the read API")
+@StackTrace(false)
+public class CardLookupEvent extends Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Hit")
+    public boolean hit;
+
+    @Label("Result Count")
+    public int resultCount;
+}
@@ -0,0 +1,177 @@
+package com.example.cardsservice.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint for bounded, on-demand JFR recordings inside the service.
+ * <ul>
+ * <li>{@code GET /actuator/jfr} lists recordings</li>
+ * <li>{@code POST /actuator/jfr} starts one ({@code name}, {@code durationSeconds},
+ * {@code maxSizeMb}, {@code settings} = {@code default} or {@code profile})</li>
+ * <li>{@code GET /actuator/jfr/{id}} downloads it, running or stopped</li>
+ * <li>{@code DELETE /actuator/jfr/{id}} stops a running recording, or discards a stopped one</li>
+ * </ul>
+ * Duration, size and the number of concurrent recordings are capped by
+ * {@code cards.jfr.*}. The card events cost next to nothing while no recording is active.
+ * Names are limited to letters, digits, {@code _} and {@code -}; dump files are named
+ * after the recording id only and always resolve inside {@code cards.jfr.dump-dir}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    private static final List<Class<? extends jdk.jfr.Event>> CARD_EVENTS = List.of(
+            CardIngestEvent.class, C360SyncAttemptEvent.class, CardLookupEvent.class);
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final List<String> SETTINGS = List.of("default", "profile");
+
+    @Value("${cards.jfr.max-duration-seconds:600}")
+    private long maxDurationSeconds = 600;
+
+    @Value("${cards.jfr.max-size-mb:256}")
+    private long maxSizeMb = 256;
+
+    @Value("${cards.jfr.max-recordings:2}")
+    private int maxRecordings = 2;
+
+    @Value("${cards.jfr.dump-dir:${java.io.tmpdir}/cards-jfr}")
+    private String dumpDir = System.getProperty("java.io.tmpdir") + "/cards-jfr";
+
+    public JfrRecordingEndpoint() {
+        // Registered up front so the events are listed, and settable, before the first one fires
+        CARD_EVENTS.forEach(FlightRecorder::register);
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return ownRecordings().stream().map(JfrRecordingEndpoint::describe).collect(Collectors.toList());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable String name, @Nullable Long durationSeconds,
+            @Nullable Long maxSizeMb, @Nullable String settings) throws IOException, ParseException {
+        if (name != null && !NAME.matcher(name).matches()) {
+            return new WebEndpointResponse<>(error("name must match " + NAME.pattern()),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (settings != null && !SETTINGS.contains(settings)) {
+            return new WebEndpointResponse<>(error("settings must be one of " + SETTINGS),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        long running = ownRecordings().stream().filter(r -> r.getState() == RecordingState.RUNNING).count();
+        if (running >= maxRecordings) {
+            return new WebEndpointResponse<>(error("At most " + maxRecordings + " recordings may run at once"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Recording recording = new Recording(Configuration.getConfiguration(settings == null ? "default" : settings));
+        recording.setName("cards-" + (name == null ? "recording" : name));
+        CARD_EVENTS.forEach(recording::enable);
+        recording.setDuration(Duration.ofSeconds(Math.min(
+                durationSeconds == null ? maxDurationSeconds : durationSeconds, maxDurationSeconds)));
+        recording.setMaxSize(Math.min(maxSizeMb == null ? this.maxSizeMb : maxSizeMb, this.maxSizeMb) * 1024 * 1024);
+        recording.setToDisk(true);
+        recording.start();
+
+        log.info("Started JFR recording {} ({}) for {}", recording.getId(), recording.getName(), recording.getDuration());
+        return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Recording recording = find(id);
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Files.createDirectories(Path.of(dumpDir));
+        Path file = dumpFile(id);
+        recording.dump(file);
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> stop(@Selector long id) throws IOException {
+        Recording recording = find(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", id);
+        } else {
+            recording.close();
+            Files.deleteIfExists(dumpFile(id));
+            log.info("Discarded JFR recording {}", id);
+        }
+        return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    private Path dumpFile(long id) {
+        Path dir = Path.of(dumpDir).toAbsolutePath().normalize();
+        Path file = dir.resolve("cards-recording-" + id + ".jfr").normalize();
+        if (!file.startsWith(dir)) {
+            throw new IllegalStateException("JFR dump file " + file + " resolves outside " + dir);
+        }
+        return file;
+    }
+
+    private static List<Recording> ownRecordings() {
+        if (!FlightRecorder.isAvailable()) {
+            return List.of();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(r -> r.getName().startsWith("cards-"))
+                .collect(Collectors.toList());
+    }
+
+    private static Recording find(long id) {
+        return ownRecordings().stream().filter(r -> r.getId() == id).findFirst().orElse(null);
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("id", recording.getId());
+        info.put("name", recording.getName());
+        info.put("state", recording.getState().name());
+        info.put("startTime", recording.getStartTime() == null ? null : recording.getStartTime().toString());
+        info.put("durationSeconds", recording.getDuration() == null ? null : recording.getDuration().getSeconds());
+        info.put("maxSizeBytes", recording.getMaxSize());
+        info.put("sizeBytes", recording.getSize());
+        return info;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return body;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.cardsservice.logging;
+
+import net.logstash.logback.argument.StructuredArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger for lines written once per event or per C360 attempt. Each line belongs to a
+ * category ({@code ingest}, {@code c360-sync}, ...) that is sampled (one line in
+ * {@code sampleRate}) and then rate limited ({@code maxPerSecond}), configured through
+ * {@code cards.logging.hot-path.<category>.*}. Lines dropped by the rate limit are
+ * counted and reported on the next line that gets through.
+ * <p>
+ * Callers guard each line so nothing is boxed or allocated unless it is written:
+ * <pre>
+ * if (hotLog.shouldLog(Level.INFO)) {
+ *     hotLog.log(Level.INFO, "Saved card", "tokenRef", tokenRef, "offset", offset);
+ * }
+ * </pre>
+ * Key/value pairs become logstash structured arguments, i.e. JSON fields in the
+ * LOGSTASH output and {@code key=value} on the console.
+ */
+public final class HotPathLogger {
+
+    private static final Map<String, Category> CATEGORIES = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+    private final Category category;
+
+    private HotPathLogger(Logger logger, Category category) {
+        this.logger = logger;
+        this.category = category;
+    }
+
+    public static HotPathLogger getLogger(Class<?> owner, String category) {
+        return new HotPathLogger(LoggerFactory.getLogger(owner), category(category));
+    }
+
+    /**
+     * Applies sampling and rate limiting to a category; loggers created before or after
+     * share the settings. {@code maxPerSecond <= 0} disables the rate limit.
+     */
+    public static void configure(String category, int sampleRate, int maxPerSecond) {
+        Category settings = category(category);
+        settings.sampleRate = Math.max(1, sampleRate);
+        settings.maxPerSecond = maxPerSecond <= 0 ? Integer.MAX_VALUE : maxPerSecond;
+    }
+
+    static Category category(String name) {
+        return CATEGORIES.computeIfAbsent(name, Category::new);
+    }
+
+    /**
+     * Decides whether the next line at {@code level} is written. A {@code true} answer
+     * consumes the line's slot, so it must be followed by exactly one {@link #log} call.
+     */
+    public boolean shouldLog(Level level) {
+        return logger.isEnabledForLevel(level) && category.admit();
+    }
+
+    /**
+     * Writes a line admitted by {@link #shouldLog}; {@code keyValues} alternates keys and values.
+     */
+    public void log(Level level, String message, Object... keyValues) {
+        LoggingEventBuilder builder = logger.atLevel(level);
+        StringBuilder format = new StringBuilder(message);
+        int i = 0;
+        for (; i + 1 < keyValues.length; i += 2) {
+            format.append(" {}");
+            builder.addArgument(StructuredArguments.kv((String) keyValues[i], keyValues[i + 1]));
+        }
+        if (i < keyValues.length && keyValues[i] instanceof Throwable) {
+            builder.setCause((Throwable) keyValues[i]);
+        }
+        long suppressed = category.suppressed.getAndSet(0);
+        if (suppressed > 0) {
+            format.append(" {}");
+            builder.addArgument(StructuredArguments.kv("suppressed", suppressed));
+        }
+        if (category.sampleRate > 1) {
+            format.append(" {}");
+            builder.addArgument(StructuredArguments.kv("sampleRate", category.sampleRate));
+        }
+        builder.setMessage(format.toString()).log();
+    }
+
+    static final class Category {
+
+        private final String name;
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong windowCount = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile long windowSecond;
+        private volatile int sampleRate = 1;
+        private volatile int maxPerSecond = Integer.MAX_VALUE;
+
+        private Category(String name) {
+            this.name = name;
+        }
+
+        boolean admit() {
+            int rate = sampleRate;
+            if (rate > 1 && seen.incrementAndGet() % rate != 0) {
+                return false;
+            }
+            if (maxPerSecond == Integer.MAX_VALUE) {
+                return true;
+            }
+            // Fixed one-second window; a racy reset only lets a few extra lines through
+            long second = System.currentTimeMillis() / 1000;
+            if (second != windowSecond) {
+                windowSecond = second;
+                windowCount.set(0);
+            }
+            if (windowCount.incrementAndGet() > maxPerSecond) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        long suppressed() {
+            return suppressed.get();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
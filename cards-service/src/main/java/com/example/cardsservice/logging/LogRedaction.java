@@ -0,0 +1,47 @@
+package com.example.cardsservice.logging;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Masks customer identifiers in raw card event JSON before it is logged. Only error
+ * paths log payloads at all; mobile and account numbers keep their last four digits
+ * so an operator can still match a line to a complaint.
+ */
+public final class LogRedaction {
+
+    static final int MAX_PAYLOAD_CHARS = 2048;
+
+    private static final Pattern SENSITIVE_FIELD = Pattern.compile(
+            "\"(customerMobileNumber|accountNo|custId|maskedCardNumber)\"\\s*:\\s*\"([^\"]*)\"");
+
+    private LogRedaction() {
+    }
+
+    public static String redactPayload(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        String bounded = payload.length() > MAX_PAYLOAD_CHARS
+                ? payload.substring(0, MAX_PAYLOAD_CHARS) + "...(truncated)"
+                : payload;
+
+        Matcher matcher = SENSITIVE_FIELD.matcher(bounded);
+        StringBuffer redacted = new StringBuffer(bounded.length());
+        while (matcher.find()) {
+            String field = matcher.group(1);
+            matcher.appendReplacement(redacted,
+                    Matcher.quoteReplacement("\"" + field + "\":\"" + mask(field, matcher.group(2)) + "\""));
+        }
+        matcher.appendTail(redacted);
+        return redacted.toString();
+    }
+
+    private static String mask(String field, String value) {
+        if (("customerMobileNumber".equals(field) || "accountNo".equals(field)) && value.length() > 4) {
+            return "****" + value.substring(value.length() - 4);
+        }
+        // The masked card number already carries last4 in its own field
+        return "****";
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.cardsservice.mapper;
+
+import com.example.cardsservice.dto.CardEventDto;
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.dto.CardSearchResultDto;
+import com.example.cardsservice.dto.SyncPendingCardDto;
+import com.example.cardsservice.entity.Card;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Shared {@link Card} mappings. The CMS event to card mapping is used by every
+ * ingestion path (Kafka consumer, retry consumer and bulk backfill) so they apply
+ * identical rules; the reverse mappings feed the C360 queues and the read API.
+ */
+public final class CardMapper {
+
+    private CardMapper() {
+    }
+
+    public static LocalDateTime parseEventTimestamp(String eventTimestamp) {
+        if (eventTimestamp == null) {
+            return null;
+        }
+        return LocalDateTime.parse(eventTimestamp, DateTimeFormatter.ISO_DATE_TIME);
+    }
+
+    /**
+     * An event is stale when both sides carry a timestamp and the incoming one is
+     * strictly older than what is already stored.
+     */
+    public static boolean isStale(LocalDateTime storedTimestamp, LocalDateTime eventTimestamp) {
+        return storedTimestamp != null && eventTimestamp != null && eventTimestamp.isBefore(storedTimestamp);
+    }
+
+    public static void applyEvent(CardEventDto event, Card card, LocalDateTime eventTimestamp) {
+        card.setTokenRef(event.getTokenRef());
+        card.setMaskedCardNumber(event.getMaskedCardNumber());
+        card.setLast4(event.getLast4());
+        card.setProgramCode(event.getProgramCode());
+        card.setProgramCategory(event.getProgramCategory());
+        card.setNetwork(event.getNetwork());
+        card.setBin(event.getBin());
+        card.setLifecycleStatus(event.getLifecycleStatus());
+        card.setRawStatus(event.getRawStatus());
+        card.setCustomerMobileNumber(event.getCustomerMobileNumber());
+        card.setCustomerMobileKey(MobileNumbers.toKey(event.getCustomerMobileNumber()));
+        card.setCustId(event.getCustId());
+        card.setAccountNo(event.getAccountNo());
+        card.setIssuedBySystem(event.getIssuedBySystem());
+        card.setIssuanceChannel(event.getIssuanceChannel());
+        card.setEventTimestamp(eventTimestamp);
+    }
+
+    /**
+     * Rebuilds the event representation of a stored card, as published to the retry and DLQ topics.
+     */
+    public static CardEventDto toEventDto(Card card) {
+        CardEventDto dto = new CardEventDto();
+        dto.setTokenRef(card.getTokenRef());
+        dto.setMaskedCardNumber(card.getMaskedCardNumber());
+        dto.setLast4(card.getLast4());
+        dto.setProgramCode(card.getProgramCode());
+        dto.setProgramCategory(card.getProgramCategory());
+        dto.setNetwork(card.getNetwork());
+        dto.setBin(card.getBin());
+        dto.setLifecycleStatus(card.getLifecycleStatus());
+        dto.setRawStatus(card.getRawStatus());
+        dto.setCustomerMobileNumber(card.getCustomerMobileNumber());
+        dto.setCustId(card.getCustId());
+        dto.setAccountNo(card.getAccountNo());
+        dto.setIssuedBySystem(card.getIssuedBySystem());
+        dto.setIssuanceChannel(card.getIssuanceChannel());
+
+        if (card.getEventTimestamp() != null) {
+            dto.setEventTimestamp(card.getEventTimestamp().format(DateTimeFormatter.ISO_DATE_TIME));
+        }
+
+        return dto;
+    }
+
+    public static CardResponseDto toResponseDto(Card card) {
+        CardResponseDto dto = new CardResponseDto();
+        dto.setTokenRef(card.getTokenRef());
+        dto.setMaskedCardNumber(card.getMaskedCardNumber());
+        dto.setLast4(card.getLast4());
+        dto.setProgramCode(card.getProgramCode());
+        dto.setLifecycleStatus(card.getLifecycleStatus());
+        dto.setEventTimestamp(card.getEventTimestamp());
+        return dto;
+    }
+
+    public static CardSearchResultDto toSearchResultDto(Card card) {
+        CardSearchResultDto dto = new CardSearchResultDto();
+        dto.setId(card.getId());
+        dto.setTokenRef(card.getTokenRef());
+        dto.setMaskedCardNumber(card.getMaskedCardNumber());
+        dto.setLast4(card.getLast4());
+        dto.setBin(card.getBin());
+        dto.setNetwork(card.getNetwork());
+        dto.setProgramCode(card.getProgramCode());
+        dto.setLifecycleStatus(card.getLifecycleStatus());
+        dto.setRawStatus(card.getRawStatus());
+        dto.setIssuedBySystem(card.getIssuedBySystem());
+        dto.setEventTimestamp(card.getEventTimestamp());
+        dto.setUpdatedAt(card.getUpdatedAt());
+        dto.setSyncPending(card.isSyncPending());
+        return dto;
+    }
+
+    /**
+     * The card as listed by {@code /api/cards/sync/pending}: the properties the entity
+     * itself used to be serialized with, minus the internal mobile number key.
+     */
+    public static SyncPendingCardDto toSyncPendingDto(Card card) {
+        SyncPendingCardDto dto = new SyncPendingCardDto();
+        dto.setId(card.getId());
+        dto.setTokenRef(card.getTokenRef());
+        dto.setMaskedCardNumber(card.getMaskedCardNumber());
+        dto.setLast4(card.getLast4());
+        dto.setProgramCode(card.getProgramCode());
+        dto.setProgramCategory(card.getProgramCategory());
+        dto.setNetwork(card.getNetwork());
+        dto.setBin(card.getBin());
+        dto.setLifecycleStatus(card.getLifecycleStatus());
+        dto.setRawStatus(card.getRawStatus());
+        dto.setCustomerMobileNumber(card.getCustomerMobileNumber());
+        dto.setCustId(card.getCustId());
+        dto.setAccountNo(card.getAccountNo());
+        dto.setIssuedBySystem(card.getIssuedBySystem());
+        dto.setIssuanceChannel(card.getIssuanceChannel());
+        dto.setEventTimestamp(card.getEventTimestamp());
+        dto.setCreatedAt(card.getCreatedAt());
+        dto.setUpdatedAt(card.getUpdatedAt());
+        dto.setSyncPending(card.isSyncPending());
+        dto.setSyncRequestedAt(card.getSyncRequestedAt());
+        dto.setSyncRetryCount(card.getSyncRetryCount());
+        dto.setLastSyncAttempt(card.getLastSyncAttempt());
+        return dto;
+    }
+}
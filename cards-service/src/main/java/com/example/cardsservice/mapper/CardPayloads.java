@@ -0,0 +1,63 @@
+package com.example.cardsservice.mapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Wire formats of stored card payloads. {@code GET /cards} bodies are kept as JSON; a
+ * caller that asks for CBOR gets the same document re-encoded token by token, without
+ * binding it to objects.
+ */
+public final class CardPayloads {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final CBORFactory CBOR = new CBORFactory();
+
+    private CardPayloads() {
+    }
+
+    /**
+     * Returns CBOR when {@code accept} ranks {@code application/cbor} above JSON, and JSON
+     * otherwise, including for a missing header and wildcards.
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        double json = -1;
+        double cbor = -1;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, mediaType.getQualityValue());
+            }
+            // Only an explicit application/cbor counts; */* keeps existing clients on JSON
+            if (mediaType.isConcrete() && mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                cbor = Math.max(cbor, mediaType.getQualityValue());
+            }
+        }
+        return cbor > json ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Re-encodes a JSON document as CBOR.
+     */
+    public static byte[] jsonToCbor(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = JSON.createParser(json);
+                JsonGenerator generator = CBOR.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
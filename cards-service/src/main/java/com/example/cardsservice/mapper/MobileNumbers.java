@@ -0,0 +1,62 @@
+package com.example.cardsservice.mapper;
+
+import java.util.List;
+
+/**
+ * Canonical form of customer mobile numbers. CMS systems send the same number as
+ * {@code +91XXXXXXXXXX}, {@code 0XXXXXXXXXX}, {@code 0091XXXXXXXXXX} or bare digits,
+ * with or without separators; the key is the ten-digit national number as a long.
+ * It is stored as {@code cards.customer_mobile_key} and used for customer lookups.
+ */
+public final class MobileNumbers {
+
+    private static final String COUNTRY_CODE = "91";
+    private static final String INTERNATIONAL_PREFIX = "00";
+    private static final String TRUNK_PREFIX = "0";
+    private static final int NATIONAL_LENGTH = 10;
+
+    private MobileNumbers() {
+    }
+
+    /**
+     * Returns the numeric key for {@code mobileNumber}, or {@code null} when it does not
+     * reduce to a ten-digit national number.
+     */
+    public static Long toKey(String mobileNumber) {
+        if (mobileNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(mobileNumber.length());
+        for (int i = 0; i < mobileNumber.length(); i++) {
+            char c = mobileNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        String number = digits.toString();
+        if (number.startsWith(INTERNATIONAL_PREFIX + COUNTRY_CODE)) {
+            number = number.substring(INTERNATIONAL_PREFIX.length() + COUNTRY_CODE.length());
+        } else if (number.length() == NATIONAL_LENGTH + COUNTRY_CODE.length() && number.startsWith(COUNTRY_CODE)) {
+            number = number.substring(COUNTRY_CODE.length());
+        } else if (number.length() == NATIONAL_LENGTH + TRUNK_PREFIX.length() && number.startsWith(TRUNK_PREFIX)) {
+            number = number.substring(TRUNK_PREFIX.length());
+        }
+        return number.length() == NATIONAL_LENGTH ? Long.valueOf(number) : null;
+    }
+
+    /**
+     * The spellings of {@code key} found in {@code cards.customer_mobile_number}, for
+     * lookups on the raw column while rows without a key remain.
+     */
+    public static List<String> spellings(long key) {
+        String national = String.format("%0" + NATIONAL_LENGTH + "d", key);
+        return List.of(
+                national,
+                TRUNK_PREFIX + national,
+                COUNTRY_CODE + national,
+                "+" + COUNTRY_CODE + national,
+                "+" + COUNTRY_CODE + " " + national,
+                "+" + COUNTRY_CODE + "-" + national,
+                INTERNATIONAL_PREFIX + COUNTRY_CODE + national);
+    }
+}
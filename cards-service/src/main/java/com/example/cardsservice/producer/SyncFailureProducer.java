@@ -0,0 +1,149 @@
+package com.example.cardsservice.producer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer for the retry and DLQ topics, separate from the application's default
+ * {@link KafkaTemplate} so it can be tuned for bursts of small records: idempotent with
+ * {@code acks=all}, compressed, and batched by {@code linger.ms}. Payloads arrive as
+ * JSON bytes, so each record is encoded once instead of to a String and again by the
+ * serializer.
+ * <p>
+ * The returned future completes on a callback thread of this producer, off the Kafka
+ * I/O thread. Its queue is bounded: once {@code callback-queue-capacity} callbacks are
+ * waiting, further ones run on the I/O thread instead and are counted as
+ * {@code c360.producer.callback.overflow}. Callers must therefore never block in their
+ * dependents, JDBC included: a DB write is queued, or dropped and counted when its queue
+ * is full, but never made there. Send latency and
+ * errors are timed per topic as {@code c360.producer.send}; batch size, compression
+ * ratio and record error rate come from the client metrics ({@code kafka.producer.*}).
+ */
+@Component
+public class SyncFailureProducer implements DisposableBean {
+
+    private final DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ThreadPoolTaskExecutor callbackExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter callbackOverflowCounter;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+
+    public SyncFailureProducer(KafkaProperties kafkaProperties,
+            MeterRegistry meterRegistry,
+            @Value("${c360.producer.compression-type:lz4}") String compressionType,
+            @Value("${c360.producer.linger-ms:20}") int lingerMs,
+            @Value("${c360.producer.batch-size:65536}") int batchSize,
+            @Value("${c360.producer.delivery-timeout-ms:60000}") int deliveryTimeoutMs,
+            @Value("${c360.producer.callback-queue-capacity:10000}") int callbackQueueCapacity) {
+        this.meterRegistry = meterRegistry;
+
+        Map<String, Object> config = kafkaProperties.buildProducerProperties();
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, "cards-sync-failure");
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // Idempotence makes broker-side retries safe: no duplicates or reordering per partition
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, Math.max(deliveryTimeoutMs, lingerMs + 30_000));
+
+        this.producerFactory = new DefaultKafkaProducerFactory<>(config);
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        this.callbackOverflowCounter = Counter.builder("c360.producer.callback.overflow")
+                .description("Send completions run on the Kafka I/O thread because the callback queue was full")
+                .register(meterRegistry);
+
+        this.callbackExecutor = new ThreadPoolTaskExecutor();
+        callbackExecutor.setThreadNamePrefix("c360-producer-callback-");
+        callbackExecutor.setCorePoolSize(1);
+        callbackExecutor.setMaxPoolSize(1);
+        callbackExecutor.setQueueCapacity(callbackQueueCapacity);
+        callbackExecutor.setRejectedExecutionHandler((callback, executor) -> {
+            callbackOverflowCounter.increment();
+            if (!executor.isShutdown()) {
+                callback.run();
+            }
+        });
+        callbackExecutor.initialize();
+    }
+
+    /**
+     * Sends {@code payload} to {@code topic}. The future fails when the broker does not
+     * acknowledge the record within the delivery timeout.
+     */
+    public CompletableFuture<Void> send(String topic, String key, byte[] payload) {
+        return send(topic, key, payload, Map.of());
+    }
+
+    /**
+     * Same as {@link #send(String, String, byte[])}, with string record headers.
+     */
+    public CompletableFuture<Void> send(String topic, String key, byte[] payload, Map<String, String> headers) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<?> sent;
+        try {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+            headers.forEach((name, value) -> {
+                if (value != null) {
+                    record.headers().add(name, value.getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            sent = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // Metadata or buffer timeouts are thrown by send itself
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenCompleteAsync((sendResult, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                timer(successTimers, topic, "success").record(elapsed, TimeUnit.NANOSECONDS);
+                result.complete(null);
+            } else {
+                timer(failureTimers, topic, "failure").record(elapsed, TimeUnit.NANOSECONDS);
+                result.completeExceptionally(error);
+            }
+        }, callbackExecutor);
+        return result;
+    }
+
+    private Timer timer(Map<String, Timer> timers, String topic, String result) {
+        return timers.computeIfAbsent(topic, t -> Timer.builder("c360.producer.send")
+                .description("Time from send to broker acknowledgement or failure, for retry and DLQ records")
+                .tag("topic", t)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+        callbackExecutor.shutdown();
+    }
+}
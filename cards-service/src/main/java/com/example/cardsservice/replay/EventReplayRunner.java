@@ -0,0 +1,289 @@
+package com.example.cardsservice.replay;
+
+import com.example.cardsservice.consumer.CardEventConsumer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Replays a recorded {@code card-events} dump through {@link CardEventConsumer}
+ * without Kafka. Each NDJSON line is an envelope such as
+ * <pre>{"key":"tok_1","timestamp":1733280000000,"partition":3,"offset":42,"value":{...}}</pre>
+ * where {@code value} is the original message as a JSON string or object.
+ * <p>
+ * Events are paced by their recorded timestamps divided by {@code cards.replay.speedup}
+ * (0 replays as fast as possible) and queued on one worker per lane, keyed like Kafka
+ * partitions so per-card ordering is preserved. Like a listener poll, each worker takes
+ * whatever its lane has queued, up to {@code cards.replay.batch-size} events, and hands
+ * it to {@link CardEventConsumer#onMessages}, so replay measures the production batch
+ * path. A throughput, latency and DB write report is logged and written to
+ * {@code cards.replay.report-file}.
+ */
+@Component
+@Profile("replay")
+@Slf4j
+public class EventReplayRunner implements ApplicationRunner {
+
+    private static final String TOPIC = "card-events";
+
+    // Queued after a lane's last event
+    private static final ReplayedRecord END = new ReplayedRecord(null, 0);
+
+    private final CardEventConsumer cardEventConsumer;
+    private final ReplayStats replayStats;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${cards.replay.file}")
+    private String file;
+
+    @Value("${cards.replay.speedup:1.0}")
+    private double speedup;
+
+    @Value("${cards.replay.workers:4}")
+    private int workers;
+
+    // Largest batch a worker hands to the consumer at once, as max.poll.records caps a poll
+    @Value("${cards.replay.batch-size:${spring.kafka.consumer.max-poll-records:500}}")
+    private int batchSize;
+
+    @Value("${cards.replay.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+
+    @Value("${cards.replay.report-file:replay-report.json}")
+    private String reportFile;
+
+    @Value("${cards.replay.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    public EventReplayRunner(CardEventConsumer cardEventConsumer,
+            ReplayStats replayStats,
+            EntityManagerFactory entityManagerFactory,
+            ObjectMapper objectMapper,
+            ConfigurableApplicationContext applicationContext) {
+        this.cardEventConsumer = cardEventConsumer;
+        this.replayStats = replayStats;
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        ExecutorService[] lanes = new ExecutorService[workers];
+        List<BlockingQueue<ReplayedRecord>> queues = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            int lane = i;
+            BlockingQueue<ReplayedRecord> queue = new LinkedBlockingQueue<>(batchSize * 2);
+            queues.add(queue);
+            lanes[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, "replay-lane-" + lane));
+            lanes[i].execute(() -> drain(queue));
+        }
+
+        AtomicLong events = new AtomicLong();
+        AtomicLong malformed = new AtomicLong();
+        log.info("Starting event replay", kv("file", file), kv("speedup", speedup), kv("workers", workers),
+                kv("batchSize", batchSize));
+
+        long startNanos = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            long firstTimestamp = -1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonNode envelope;
+                try {
+                    envelope = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    malformed.incrementAndGet();
+                    continue;
+                }
+
+                String key = envelope.path("key").asText(null);
+                JsonNode valueNode = envelope.path("value");
+                String value = valueNode.isTextual() ? valueNode.asText() : objectMapper.writeValueAsString(valueNode);
+
+                long dueNanos = startNanos;
+                if (envelope.hasNonNull("timestamp") && speedup > 0) {
+                    long timestamp = envelope.get("timestamp").asLong();
+                    if (firstTimestamp < 0) {
+                        firstTimestamp = timestamp;
+                    }
+                    dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(timestamp - firstTimestamp) / speedup);
+                    long wait = dueNanos - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+
+                int partition = envelope.hasNonNull("partition") ? envelope.get("partition").asInt() : -1;
+                int lane = partition >= 0
+                        ? partition % workers
+                        : Math.floorMod(key == null ? 0 : key.hashCode(), workers);
+                long offset = envelope.hasNonNull("offset") ? envelope.get("offset").asLong() : events.get();
+
+                queues.get(lane).put(new ReplayedRecord(
+                        new ConsumerRecord<>(TOPIC, partition, offset, key, value), dueNanos));
+                events.incrementAndGet();
+            }
+        } finally {
+            for (BlockingQueue<ReplayedRecord> queue : queues) {
+                queue.put(END);
+            }
+            for (ExecutorService lane : lanes) {
+                lane.shutdown();
+            }
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(1, TimeUnit.HOURS);
+            }
+        }
+        long ingestNanos = System.nanoTime() - startNanos;
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        while (replayStats.awaitingAckCount() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        long totalNanos = System.nanoTime() - startNanos;
+
+        Map<String, Object> report = buildReport(events.get(), malformed.get(), ingestNanos, totalNanos, statistics);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(Path.of(reportFile).toFile(), report);
+        log.info("Event replay finished",
+                kv("events", events.get()),
+                kv("eventsPerSecond", report.get("eventsPerSecond")),
+                kv("report", reportFile));
+
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    /**
+     * Runs one lane: takes what is queued, up to a batch, and ingests it until
+     * {@link #END} is reached.
+     */
+    private void drain(BlockingQueue<ReplayedRecord> queue) {
+        List<ReplayedRecord> poll = new ArrayList<>(batchSize);
+        boolean ended = false;
+        while (!ended) {
+            poll.clear();
+            try {
+                poll.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(poll, batchSize - 1);
+            // END is queued last, so it can only close a poll
+            if (poll.get(poll.size() - 1) == END) {
+                poll.remove(poll.size() - 1);
+                ended = true;
+            }
+            if (!poll.isEmpty()) {
+                ingest(poll);
+            }
+        }
+    }
+
+    private void ingest(List<ReplayedRecord> poll) {
+        long begin = System.nanoTime();
+        List<ConsumerRecord<String, String>> records = new ArrayList<>(poll.size());
+        for (ReplayedRecord replayed : poll) {
+            replayStats.record(ReplayStats.STAGE_SCHEDULE_LAG, Math.max(0, begin - replayed.scheduledAt));
+            replayStats.markDispatched(replayed.record.key(), begin);
+            records.add(replayed.record);
+        }
+        try {
+            cardEventConsumer.onMessages(records, null);
+        } catch (RuntimeException e) {
+            log.error("Replayed batch failed", kv("events", records.size()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+        // Each event is charged its share of the batch, as the consumer's stage timers are
+        long perEvent = (System.nanoTime() - begin) / poll.size();
+        for (int i = 0; i < poll.size(); i++) {
+            replayStats.record(ReplayStats.STAGE_INGEST, perEvent);
+        }
+    }
+
+    private Map<String, Object> buildReport(long events, long malformed, long ingestNanos, long totalNanos,
+            Statistics statistics) {
+        double ingestSeconds = ingestNanos / 1_000_000_000.0;
+
+        Map<String, Object> db = new LinkedHashMap<>();
+        db.put("inserts", statistics.getEntityInsertCount());
+        db.put("updates", statistics.getEntityUpdateCount());
+        db.put("queries", statistics.getQueryExecutionCount() + statistics.getEntityLoadCount());
+        db.put("transactions", statistics.getSuccessfulTransactionCount());
+
+        Map<String, Object> c360 = new LinkedHashMap<>();
+        c360.put("requests", replayStats.c360Requests());
+        c360.put("injectedFailures", replayStats.c360InjectedFailures());
+        c360.put("unacknowledgedCards", replayStats.awaitingAckCount());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("file", file);
+        report.put("speedup", speedup);
+        report.put("workers", workers);
+        report.put("batchSize", batchSize);
+        report.put("events", events);
+        report.put("malformedLines", malformed);
+        report.put("ingestSeconds", ingestSeconds);
+        report.put("totalSeconds", totalNanos / 1_000_000_000.0);
+        report.put("eventsPerSecond", ingestSeconds > 0 ? events / ingestSeconds : 0);
+        report.put("eventsPerMinute", ingestSeconds > 0 ? events * 60 / ingestSeconds : 0);
+        report.put("stages", replayStats.stageSummary());
+        report.put("db", db);
+        report.put("c360", c360);
+        return report;
+    }
+
+    private static final class ReplayedRecord {
+        final ConsumerRecord<String, String> record;
+        final long scheduledAt;
+
+        ReplayedRecord(ConsumerRecord<String, String> record, long scheduledAt) {
+            this.record = record;
+            this.scheduledAt = scheduledAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cardsservice.replay;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local Customer360 stand-in used by the replay profile. Point {@code profile360.url}
+ * at {@code /replay/c360} and the sync path runs end to end without the real system.
+ */
+@RestController
+@RequestMapping("/replay/c360")
+@Profile("replay")
+@RequiredArgsConstructor
+public class ReplayC360StubController {
+
+    private final ReplayStats replayStats;
+
+    @Value("${cards.replay.c360.latency-ms:20}")
+    private long latencyMs;
+
+    @Value("${cards.replay.c360.jitter-ms:10}")
+    private long jitterMs;
+
+    @Value("${cards.replay.c360.error-rate:0.0}")
+    private double errorRate;
+
+    @PostMapping
+    public Mono<ResponseEntity<Void>> receive(@RequestBody Map<String, Object> card) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        boolean fail = random.nextDouble() < errorRate;
+        String tokenRef = (String) card.get("tokenRef");
+
+        return Mono.delay(Duration.ofMillis(delay))
+                .map(tick -> {
+                    if (fail) {
+                        replayStats.markInjectedFailure();
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<Void>build();
+                    }
+                    replayStats.markAcknowledged(tokenRef);
+                    return ResponseEntity.ok().<Void>build();
+                });
+    }
+}
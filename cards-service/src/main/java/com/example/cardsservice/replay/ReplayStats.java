@@ -0,0 +1,96 @@
+package com.example.cardsservice.replay;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and volume bookkeeping for a replay run. Kept in its own registry so the
+ * percentiles cover the whole run and do not leak into the service's exported metrics.
+ */
+@Component
+@Profile("replay")
+public class ReplayStats {
+
+    public static final String STAGE_INGEST = "ingest";
+    public static final String STAGE_C360_ACK = "c360_ack";
+    public static final String STAGE_SCHEDULE_LAG = "schedule_lag";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, Timer> stages = new ConcurrentHashMap<>();
+    private final Map<String, Long> awaitingAck = new ConcurrentHashMap<>();
+    private final AtomicLong c360Requests = new AtomicLong();
+    private final AtomicLong c360InjectedFailures = new AtomicLong();
+
+    public void record(String stage, long nanos) {
+        stages.computeIfAbsent(stage, name -> Timer.builder("replay.stage")
+                .tag("stage", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Remembers when the latest event for a card entered the pipeline so the C360
+     * stand-in can measure dispatch-to-ack latency.
+     */
+    public void markDispatched(String tokenRef, long nanos) {
+        if (tokenRef != null) {
+            awaitingAck.put(tokenRef, nanos);
+        }
+    }
+
+    public void markAcknowledged(String tokenRef) {
+        c360Requests.incrementAndGet();
+        Long dispatchedAt = tokenRef == null ? null : awaitingAck.remove(tokenRef);
+        if (dispatchedAt != null) {
+            record(STAGE_C360_ACK, System.nanoTime() - dispatchedAt);
+        }
+    }
+
+    public void markInjectedFailure() {
+        c360Requests.incrementAndGet();
+        c360InjectedFailures.incrementAndGet();
+    }
+
+    public int awaitingAckCount() {
+        return awaitingAck.size();
+    }
+
+    public long c360Requests() {
+        return c360Requests.get();
+    }
+
+    public long c360InjectedFailures() {
+        return c360InjectedFailures.get();
+    }
+
+    public Map<String, Map<String, Object>> stageSummary() {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        stages.forEach((stage, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", snapshot.count());
+            values.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                values.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            values.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            summary.put(stage, values);
+        });
+        return summary;
+    }
+}
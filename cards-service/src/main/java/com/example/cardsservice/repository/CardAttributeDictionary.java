@@ -0,0 +1,191 @@
+package com.example.cardsservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * In-memory cache of {@code card_attribute_values}, the dictionary behind the
+ * low-cardinality columns of {@code cards}. Codes are assigned once and never change,
+ * so entries are cached for the life of the process and nothing is invalidated.
+ * <p>
+ * A value missing from the dictionary is inserted in the caller's transaction, on its
+ * connection, so a writer never needs a second pool connection. Its code is only cached
+ * once that transaction commits; a rolled-back write takes the entry back with it.
+ * Decoded values are the cached instances, so every loaded card shares one String per
+ * distinct value.
+ * <p>
+ * Values are compared exactly. {@code attribute_value} must use a binary collation
+ * ({@code db/mysql/card-attribute-values-binary-collation.sql}); on a case- or
+ * accent-insensitive one, a value that collides with a different spelling is refused
+ * rather than stored as that spelling.
+ */
+@Component
+@Slf4j
+public class CardAttributeDictionary {
+
+    private static final String SELECT_CODE_SQL =
+            "SELECT code, attribute_value FROM card_attribute_values WHERE attribute_value = ?";
+    // After losing an insert race: a locking read sees the winner even under REPEATABLE READ
+    private static final String SELECT_CODE_LATEST_SQL = SELECT_CODE_SQL + " FOR UPDATE";
+    private static final String SELECT_VALUE_SQL = "SELECT attribute_value FROM card_attribute_values WHERE code = ?";
+    private static final String INSERT_SQL = "INSERT INTO card_attribute_values (attribute_value) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> values = new ConcurrentHashMap<>();
+
+    public CardAttributeDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the code of {@code value}, adding it to the dictionary when new.
+     *
+     * @throws IllegalStateException if the column collation matches it to another spelling
+     */
+    public Integer encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        Integer code = cached(value);
+        return code != null ? code : load(value, true);
+    }
+
+    /**
+     * Returns the code of {@code value}, or {@code null} when it is not in the
+     * dictionary, in which case no stored card carries it.
+     */
+    public Integer find(String value) {
+        if (value == null) {
+            return null;
+        }
+        Integer code = cached(value);
+        return code != null ? code : load(value, false);
+    }
+
+    public String decode(Integer code) {
+        if (code == null) {
+            return null;
+        }
+        String value = values.get(code);
+        if (value == null) {
+            List<String> found = jdbcTemplate.queryForList(SELECT_VALUE_SQL, String.class, code);
+            if (found.isEmpty()) {
+                throw new IllegalStateException("Unknown card attribute code " + code);
+            }
+            value = found.get(0);
+            Map<String, Integer> added = added();
+            if (added != null && code.equals(added.get(value))) {
+                // Added by this transaction and not committed yet
+                return value;
+            }
+            value = cache(value, code);
+        }
+        return value;
+    }
+
+    // Includes the values the current transaction added; the database alone cannot tell them apart
+    private Integer cached(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            Map<String, Integer> added = added();
+            code = added == null ? null : added.get(value);
+        }
+        return code;
+    }
+
+    private Integer load(String value, boolean insert) {
+        Integer code = select(SELECT_CODE_SQL, value);
+        if (code != null) {
+            cache(value, code);
+            return code;
+        }
+        if (!insert) {
+            return null;
+        }
+
+        try {
+            jdbcTemplate.update(INSERT_SQL, value);
+        } catch (DuplicateKeyException e) {
+            // Added by a concurrent writer, or a different spelling under the column collation
+            code = select(SELECT_CODE_LATEST_SQL, value);
+            if (code == null) {
+                throw new IllegalStateException("Card attribute value collides with another spelling under the "
+                        + "attribute_value collation: " + value, e);
+            }
+            cache(value, code);
+            return code;
+        }
+        code = select(SELECT_CODE_SQL, value);
+        if (code == null) {
+            throw new IllegalStateException("Card attribute value not found after insert: " + value);
+        }
+        log.info("Added card attribute value to the dictionary", kv("value", value), kv("code", code));
+        if (!addInTransaction(value, code)) {
+            cache(value, code);
+        }
+        return code;
+    }
+
+    // Only an exact match counts; the query matches by the column collation
+    private Integer select(String sql, String value) {
+        Integer[] code = { null };
+        jdbcTemplate.query(sql, rs -> {
+            if (value.equals(rs.getString("attribute_value"))) {
+                code[0] = rs.getInt("code");
+            }
+        }, value);
+        return code[0];
+    }
+
+    private Map<String, Integer> added() {
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> added = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        return added;
+    }
+
+    /**
+     * Holds a value inserted by the current transaction until it commits. Returns
+     * {@code false} outside a transaction, where the insert is already committed.
+     */
+    private boolean addInTransaction(String value, Integer code) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        Map<String, Integer> added = added();
+        if (added == null) {
+            Map<String, Integer> pending = new HashMap<>();
+            added = pending;
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CardAttributeDictionary.this);
+                    if (status == STATUS_COMMITTED) {
+                        pending.forEach((committedValue, committedCode) -> cache(committedValue, committedCode));
+                    }
+                }
+            });
+        }
+        added.put(value, code);
+        return true;
+    }
+
+    private String cache(String value, Integer code) {
+        String cached = values.putIfAbsent(code, value);
+        String canonical = cached != null ? cached : value;
+        codes.putIfAbsent(canonical, code);
+        return canonical;
+    }
+}
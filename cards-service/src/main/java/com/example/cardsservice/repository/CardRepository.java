@@ -4,8 +4,14 @@ import com.example.cardsservice.entity.Card;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,10 +19,49 @@ import java.util.Optional;
 public interface CardRepository extends JpaRepository<Card, Long> {
     Optional<Card> findByTokenRef(String tokenRef);
 
-    List<Card> findByCustomerMobileNumber(String customerMobileNumber);
+    // One read for a batch of card-events records
+    List<Card> findByTokenRefIn(Collection<String> tokenRefs);
+
+    List<Card> findByCustomerMobileKey(Long customerMobileKey);
+
+    // Until the mobile-key migration completes: also the rows not keyed yet, by their spellings
+    List<Card> findByCustomerMobileKeyOrCustomerMobileNumberIn(Long customerMobileKey,
+            Collection<String> customerMobileNumbers);
+
+    List<Card> findByCustomerMobileKeyIn(Collection<Long> customerMobileKeys);
+
+    // Keyset page over the idx_mobile_key index, for the customer view rebuild
+    @Query("select distinct c.customerMobileKey from Card c where c.customerMobileKey > :after "
+            + "order by c.customerMobileKey")
+    List<Long> findMobileKeysAfter(@Param("after") long after, Pageable pageable);
 
     // Methods for C360 sync management
     Page<Card> findBySyncPending(boolean syncPending, Pageable pageable);
 
     long countBySyncPending(boolean syncPending);
+
+    // One UPDATE for a batch of cards left for the pending-sync reconciler; touches no other column
+    @Transactional
+    @Modifying
+    @Query("update Card c set c.syncPending = true where c.id in :ids")
+    int markSyncPending(@Param("ids") Collection<Long> ids);
+
+    // Records a sync C360 acknowledged, unless a newer sync was requested since: that
+    // request's syncPending mark may already be written and must not be cleared
+    @Transactional
+    @Modifying
+    @Query("update Card c set c.syncPending = false, c.lastSyncAttempt = :syncedAt where c.id = :id "
+            + "and (c.syncRequestedAt is null or c.syncRequestedAt <= :requestedAt)")
+    int markSynced(@Param("id") Long id, @Param("requestedAt") LocalDateTime requestedAt,
+            @Param("syncedAt") LocalDateTime syncedAt);
+
+    // A batch of acknowledged syncs in one transaction; touches only the sync columns
+    @Transactional
+    default int markSynced(Collection<Card> cards, LocalDateTime syncedAt) {
+        int marked = 0;
+        for (Card card : cards) {
+            marked += markSynced(card.getId(), card.getSyncRequestedAt(), syncedAt);
+        }
+        return marked;
+    }
 }
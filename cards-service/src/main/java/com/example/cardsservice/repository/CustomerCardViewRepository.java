@@ -0,0 +1,28 @@
+package com.example.cardsservice.repository;
+
+import com.example.cardsservice.entity.CustomerCardView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerCardViewRepository extends JpaRepository<CustomerCardView, Long> {
+
+    // SELECT ... FOR UPDATE: serializes view maintenance per customer
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CustomerCardView> findWithLockByMobileKey(Long mobileKey);
+
+    // The same for an ingestion batch's customers, locked in key order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<CustomerCardView> findWithLockByMobileKeyInOrderByMobileKey(Collection<Long> mobileKeys);
+
+    @Query("select v.mobileKey from CustomerCardView v where v.mobileKey in :mobileKeys")
+    List<Long> findMobileKeysIn(@Param("mobileKeys") Collection<Long> mobileKeys);
+}
@@ -0,0 +1,201 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.entity.Card;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks the HLD contract that C360 receives every card change within the SLA
+ * (5 seconds by default). The clock starts at {@link Card#getSyncRequestedAt()},
+ * stamped when the change is persisted, and stops at the first successful C360
+ * acknowledgement, whichever path delivers it: in-process retries, the retry
+ * topic consumer or a manual resync.
+ * <p>
+ * A change that misses the SLA, or ends up in the DLQ, is counted as a breach
+ * tagged with the most severe condition it went through, in the order
+ * {@code breaker_open}, {@code retry_topic}, {@code timeout}, {@code 5xx},
+ * {@code 4xx}, {@code error}; {@code latency} means no attempt failed.
+ * <p>
+ * Only outcomes this instance can still observe are tracked. A change handed to the
+ * retry topic, or left {@code syncPending} for the reconciler, is dropped here; the
+ * instance that picks it up tracks it again from the same stamp.
+ */
+@Component
+public class C360SlaTracker {
+
+    enum Cause {
+        LATENCY("latency"),
+        ERROR("error"),
+        CLIENT_ERROR("4xx"),
+        SERVER_ERROR("5xx"),
+        TIMEOUT("timeout"),
+        RETRY_TOPIC("retry_topic"),
+        BREAKER_OPEN("breaker_open");
+
+        private final String tag;
+
+        Cause(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Timer slaTimer;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<Cause, Counter> breachCounters = new ConcurrentHashMap<>();
+
+    @Value("${c360.sync.sla-ms:5000}")
+    private long slaMs = 5000;
+
+    // Backstop for chains whose outcome is never reported, e.g. ones cut short by a shutdown
+    @Value("${c360.sync.sla-pending-expiry-ms:3600000}")
+    private long pendingExpiryMs = 3_600_000;
+
+    public C360SlaTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.slaTimer = Timer.builder("c360.sync.sla")
+                .description("Time from persisting a card change to its C360 acknowledgement, across all attempts")
+                .register(meterRegistry);
+
+        TimeGauge.builder("c360.sync.oldest_unsynced_age", this, TimeUnit.MILLISECONDS,
+                        C360SlaTracker::oldestUnsyncedAgeMs)
+                .description("Age of the oldest card change not yet acknowledged by C360")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts (or keeps) the SLA clock for the card's current change.
+     */
+    public void track(Card card) {
+        pending.putIfAbsent(card.getTokenRef(), new Pending(requestedAtMillis(card), Cause.LATENCY));
+    }
+
+    /**
+     * Same as {@link #track(Card)} for a change delivered through the retry topic, which
+     * breaches as {@code retry_topic} or worse.
+     */
+    public void trackRetry(Card card) {
+        pending.putIfAbsent(card.getTokenRef(), new Pending(requestedAtMillis(card), Cause.RETRY_TOPIC));
+    }
+
+    public void recordFailure(Card card, Throwable error) {
+        escalate(card, classify(error));
+    }
+
+    /**
+     * The change was handed to the retry topic, whose consumer may run on another instance.
+     */
+    public void recordRetryTopic(Card card) {
+        pending.remove(card.getTokenRef());
+    }
+
+    /**
+     * The change was left {@code syncPending}; the reconciler resyncs it, possibly elsewhere.
+     */
+    public void recordRejected(Card card) {
+        pending.remove(card.getTokenRef());
+    }
+
+    public void recordAck(Card card) {
+        Pending change = pending.remove(card.getTokenRef());
+        long requestedAt = card.getSyncRequestedAt() != null ? requestedAtMillis(card)
+                : change != null ? change.requestedAtMs : System.currentTimeMillis();
+        long elapsedMs = Math.max(0, System.currentTimeMillis() - requestedAt);
+        slaTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+
+        if (elapsedMs > slaMs) {
+            breach(change == null ? Cause.RETRY_TOPIC : change.cause);
+        }
+    }
+
+    /**
+     * The change will not reach C360 without manual replay, which always breaches the SLA.
+     */
+    public void recordAbandoned(Card card) {
+        Pending change = pending.remove(card.getTokenRef());
+        breach(change == null ? Cause.RETRY_TOPIC : change.cause);
+    }
+
+    long oldestUnsyncedAgeMs() {
+        long now = System.currentTimeMillis();
+        long oldest = now;
+        for (Pending change : pending.values()) {
+            oldest = Math.min(oldest, change.requestedAtMs);
+        }
+        return now - oldest;
+    }
+
+    /**
+     * Drops changes pending for longer than {@code c360.sync.sla-pending-expiry-ms}.
+     */
+    @Scheduled(fixedDelayString = "${c360.sync.sla-expiry-interval-ms:60000}")
+    void expireStale() {
+        long cutoff = System.currentTimeMillis() - pendingExpiryMs;
+        pending.values().removeIf(change -> change.requestedAtMs < cutoff);
+    }
+
+    static Cause classify(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return Cause.BREAKER_OPEN;
+        }
+        if (error instanceof WebClientResponseException) {
+            return ((WebClientResponseException) error).getStatusCode().is5xxServerError()
+                    ? Cause.SERVER_ERROR : Cause.CLIENT_ERROR;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            // Covers reactor-netty read/write timeouts and pending-acquire timeouts
+            if (cause instanceof TimeoutException || cause.getClass().getSimpleName().contains("Timeout")) {
+                return Cause.TIMEOUT;
+            }
+        }
+        return Cause.ERROR;
+    }
+
+    private void escalate(Card card, Cause cause) {
+        Pending change = pending.computeIfAbsent(card.getTokenRef(), tokenRef -> new Pending(requestedAtMillis(card), cause));
+        synchronized (change) {
+            if (cause.compareTo(change.cause) > 0) {
+                change.cause = cause;
+            }
+        }
+    }
+
+    private void breach(Cause cause) {
+        breachCounters.computeIfAbsent(cause, c -> Counter.builder("c360.sync.sla.breach")
+                        .description("Card changes acknowledged by C360 after the SLA, or never")
+                        .tag("cause", c.tag)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static long requestedAtMillis(Card card) {
+        LocalDateTime requestedAt = card.getSyncRequestedAt();
+        return requestedAt == null ? System.currentTimeMillis()
+                : requestedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Pending {
+        private final long requestedAtMs;
+        private volatile Cause cause;
+
+        private Pending(long requestedAtMs, Cause cause) {
+            this.requestedAtMs = requestedAtMs;
+            this.cause = cause;
+        }
+    }
+}
@@ -1,44 +1,99 @@
 package com.example.cardsservice.service;
 
-import com.example.cardsservice.dto.CardEventDto;
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.BatchingWriter;
+import com.example.cardsservice.executor.CardSyncTask;
+import com.example.cardsservice.executor.SyncExecutors;
+import com.example.cardsservice.executor.SyncPriority;
+import com.example.cardsservice.jfr.C360SyncAttemptEvent;
+import com.example.cardsservice.logging.HotPathLogger;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.producer.SyncFailureProducer;
 import com.example.cardsservice.repository.CardRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
 @Slf4j
 public class C360SyncService {
 
+    /** DLQ record headers describing why the card was parked; used to filter DLQ replays. */
+    public static final String DLQ_ERROR_TYPE_HEADER = "dlq-error-type";
+    public static final String DLQ_ERROR_MESSAGE_HEADER = "dlq-error-message";
+    /** Retry-topic record header: how many times the card has been pushed to the retry topic. */
+    public static final String RETRY_COUNT_HEADER = "retry-count";
+
+    // Per-attempt lines; the retry-topic and DLQ outcomes stay on the plain logger
+    private static final HotPathLogger hotLog = HotPathLogger.getLogger(C360SyncService.class, "c360-sync");
+    private static final HotPathLogger failureLog = HotPathLogger.getLogger(C360SyncService.class, "c360-sync-failure");
+
     private final WebClient webClient;
+    // Own connection pool for the critical lane; see WebClientConfig
+    private final WebClient criticalWebClient;
     private final CardRepository cardRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SyncFailureProducer syncFailureProducer;
     private final ObjectMapper objectMapper;
     private final Tracer tracer;
+    private final CircuitBreaker circuitBreaker;
+    private final C360SlaTracker slaTracker;
+    private final Lane dispatchLane;
+    private final Lane retryLane;
+    private final Lane resyncLane;
+    private final Lane criticalLane;
+
+    // Submitted and not yet finished, queued or running, across all sync executors
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // syncPending marks from Kafka callbacks and executor rejections, written as one UPDATE per batch
+    private final BatchingWriter<Card> pendingMarks =
+            new BatchingWriter<>("c360-sync-pending-writer", 10_000, this::writePendingMarks);
+
+    // Successful syncs, recorded in one transaction per batch. A card whose sync was requested
+    // again since keeps its state, so a later syncPending mark is never cleared by this writer
+    private final BatchingWriter<Card> syncedMarks =
+            new BatchingWriter<>("c360-synced-writer", 10_000, this::writeSyncedMarks);
 
     // Metrics
     private final Counter successCounter;
     private final Counter failureCounter;
     private final Counter retryCounter;
     private final Counter dlqPushCounter;
+    private final Counter retryQueuePushCounter;
+    private final Counter breakerRejectedCounter;
+    private final Counter pendingMarkDroppedCounter;
     private final Timer syncTimer;
+    private final Timer ackFreshnessTimer;
 
     @Value("${profile360.url}")
     private String profile360Url;
@@ -46,6 +101,9 @@ public class C360SyncService {
     @Value("${c360.sync.retry.topic:card-events-retry}")
     private String retryTopic;
 
+    @Value("${c360.sync.retry.critical-topic:card-events-retry-critical}")
+    private String criticalRetryTopic;
+
     @Value("${c360.sync.dlq.topic:card-events-dlq}")
     private String dlqTopic;
 
@@ -55,17 +113,34 @@ public class C360SyncService {
     @Value("${c360.sync.initial-delay-ms:1000}")
     private long initialDelayMs;
 
+    @Value("${c360.sync.pending-mark.batch-size:500}")
+    private int pendingMarkBatchSize = 500;
+
+    @Value("${c360.sync.pending-mark.linger-ms:50}")
+    private long pendingMarkLingerMs = 50;
+
     public C360SyncService(WebClient webClient,
+            @Qualifier("c360CriticalWebClient") WebClient criticalWebClient,
             CardRepository cardRepository,
-            KafkaTemplate<String, Object> kafkaTemplate,
+            SyncFailureProducer syncFailureProducer,
             ObjectMapper objectMapper,
             Tracer tracer,
-            MeterRegistry meterRegistry) {
+            MeterRegistry meterRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            C360SlaTracker slaTracker,
+            SyncExecutors syncExecutors) {
         this.webClient = webClient;
+        this.criticalWebClient = criticalWebClient;
         this.cardRepository = cardRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.syncFailureProducer = syncFailureProducer;
         this.objectMapper = objectMapper;
         this.tracer = tracer;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("c360Sync");
+        this.slaTracker = slaTracker;
+        this.dispatchLane = new Lane("dispatch", syncExecutors.dispatch(), meterRegistry);
+        this.retryLane = new Lane("retry", syncExecutors.retry(), meterRegistry);
+        this.resyncLane = new Lane("resync", syncExecutors.resync(), meterRegistry);
+        this.criticalLane = new Lane("critical", syncExecutors.critical(), meterRegistry);
 
         // Initialize metrics
         this.successCounter = Counter.builder("c360.sync.success")
@@ -84,174 +159,453 @@ public class C360SyncService {
                 .description("Number of messages pushed to DLQ")
                 .register(meterRegistry);
 
+        this.retryQueuePushCounter = Counter.builder("c360.sync.retry_queue_push")
+                .description("Number of messages pushed to the retry topic")
+                .register(meterRegistry);
+
+        this.breakerRejectedCounter = Counter.builder("c360.sync.breaker_rejected")
+                .description("Number of C360 calls short-circuited by the open circuit breaker")
+                .register(meterRegistry);
+
+        this.pendingMarkDroppedCounter = Counter.builder("c360.sync.pending_mark.dropped")
+                .description("syncPending marks from Kafka producer callbacks dropped because the mark queue was full")
+                .register(meterRegistry);
+
         this.syncTimer = Timer.builder("c360.sync.duration")
                 .description("Time taken for C360 sync operations")
                 .register(meterRegistry);
+
+        Gauge.builder("c360.sync.in_flight", inFlight, AtomicInteger::get)
+                .description("C360 syncs submitted and not yet finished")
+                .register(meterRegistry);
+
+        this.ackFreshnessTimer = Timer.builder("cards.event.freshness")
+                .description("Time from the CMS eventTimestamp to the given pipeline stage")
+                .tag("stage", "c360_acked")
+                .register(meterRegistry);
+
+        Gauge.builder("c360.sync.pending_mark.queue.size", pendingMarks, BatchingWriter::size)
+                .description("Cards waiting to be marked syncPending")
+                .register(meterRegistry);
+        Gauge.builder("c360.sync.synced_mark.queue.size", syncedMarks, BatchingWriter::size)
+                .description("Synced cards waiting to have the sync recorded")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        pendingMarks.start(pendingMarkBatchSize, pendingMarkLingerMs);
+        syncedMarks.start(pendingMarkBatchSize, pendingMarkLingerMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Marks still queued are written before the data source goes away
+        pendingMarks.shutdown();
+        syncedMarks.shutdown();
     }
 
     /**
      * Syncs card to C360. If failed, retries up to maxRetries. If still failed,
-     * pushes to retry queue.
+     * pushes to retry queue. Runs on the dispatch executor; when that is saturated
+     * the card is marked {@code syncPending} and the future completes with {@code false}.
      */
-    @Async
     public CompletableFuture<Boolean> syncToC360(Card card) {
+        return syncToC360(card, SyncPriority.NORMAL);
+    }
+
+    /**
+     * {@link SyncPriority#CRITICAL} syncs run on the critical executor instead of the
+     * dispatch executor, and are retried through the critical retry topic.
+     */
+    public CompletableFuture<Boolean> syncToC360(Card card, SyncPriority priority) {
+        return submit(card, priority == SyncPriority.CRITICAL ? criticalLane : dispatchLane, priority, 0);
+    }
+
+    /**
+     * Same as {@link #syncToC360(Card, SyncPriority)}, with routine updates on the executor
+     * reserved for retry-topic messages. {@code retryCount} is the {@value #RETRY_COUNT_HEADER}
+     * of the message; a failed sync pushes the card back with it incremented.
+     */
+    public CompletableFuture<Boolean> retrySync(Card card, SyncPriority priority, int retryCount) {
+        slaTracker.trackRetry(card);
+        return submit(card, priority == SyncPriority.CRITICAL ? criticalLane : retryLane, priority, retryCount);
+    }
+
+    /**
+     * Same as {@link #syncToC360(Card)}, on the executor reserved for bulk manual resyncs.
+     */
+    public CompletableFuture<Boolean> resync(Card card) {
+        return submit(card, resyncLane, SyncPriority.NORMAL, 0);
+    }
+
+    private CompletableFuture<Boolean> submit(Card card, Lane lane, SyncPriority priority, int retryCount) {
+        slaTracker.track(card);
+        long submitted = System.nanoTime();
+        CardSyncTask task = new CardSyncTask(card, c -> {
+            lane.queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            return startSync(c, priority, retryCount);
+        }, this::markSyncPending);
+        inFlight.incrementAndGet();
+        task.result().whenComplete((synced, error) -> {
+            inFlight.decrementAndGet();
+            lane.latency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        });
+        lane.executor.execute(task);
+        return task.result();
+    }
+
+    public int inFlightSyncs() {
+        return inFlight.get();
+    }
+
+    /**
+     * Starts the attempt chain and returns without waiting for it, so the executor thread
+     * is not held through C360 latency, timeouts or backoff delays. Syncs in flight are
+     * counted by {@link #inFlightSyncs()}, which the consumer backpressure watches.
+     */
+    private CompletableFuture<Boolean> startSync(Card card, SyncPriority priority, int retryCount) {
         // Set up MDC for structured logging
         setupMDC(card);
+        try {
+            return syncToC360Internal(card, 0, priority, retryCount).toFuture();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private void markSyncPending(Card card) {
+        leaveForReconciler(card, "Sync executor saturated; card left for the pending-sync reconciler");
+    }
+
+    /**
+     * Queues the card to be marked {@code syncPending}. This runs on listener and sync
+     * threads, so the mark is batched rather than saved here; a card that was never
+     * persisted, or one that finds the queue full, is saved directly.
+     */
+    private void leaveForReconciler(Card card, String reason) {
+        if (!queueForReconciler(card, reason)) {
+            cardRepository.save(card);
+        }
+    }
+
+    /**
+     * Same as {@link #leaveForReconciler}, for completions of {@link SyncFailureProducer}
+     * sends, which may run on the Kafka I/O thread: the mark is only queued. A card that
+     * cannot be queued is counted as {@code c360.sync.pending_mark.dropped} and left to its
+     * next event instead of being saved there.
+     */
+    private void leaveForReconcilerFromCallback(Card card, String reason) {
+        if (!queueForReconciler(card, reason)) {
+            pendingMarkDroppedCounter.increment();
+            log.error("CRITICAL: syncPending mark queue full; card is only resynced by its next event",
+                    kv("tokenRef", card.getTokenRef()));
+        }
+    }
+
+    private boolean queueForReconciler(Card card, String reason) {
+        if (failureLog.shouldLog(Level.WARN)) {
+            failureLog.log(Level.WARN, reason, "tokenRef", card.getTokenRef());
+        }
+        slaTracker.recordRejected(card);
+        card.setSyncPending(true);
+        return card.getId() != null && pendingMarks.offer(card);
+    }
+
+    private void writePendingMarks(List<Card> cards) {
+        try {
+            cardRepository.markSyncPending(cards.stream().map(Card::getId).toList());
+        } catch (RuntimeException e) {
+            log.error("CRITICAL: Failed to mark cards syncPending; they are only resynced by their next event",
+                    kv("cards", cards.size()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+    }
+
+    private void writeSyncedMarks(List<Card> cards) {
+        try {
+            cardRepository.markSynced(cards, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Failed to record C360 syncs; the cards keep their previous sync state",
+                    kv("cards", cards.size()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+    }
 
-        return syncToC360Internal(card, 0)
-                .doFinally(signal -> MDC.clear())
-                .toFuture();
+    /**
+     * Writes every queued {@code syncPending} mark on the calling thread.
+     */
+    void flushPendingMarks() {
+        pendingMarks.flush();
     }
 
-    @CircuitBreaker(name = "c360Sync", fallbackMethod = "syncFallback")
-    private Mono<Boolean> syncToC360Internal(Card card, int attemptNumber) {
+    /**
+     * Writes every queued successful sync on the calling thread.
+     */
+    void flushSyncedMarks() {
+        syncedMarks.flush();
+    }
+
+    /**
+     * Each attempt goes through the {@code c360Sync} circuit breaker. The breaker is
+     * driven programmatically because an annotation on a self-invoked method is never
+     * proxied; once it is open, remaining attempts are skipped and the card goes
+     * straight to the retry queue instead of adding load to a failing C360.
+     * <p>
+     * Only the first attempt of a chain is recorded as a breaker outcome. Backoff retries
+     * of the same card would otherwise count one failure up to {@code max-retries + 1}
+     * times, so a brownout that fails a minority of cards looks like a failure rate
+     * above the threshold.
+     */
+    private Mono<Boolean> syncToC360Internal(Card card, int attemptNumber, SyncPriority priority, int retryCount) {
         // Ensure MDC is set for reactive context
         setupMDC(card);
 
+        if (!circuitBreaker.tryAcquirePermission()) {
+            commitAttemptEvent(new C360SyncAttemptEvent(), card, attemptNumber, "breaker_open", null);
+            return syncFallback(card, CallNotPermittedException.createCallNotPermittedException(circuitBreaker),
+                    priority, retryCount);
+        }
+        boolean recordOutcome = attemptNumber == 0;
+
         if (attemptNumber > 0) {
             retryCounter.increment();
-            log.info("Retry attempt for card sync",
-                    kv("attemptNumber", attemptNumber),
-                    kv("maxRetries", maxRetries));
         }
-
-        log.info("Syncing card to Customer360",
-                kv("attempt", attemptNumber + 1),
-                kv("maxAttempts", maxRetries + 1));
+        if (hotLog.shouldLog(Level.INFO)) {
+            hotLog.log(Level.INFO, "Syncing card to Customer360",
+                    "attempt", attemptNumber + 1, "maxAttempts", maxRetries + 1);
+        }
 
         return Mono.fromCallable(() -> System.nanoTime())
-                .flatMap(startTime -> webClient.post()
-                        .uri(profile360Url)
-                        .bodyValue(card)
-                        .retrieve()
-                        .toBodilessEntity()
-                        .then(Mono.fromRunnable(() -> {
-                            long duration = System.nanoTime() - startTime;
-                            syncTimer.record(Duration.ofNanos(duration));
-                            successCounter.increment();
-
-                            log.info("Successfully synced card to Customer360",
-                                    kv("durationMs", duration / 1_000_000));
-
-                            card.setLastSyncAttempt(LocalDateTime.now());
-                            cardRepository.save(card);
-                        }))
-                        .thenReturn(true))
+                .flatMap(startTime -> {
+                    C360SyncAttemptEvent jfrEvent = new C360SyncAttemptEvent();
+                    jfrEvent.begin();
+                    WebClient client = priority == SyncPriority.CRITICAL ? criticalWebClient : webClient;
+                    return client.post()
+                            .uri(profile360Url)
+                            .bodyValue(card)
+                            .retrieve()
+                            .toBodilessEntity()
+                            // Outcomes write to the DB and Kafka; keep them off the Netty event loop
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnError(error -> {
+                                if (recordOutcome) {
+                                    circuitBreaker.onError(System.nanoTime() - startTime, TimeUnit.NANOSECONDS, error);
+                                } else {
+                                    circuitBreaker.releasePermission();
+                                }
+                                commitAttemptEvent(jfrEvent, card, attemptNumber, "failure", error);
+                            })
+                            .then(Mono.fromRunnable(() -> {
+                                setupMDC(card);
+                                long duration = System.nanoTime() - startTime;
+                                if (recordOutcome) {
+                                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                                } else {
+                                    circuitBreaker.releasePermission();
+                                }
+                                commitAttemptEvent(jfrEvent, card, attemptNumber, "success", null);
+                                syncTimer.record(Duration.ofNanos(duration));
+                                successCounter.increment();
+                                slaTracker.recordAck(card);
+                                if (card.getEventTimestamp() != null) {
+                                    ackFreshnessTimer.record(Duration.between(card.getEventTimestamp(), LocalDateTime.now()));
+                                }
+
+                                if (hotLog.shouldLog(Level.INFO)) {
+                                    hotLog.log(Level.INFO, "Successfully synced card to Customer360",
+                                            "durationMs", duration / 1_000_000);
+                                }
+
+                                card.setLastSyncAttempt(LocalDateTime.now());
+                                card.setSyncPending(false);
+                                // Batched like the syncPending marks; only the sync columns are written
+                                if (card.getId() == null) {
+                                    cardRepository.save(card);
+                                } else if (!syncedMarks.offer(card)) {
+                                    writeSyncedMarks(List.of(card));
+                                }
+                            }))
+                            .thenReturn(true);
+                })
                 .onErrorResume(error -> {
+                    setupMDC(card);
                     failureCounter.increment();
+                    slaTracker.recordFailure(card, error);
+
+                    boolean willRetry = attemptNumber < maxRetries;
+                    long delayMs = initialDelayMs * (long) Math.pow(2, attemptNumber);
+                    if (failureLog.shouldLog(Level.ERROR)) {
+                        failureLog.log(Level.ERROR, willRetry ? "Failed to sync card to Customer360, will retry"
+                                        : "Failed to sync card to Customer360",
+                                "attempt", attemptNumber + 1,
+                                "maxAttempts", maxRetries + 1,
+                                "errorType", error.getClass().getSimpleName(),
+                                "errorMessage", error.getMessage(),
+                                "delayMs", willRetry ? delayMs : 0);
+                    }
 
-                    log.error("Failed to sync card to Customer360",
-                            kv("attempt", attemptNumber + 1),
-                            kv("maxAttempts", maxRetries + 1),
-                            kv("errorType", error.getClass().getSimpleName()),
-                            kv("errorMessage", error.getMessage()));
-
-                    if (attemptNumber < maxRetries) {
-                        long delayMs = initialDelayMs * (long) Math.pow(2, attemptNumber);
-
-                        log.info("Will retry syncing card",
-                                kv("delayMs", delayMs),
-                                kv("nextAttempt", attemptNumber + 2));
-
+                    if (willRetry) {
                         // Non-blocking delay using Mono.delay()
                         return Mono.delay(Duration.ofMillis(delayMs))
-                                .flatMap(tick -> syncToC360Internal(card, attemptNumber + 1));
+                                .flatMap(tick -> syncToC360Internal(card, attemptNumber + 1, priority, retryCount));
                     } else {
                         log.error("Max retries exhausted for card. Pushing to retry queue.");
-                        pushToRetryQueue(card);
+                        pushToRetryQueue(card, priority, retryCount);
                         return Mono.just(false);
                     }
                 });
     }
 
     /**
-     * Fallback method for Circuit Breaker.
-     * When Circuit Breaker is OPEN, this method is called immediately.
-     * We push to retry queue directly.
+     * Fallback when the circuit breaker is OPEN: the call is not attempted and the
+     * card is pushed to the retry queue directly.
      */
-    private Mono<Boolean> syncFallback(Card card, int attemptNumber, Throwable t) {
+    private Mono<Boolean> syncFallback(Card card, Throwable t, SyncPriority priority, int retryCount) {
         setupMDC(card);
+        breakerRejectedCounter.increment();
+        slaTracker.recordFailure(card, t);
 
-        log.warn("Circuit Breaker is OPEN or fallback triggered. Pushing to retry queue directly.",
-                kv("errorType", t.getClass().getSimpleName()),
-                kv("errorMessage", t.getMessage()));
+        if (failureLog.shouldLog(Level.WARN)) {
+            failureLog.log(Level.WARN, "Circuit Breaker is OPEN or fallback triggered. Pushing to retry queue directly.",
+                    "errorType", t.getClass().getSimpleName(),
+                    "errorMessage", t.getMessage());
+        }
 
-        pushToRetryQueue(card);
+        pushToRetryQueue(card, priority, retryCount);
         return Mono.just(false);
     }
 
-    private void pushToRetryQueue(Card card) {
+    /**
+     * The record carries {@code retryCount + 1} in {@value #RETRY_COUNT_HEADER}, which
+     * {@code CardRetryConsumer} parks on the DLQ once it reaches its cap. The push is
+     * acknowledged asynchronously; if the record cannot be encoded or the broker never
+     * acknowledges it, the card is marked {@code syncPending} so the reconciler resyncs it
+     * instead of it being lost.
+     */
+    private void pushToRetryQueue(Card card, SyncPriority priority, int retryCount) {
+        String topic = priority == SyncPriority.CRITICAL ? criticalRetryTopic : retryTopic;
+        byte[] payload;
         try {
-            CardEventDto eventDto = mapCardToDto(card);
-            String message = objectMapper.writeValueAsString(eventDto);
-            kafkaTemplate.send(retryTopic, card.getTokenRef(), message);
-
-            log.info("Pushed card to retry topic",
-                    kv("topic", retryTopic));
+            payload = objectMapper.writeValueAsBytes(CardMapper.toEventDto(card));
         } catch (Exception e) {
-            log.error("Failed to push card to retry queue. Pushing to DLQ.",
+            log.error("Failed to encode card for the retry topic",
                     kv("errorType", e.getClass().getSimpleName()),
                     kv("errorMessage", e.getMessage()));
-            pushToDLQ(card, e);
+            leaveForReconciler(card, "Retry-topic push failed; card left for the pending-sync reconciler");
+            return;
         }
+
+        Map<String, String> headers = Map.of(RETRY_COUNT_HEADER, String.valueOf(retryCount + 1));
+        syncFailureProducer.send(topic, card.getTokenRef(), payload, headers).whenComplete((acked, error) -> {
+            if (error == null) {
+                retryQueuePushCounter.increment();
+                slaTracker.recordRetryTopic(card);
+                if (hotLog.shouldLog(Level.INFO)) {
+                    hotLog.log(Level.INFO, "Pushed card to retry topic", "topic", topic, "tokenRef", card.getTokenRef());
+                }
+            } else {
+                log.error("Retry-topic push was not acknowledged",
+                        kv("tokenRef", card.getTokenRef()),
+                        kv("topic", topic),
+                        kv("errorType", error.getClass().getSimpleName()),
+                        kv("errorMessage", error.getMessage()));
+                leaveForReconcilerFromCallback(card, "Retry-topic push failed; card left for the pending-sync reconciler");
+            }
+        });
     }
 
+    /**
+     * Parks the card on the DLQ. As with the retry topic, a push the broker does not
+     * acknowledge leaves the card {@code syncPending} rather than dropping it.
+     */
     public void pushToDLQ(Card card, Exception originalError) {
-        try {
-            dlqPushCounter.increment();
-
-            CardEventDto eventDto = mapCardToDto(card);
-            String message = objectMapper.writeValueAsString(eventDto);
-            kafkaTemplate.send(dlqTopic, card.getTokenRef(), message);
+        dlqPushCounter.increment();
+        slaTracker.recordAbandoned(card);
 
-            log.error("Pushed card to DLQ",
-                    kv("topic", dlqTopic),
-                    kv("originalError", originalError.getMessage()));
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(CardMapper.toEventDto(card));
         } catch (Exception e) {
-            log.error("CRITICAL: Failed to push card to DLQ. Manual intervention required.",
+            log.error("CRITICAL: Failed to encode card for the DLQ.",
                     kv("tokenRef", card.getTokenRef()),
                     kv("errorType", e.getClass().getSimpleName()),
                     kv("errorMessage", e.getMessage()));
+            leaveForReconciler(card, "DLQ push failed; card left for the pending-sync reconciler");
+            return;
         }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DLQ_ERROR_TYPE_HEADER, originalError.getClass().getSimpleName());
+        headers.put(DLQ_ERROR_MESSAGE_HEADER, originalError.getMessage());
+        syncFailureProducer.send(dlqTopic, card.getTokenRef(), payload, headers).whenComplete((acked, error) -> {
+            if (error == null) {
+                log.error("Pushed card to DLQ",
+                        kv("topic", dlqTopic),
+                        kv("originalError", originalError.getMessage()));
+            } else {
+                log.error("CRITICAL: DLQ push was not acknowledged.",
+                        kv("tokenRef", card.getTokenRef()),
+                        kv("errorType", error.getClass().getSimpleName()),
+                        kv("errorMessage", error.getMessage()));
+                leaveForReconcilerFromCallback(card, "DLQ push failed; card left for the pending-sync reconciler");
+            }
+        });
     }
 
-    private CardEventDto mapCardToDto(Card card) {
-        CardEventDto dto = new CardEventDto();
-        dto.setTokenRef(card.getTokenRef());
-        dto.setMaskedCardNumber(card.getMaskedCardNumber());
-        dto.setLast4(card.getLast4());
-        dto.setProgramCode(card.getProgramCode());
-        dto.setProgramCategory(card.getProgramCategory());
-        dto.setNetwork(card.getNetwork());
-        dto.setBin(card.getBin());
-        dto.setLifecycleStatus(card.getLifecycleStatus());
-        dto.setRawStatus(card.getRawStatus());
-        dto.setCustomerMobileNumber(card.getCustomerMobileNumber());
-        dto.setCustId(card.getCustId());
-        dto.setAccountNo(card.getAccountNo());
-        dto.setIssuedBySystem(card.getIssuedBySystem());
-        dto.setIssuanceChannel(card.getIssuanceChannel());
-
-        if (card.getEventTimestamp() != null) {
-            dto.setEventTimestamp(card.getEventTimestamp().format(DateTimeFormatter.ISO_DATE_TIME));
+    private static void commitAttemptEvent(C360SyncAttemptEvent event, Card card, int attemptNumber, String outcome,
+            Throwable error) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.tokenRef = card.getTokenRef();
+            event.attempt = attemptNumber + 1;
+            event.outcome = outcome;
+            event.errorType = error == null ? null : error.getClass().getSimpleName();
+            event.commit();
         }
-
-        return dto;
     }
 
+    /**
+     * Called on every attempt because retries resume on a timer thread; the context is
+     * only written when that thread does not already carry it for this card.
+     */
     private void setupMDC(Card card) {
-        MDC.put("tokenRef", card.getTokenRef());
+        String tokenRef = card.getTokenRef();
+        if (tokenRef != null && tokenRef.equals(MDC.get("tokenRef"))) {
+            return;
+        }
+        MDC.put("tokenRef", tokenRef);
         MDC.put("cardId", String.valueOf(card.getId()));
 
         // Add trace context if available
-        if (tracer != null && tracer.currentSpan() != null) {
-            MDC.put("traceId", tracer.currentSpan().context().traceId());
-            MDC.put("spanId", tracer.currentSpan().context().spanId());
+        Span span = tracer == null ? null : tracer.currentSpan();
+        if (span != null) {
+            MDC.put("traceId", span.context().traceId());
+            MDC.put("spanId", span.context().spanId());
         }
     }
 
-    // Helper method for structured logging
-    private static org.slf4j.event.KeyValuePair kv(String key, Object value) {
-        return new org.slf4j.event.KeyValuePair(key, value);
+    /**
+     * A sync executor with its latency meters: time queued before a worker picks the sync
+     * up, and time from submission until the sync is acked, retried or left pending.
+     */
+    private static final class Lane {
+        private final Executor executor;
+        private final Timer queueWait;
+        private final Timer latency;
+
+        private Lane(String name, Executor executor, MeterRegistry meterRegistry) {
+            this.executor = executor;
+            this.queueWait = Timer.builder("c360.sync.lane.queue_wait")
+                    .description("Time a C360 sync waited for a worker, per lane")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("c360.sync.lane.latency")
+                    .description("Time from submitting a C360 sync to its outcome, per lane")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+        }
     }
 }
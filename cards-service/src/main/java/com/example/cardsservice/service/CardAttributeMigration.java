@@ -0,0 +1,158 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Background migration bringing the dictionary codes of {@code cards} in line with the
+ * legacy attribute string columns. Walks {@code cards} by id in small batches with a
+ * pause between them, so it can run alongside ingestion, and rewrites the codes of rows
+ * whose strings encode differently: rows written before the dictionary, and rows an
+ * instance of the previous release updated since, which write only the strings.
+ * <p>
+ * Until then {@link com.example.cardsservice.entity.Card} reads such a row from its
+ * strings, and every write sets both, so reads are correct throughout; only searches by
+ * code miss the rows not yet encoded. Keep it enabled until a pass has completed after
+ * the last instance of the previous release stopped, then drop the legacy columns (see
+ * {@code db/mysql/drop-legacy-card-attribute-columns.sql}).
+ */
+@Component
+@Slf4j
+public class CardAttributeMigration {
+
+    // Legacy string columns, in the order of ENCODED_COLUMNS
+    private static final String[] LEGACY_COLUMNS = { "program_code", "program_category", "network",
+            "lifecycle_status", "raw_status", "issued_by_system", "issuance_channel" };
+
+    private static final String[] ENCODED_COLUMNS = { "program_code_id", "program_category_id", "network_id",
+            "lifecycle_status_id", "raw_status_id", "issued_by_system_id", "issuance_channel_id" };
+
+    private static final String SELECT_SQL = "SELECT id, updated_at, " + String.join(", ", LEGACY_COLUMNS) + ", "
+            + String.join(", ", ENCODED_COLUMNS) + " FROM cards WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Skips rows written since they were read; their writer set the codes itself
+    private static final String UPDATE_SQL = "UPDATE cards SET " + String.join(" = ?, ", ENCODED_COLUMNS)
+            + " = ? WHERE id = ? AND updated_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardAttributeDictionary dictionary;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "card-attribute-migration"));
+
+    private final Counter encodedCounter;
+
+    @Value("${cards.migration.attribute-codes.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cards.migration.attribute-codes.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${cards.migration.attribute-codes.pause-ms:50}")
+    private long pauseMs = 50;
+
+    public CardAttributeMigration(JdbcTemplate jdbcTemplate,
+            CardAttributeDictionary dictionary,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+
+        this.encodedCounter = Counter.builder("cards.migration.attribute_codes.rows")
+                .description("Rows encoded by the card attribute migration")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.submit(this::run);
+        }
+    }
+
+    /**
+     * Runs the migration on the calling thread and returns the number of rows encoded.
+     */
+    long run() {
+        log.info("Starting card attribute migration", kv("batchSize", batchSize));
+        long encoded = 0;
+        try {
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Object[]> updates = new ArrayList<>();
+                List<Long> ids = new ArrayList<>(batchSize);
+                jdbcTemplate.query(SELECT_SQL, rs -> {
+                    ids.add(rs.getLong("id"));
+                    Object[] update = encode(rs);
+                    if (update != null) {
+                        updates.add(update);
+                    }
+                }, afterId, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                if (!updates.isEmpty()) {
+                    for (int rows : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+                        encoded += rows > 0 ? 1 : 0;
+                        encodedCounter.increment(rows > 0 ? 1 : 0);
+                    }
+                }
+                afterId = ids.get(ids.size() - 1);
+
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+
+            log.info("Card attribute migration completed", kv("encoded", encoded));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Card attribute migration failed; it resumes on the next start",
+                    kv("encoded", encoded),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the update parameters of the row, or {@code null} when its codes already
+     * match its strings. A row without strings was written by this release and is left alone.
+     */
+    private Object[] encode(ResultSet rs) throws SQLException {
+        Object[] update = new Object[ENCODED_COLUMNS.length + 2];
+        boolean changed = false;
+        for (int i = 0; i < LEGACY_COLUMNS.length; i++) {
+            Integer code = rs.getObject(ENCODED_COLUMNS[i], Integer.class);
+            String legacy = rs.getString(LEGACY_COLUMNS[i]);
+            Integer encoded = legacy != null ? dictionary.encode(legacy) : code;
+            changed |= !Objects.equals(code, encoded);
+            update[i] = encoded;
+        }
+        update[ENCODED_COLUMNS.length] = rs.getLong("id");
+        update[ENCODED_COLUMNS.length + 1] = rs.getTimestamp("updated_at");
+        return changed ? update : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
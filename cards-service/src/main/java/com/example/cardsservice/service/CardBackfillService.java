@@ -0,0 +1,548 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.BackfillJobDto;
+import com.example.cardsservice.dto.CardEventDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CardLifecycleTransition;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Bulk loader for CMS card snapshots (NDJSON or CSV with a header row).
+ * <p>
+ * The file is read in memory-mapped chunks cut on line boundaries, each chunk is
+ * parsed in parallel, and the resulting cards are upserted with JDBC batches in one
+ * transaction per chunk. After every committed chunk the byte offset is written to
+ * {@code <file>.checkpoint}, so an interrupted load can be resumed; the checkpoint is
+ * deleted once the whole file is loaded. Only files under {@code cards.backfill.base-dir}
+ * are accepted. CSV records are parsed with quoting rules, but one record must fit on
+ * one line: a quoted line break makes both halves invalid records. Cards are written
+ * with {@code syncPending = true}; C360 sync is left to the pending-sync reconciler.
+ * The customer views of written cards are deleted in the same transaction; run a view
+ * rebuild after a large load to serve those customers from the view again. Status
+ * changes are added to the lifecycle history in the same transaction.
+ */
+@Service
+@Slf4j
+public class CardBackfillService {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT id, token_ref, event_timestamp, customer_mobile_key, lifecycle_status_id, raw_status_id, "
+            + "lifecycle_status, raw_status FROM cards WHERE token_ref IN (:tokenRefs)";
+
+    // Written cards bypass the customer view, so the rows of their customers are dropped and read from cards
+    private static final String DELETE_VIEWS_SQL = "DELETE FROM customer_cards WHERE mobile_key IN (:mobileKeys)";
+
+    // Dictionary-encoded attributes are written as their card_attribute_values codes, and as the legacy
+    // strings as long as Card maps them
+    private static final String LEGACY_COLUMNS = "program_code, program_category, network, lifecycle_status, "
+            + "raw_status, issued_by_system, issuance_channel";
+
+    private static final String INSERT_SQL = "INSERT INTO cards (token_ref, masked_card_number, last4, program_code_id, "
+            + "program_category_id, network_id, bin, lifecycle_status_id, raw_status_id, customer_mobile_number, "
+            + "customer_mobile_key, cust_id, account_no, issued_by_system_id, issuance_channel_id, event_timestamp, "
+            + "created_at, updated_at, sync_requested_at, sync_pending, sync_retry_count, " + LEGACY_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, 0, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE cards SET masked_card_number = ?, last4 = ?, program_code_id = ?, "
+            + "program_category_id = ?, network_id = ?, bin = ?, lifecycle_status_id = ?, raw_status_id = ?, "
+            + "customer_mobile_number = ?, customer_mobile_key = ?, cust_id = ?, account_no = ?, issued_by_system_id = ?, "
+            + "issuance_channel_id = ?, "
+            + "event_timestamp = ?, updated_at = ?, sync_requested_at = ?, sync_pending = TRUE, "
+            + String.join(" = ?, ", LEGACY_COLUMNS.split(", ")) + " = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardAttributeDictionary dictionary;
+    private final CardLifecycleHistoryService lifecycleHistory;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader eventReader;
+    // Without a schema each CSV record is read as an array of its fields
+    private final ObjectReader csvReader = new CsvMapper().readerFor(String[].class);
+    private final Map<String, BackfillJobDto> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "card-backfill"));
+
+    private final Counter insertedCounter;
+    private final Counter updatedCounter;
+    private final Counter staleCounter;
+    private final Counter invalidCounter;
+
+    @Value("${cards.backfill.chunk-size-bytes:8388608}")
+    private int chunkSizeBytes;
+
+    @Value("${cards.backfill.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${cards.backfill.parallelism:0}")
+    private int parallelism;
+
+    @Value("${cards.backfill.base-dir:/var/lib/cards-service/backfill}")
+    private Path baseDir = Path.of("/var/lib/cards-service/backfill");
+
+    @Value("${cards.backfill.job-retention-ms:86400000}")
+    private long jobRetentionMs = 86_400_000;
+
+    public CardBackfillService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            CardAttributeDictionary dictionary,
+            CardLifecycleHistoryService lifecycleHistory,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.dictionary = dictionary;
+        this.lifecycleHistory = lifecycleHistory;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.eventReader = objectMapper.readerFor(CardEventDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        this.insertedCounter = recordCounter(meterRegistry, "inserted");
+        this.updatedCounter = recordCounter(meterRegistry, "updated");
+        this.staleCounter = recordCounter(meterRegistry, "stale");
+        this.invalidCounter = recordCounter(meterRegistry, "invalid");
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.backfill.records")
+                .description("Number of snapshot records processed by the bulk backfill")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a backfill job for {@code file}, a path relative to the base directory. When
+     * {@code resume} is set and a checkpoint exists, loading continues from the last
+     * committed chunk.
+     *
+     * @throws IllegalArgumentException when the file is outside the base directory or missing
+     */
+    public BackfillJobDto submit(String fileName, BackfillJobDto.Format format, boolean resume) {
+        Path file = resolve(fileName);
+
+        BackfillJobDto job = new BackfillJobDto();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setFile(file.toString());
+        job.setFormat(format);
+        jobs.put(job.getJobId(), job);
+
+        jobExecutor.submit(() -> run(job, file, resume));
+        return job;
+    }
+
+    /**
+     * Resolves {@code fileName} against the base directory, following symbolic links, so
+     * the loader never reads, or writes checkpoints next to, files outside it.
+     */
+    Path resolve(String fileName) {
+        try {
+            Path base = baseDir.toRealPath();
+            Path file = base.resolve(fileName).toRealPath();
+            if (file.startsWith(base) && Files.isRegularFile(file)) {
+                return file;
+            }
+        } catch (IOException | InvalidPathException e) {
+            // Reported as not found below
+        }
+        throw new IllegalArgumentException("Backfill file not found under the base directory: " + fileName);
+    }
+
+    public Optional<BackfillJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Forgets jobs finished more than {@code job-retention-ms} ago; their status can no
+     * longer be looked up.
+     */
+    @Scheduled(fixedDelayString = "${cards.backfill.job-sweep-interval-ms:600000}")
+    void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionMs));
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Runs a job on the calling thread.
+     */
+    void run(BackfillJobDto job, Path file, boolean resume) {
+        job.setStatus(BackfillJobDto.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        log.info("Starting card backfill", kv("jobId", job.getJobId()), kv("file", file));
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool parsePool = new ForkJoinPool(threads);
+        Path checkpoint = checkpointPath(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            job.setTotalBytes(size);
+
+            long position = 0;
+            String[] csvHeader = null;
+            if (job.getFormat() == BackfillJobDto.Format.CSV) {
+                MappedByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        Math.min(chunkSizeBytes, size));
+                int headerEnd = indexOfNewline(headerBuffer);
+                if (headerEnd < 0) {
+                    throw new IllegalStateException("CSV header line not found in first chunk");
+                }
+                String header = decode(headerBuffer, 0, headerEnd);
+                csvHeader = csvReader.readValue(stripCarriageReturn(header, 0, header.length()));
+                position = headerEnd + 1;
+            }
+
+            if (resume && Files.exists(checkpoint)) {
+                position = Math.max(position, Long.parseLong(Files.readString(checkpoint).trim()));
+                job.setResumedFromOffset(position);
+                log.info("Resuming card backfill from checkpoint", kv("offset", position));
+            }
+            job.getProcessedBytes().set(position);
+
+            while (position < size) {
+                long length = Math.min(chunkSizeBytes, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int end = (int) length;
+                long next = position + length;
+                if (next < size) {
+                    end = lastIndexOfNewline(buffer, (int) length);
+                    if (end < 0) {
+                        throw new IllegalStateException(
+                                "Line at offset " + position + " exceeds chunk size " + chunkSizeBytes);
+                    }
+                    next = position + end + 1;
+                }
+
+                List<String> lines = splitLines(decode(buffer, 0, end));
+                String[] header = csvHeader;
+                List<CardEventDto> events = parsePool.submit(() -> lines.parallelStream()
+                        .map(line -> parseLine(line, header, job))
+                        .filter(Objects::nonNull)
+                        .toList()).get();
+
+                transactionTemplate.executeWithoutResult(status -> writeChunk(events, job));
+
+                position = next;
+                writeCheckpoint(checkpoint, position);
+                job.getProcessedBytes().set(position);
+            }
+
+            // A finished file is loaded again from the start if it is submitted again
+            Files.deleteIfExists(checkpoint);
+            job.setStatus(BackfillJobDto.Status.COMPLETED);
+            log.info("Card backfill completed",
+                    kv("jobId", job.getJobId()),
+                    kv("inserted", job.getRecordsInserted().get()),
+                    kv("updated", job.getRecordsUpdated().get()),
+                    kv("stale", job.getRecordsStale().get()),
+                    kv("invalid", job.getRecordsInvalid().get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            fail(job, e);
+        } finally {
+            parsePool.shutdown();
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    private void fail(BackfillJobDto job, Exception e) {
+        job.setStatus(BackfillJobDto.Status.FAILED);
+        job.setError(e.getMessage());
+        log.error("Card backfill failed. Resume from the last checkpoint once the cause is fixed.",
+                kv("jobId", job.getJobId()),
+                kv("errorType", e.getClass().getSimpleName()),
+                kv("errorMessage", e.getMessage()));
+    }
+
+    private CardEventDto parseLine(String line, String[] csvHeader, BackfillJobDto job) {
+        if (line.isBlank()) {
+            return null;
+        }
+        job.getRecordsRead().incrementAndGet();
+        try {
+            CardEventDto event = csvHeader == null
+                    ? eventReader.readValue(line)
+                    : eventReader.readValue((JsonNode) objectMapper.valueToTree(parseCsvRecord(line, csvHeader)));
+
+            if (event.getTokenRef() == null || event.getMaskedCardNumber() == null
+                    || event.getLast4() == null || event.getLifecycleStatus() == null) {
+                markInvalid(job);
+                return null;
+            }
+            // Validate the timestamp up front so one bad record cannot fail the whole chunk
+            CardMapper.parseEventTimestamp(event.getEventTimestamp());
+            return event;
+        } catch (Exception e) {
+            markInvalid(job);
+            return null;
+        }
+    }
+
+    private void markInvalid(BackfillJobDto job) {
+        job.getRecordsInvalid().incrementAndGet();
+        invalidCounter.increment();
+    }
+
+    private Map<String, String> parseCsvRecord(String line, String[] header) throws IOException {
+        String[] values = csvReader.readValue(line);
+        Map<String, String> record = new HashMap<>(header.length * 2);
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String value = values[i].trim();
+            record.put(header[i].trim(), value.isEmpty() ? null : value);
+        }
+        return record;
+    }
+
+    private void writeChunk(List<CardEventDto> events, BackfillJobDto job) {
+        // Collapse duplicates inside the chunk so only the newest snapshot per card is written
+        Map<String, CardEventDto> latest = new LinkedHashMap<>();
+        for (CardEventDto event : events) {
+            latest.merge(event.getTokenRef(), event, (current, candidate) ->
+                    CardMapper.isStale(CardMapper.parseEventTimestamp(current.getEventTimestamp()),
+                            CardMapper.parseEventTimestamp(candidate.getEventTimestamp())) ? current : candidate);
+        }
+        long duplicates = events.size() - latest.size();
+        job.getRecordsStale().addAndGet(duplicates);
+        staleCounter.increment(duplicates);
+
+        List<CardEventDto> batch = new ArrayList<>(batchSize);
+        for (CardEventDto event : latest.values()) {
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                writeBatch(batch, job);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, job);
+        }
+    }
+
+    private void writeBatch(List<CardEventDto> batch, BackfillJobDto job) {
+        Map<String, ExistingCard> existing = new HashMap<>(batch.size() * 2);
+        namedJdbcTemplate.query(SELECT_EXISTING_SQL,
+                new MapSqlParameterSource("tokenRefs", batch.stream().map(CardEventDto::getTokenRef).toList()),
+                rs -> {
+                    Timestamp eventTimestamp = rs.getTimestamp("event_timestamp");
+                    existing.put(rs.getString("token_ref"), new ExistingCard(rs.getLong("id"),
+                            eventTimestamp == null ? null : eventTimestamp.toLocalDateTime(),
+                            rs.getObject("customer_mobile_key", Long.class),
+                            attribute(rs, "lifecycle_status", "lifecycle_status_id"),
+                            attribute(rs, "raw_status", "raw_status_id")));
+                });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<CardLifecycleTransition> transitions = new ArrayList<>();
+        Set<Long> mobileKeys = new HashSet<>();
+        long stale = 0;
+
+        for (CardEventDto event : batch) {
+            Card card = new Card();
+            CardMapper.applyEvent(event, card, CardMapper.parseEventTimestamp(event.getEventTimestamp()));
+            Timestamp eventTimestamp = card.getEventTimestamp() == null ? null : Timestamp.valueOf(card.getEventTimestamp());
+
+            ExistingCard current = existing.get(card.getTokenRef());
+            if (current == null) {
+                inserts.add(new Object[] { card.getTokenRef(), card.getMaskedCardNumber(), card.getLast4(),
+                        dictionary.encode(card.getProgramCode()), dictionary.encode(card.getProgramCategory()),
+                        dictionary.encode(card.getNetwork()), card.getBin(),
+                        dictionary.encode(card.getLifecycleStatus()), dictionary.encode(card.getRawStatus()),
+                        card.getCustomerMobileNumber(), card.getCustomerMobileKey(), card.getCustId(),
+                        card.getAccountNo(), dictionary.encode(card.getIssuedBySystem()),
+                        dictionary.encode(card.getIssuanceChannel()), eventTimestamp, now, now, now,
+                        card.getProgramCode(), card.getProgramCategory(), card.getNetwork(), card.getLifecycleStatus(),
+                        card.getRawStatus(), card.getIssuedBySystem(), card.getIssuanceChannel() });
+                addMobileKey(mobileKeys, card.getCustomerMobileKey());
+                addTransition(transitions, card, null, null);
+            } else if (CardMapper.isStale(current.eventTimestamp, card.getEventTimestamp())) {
+                stale++;
+            } else {
+                updates.add(new Object[] { card.getMaskedCardNumber(), card.getLast4(),
+                        dictionary.encode(card.getProgramCode()), dictionary.encode(card.getProgramCategory()),
+                        dictionary.encode(card.getNetwork()), card.getBin(),
+                        dictionary.encode(card.getLifecycleStatus()), dictionary.encode(card.getRawStatus()),
+                        card.getCustomerMobileNumber(), card.getCustomerMobileKey(), card.getCustId(),
+                        card.getAccountNo(), dictionary.encode(card.getIssuedBySystem()),
+                        dictionary.encode(card.getIssuanceChannel()), eventTimestamp, now, now,
+                        card.getProgramCode(), card.getProgramCategory(), card.getNetwork(), card.getLifecycleStatus(),
+                        card.getRawStatus(), card.getIssuedBySystem(), card.getIssuanceChannel(), current.id });
+                addMobileKey(mobileKeys, card.getCustomerMobileKey());
+                addMobileKey(mobileKeys, current.customerMobileKey);
+                addTransition(transitions, card, current.lifecycleStatus, current.rawStatus);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!mobileKeys.isEmpty()) {
+            namedJdbcTemplate.update(DELETE_VIEWS_SQL, new MapSqlParameterSource("mobileKeys", mobileKeys));
+            eventPublisher.publishEvent(new CustomerCardsChangedEvent(mobileKeys));
+        }
+        lifecycleHistory.write(transitions);
+
+        job.getRecordsInserted().addAndGet(inserts.size());
+        job.getRecordsUpdated().addAndGet(updates.size());
+        job.getRecordsStale().addAndGet(stale);
+        insertedCounter.increment(inserts.size());
+        updatedCounter.increment(updates.size());
+        staleCounter.increment(stale);
+    }
+
+    private static void addTransition(List<CardLifecycleTransition> transitions, Card card,
+            String previousStatus, String previousRawStatus) {
+        CardLifecycleTransition transition = CardLifecycleHistoryService.transition(card, previousStatus, previousRawStatus);
+        if (transition != null) {
+            transitions.add(transition);
+        }
+    }
+
+    // Legacy string first, as Card reads it
+    private String attribute(ResultSet rs, String legacyColumn, String codeColumn) throws SQLException {
+        String legacy = rs.getString(legacyColumn);
+        return legacy != null ? legacy : dictionary.decode(rs.getObject(codeColumn, Integer.class));
+    }
+
+    private static void addMobileKey(Set<Long> mobileKeys, Long mobileKey) {
+        if (mobileKey != null) {
+            mobileKeys.add(mobileKey);
+        }
+    }
+
+    static Path checkpointPath(Path file) {
+        return file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long position) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(tmp, Long.toString(position));
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int indexOfNewline(MappedByteBuffer buffer) {
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOfNewline(MappedByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to) {
+        CharBuffer chars = StandardCharsets.UTF_8.decode(buffer.slice(from, to - from));
+        return chars.toString();
+    }
+
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(stripCarriageReturn(text, start, i));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(stripCarriageReturn(text, start, text.length()));
+        }
+        return lines;
+    }
+
+    private static String stripCarriageReturn(String text, int start, int end) {
+        return end > start && text.charAt(end - 1) == '\r' ? text.substring(start, end - 1) : text.substring(start, end);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private static final class ExistingCard {
+        private final long id;
+        private final LocalDateTime eventTimestamp;
+        private final Long customerMobileKey;
+        private final String lifecycleStatus;
+        private final String rawStatus;
+
+        private ExistingCard(long id, LocalDateTime eventTimestamp, Long customerMobileKey,
+                String lifecycleStatus, String rawStatus) {
+            this.id = id;
+            this.eventTimestamp = eventTimestamp;
+            this.customerMobileKey = customerMobileKey;
+            this.lifecycleStatus = lifecycleStatus;
+            this.rawStatus = rawStatus;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardEventAuditRecordDto;
+import com.example.cardsservice.executor.BatchingWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Append-only store of the raw CMS events received by the Kafka consumer, kept for
+ * investigations outside the {@code cards} table.
+ * <p>
+ * The consumer only offers each event to a bounded queue; when the queue is full the
+ * event is dropped from the audit and counted, never waited for. A single writer drains
+ * the queue and commits whatever accumulated within {@code linger-ms} (up to
+ * {@code batch-size} events) in one transaction, as one gzip-compressed NDJSON blob per
+ * day plus one index row per distinct tokenRef. Each day has its own pair of tables
+ * ({@code card_event_audit_yyyyMMdd} and {@code card_event_audit_refs_yyyyMMdd}), so
+ * retention drops whole tables instead of deleting rows.
+ */
+@Service
+@Slf4j
+public class CardEventAuditService {
+
+    private static final String TABLE_PREFIX = "card_event_audit_";
+    private static final String REFS_TABLE_PREFIX = "card_event_audit_refs_";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern DAY_TABLE = Pattern.compile("card_event_audit_(\\d{8})", Pattern.CASE_INSENSITIVE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter recordWriter;
+    private final ObjectReader recordReader;
+    private final BatchingWriter<CardEventAuditRecordDto> writer;
+    private final Set<LocalDate> createdDays = ConcurrentHashMap.newKeySet();
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    @Value("${cards.audit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cards.audit.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${cards.audit.linger-ms:200}")
+    private long lingerMs = 200;
+
+    @Value("${cards.audit.retention-days:90}")
+    private int retentionDays = 90;
+
+    @Value("${cards.audit.max-query-days:31}")
+    private int maxQueryDays = 31;
+
+    public CardEventAuditService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cards.audit.queue-capacity:20000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.recordWriter = objectMapper.writerFor(CardEventAuditRecordDto.class);
+        this.recordReader = objectMapper.readerFor(CardEventAuditRecordDto.class);
+        this.writer = new BatchingWriter<>("card-event-audit-writer", queueCapacity, this::write);
+
+        this.writtenCounter = recordCounter(meterRegistry, "written");
+        this.droppedCounter = recordCounter(meterRegistry, "dropped");
+        this.failedCounter = recordCounter(meterRegistry, "failed");
+        Gauge.builder("cards.audit.queue.size", writer, BatchingWriter::size)
+                .description("Audit records waiting for the batch writer")
+                .register(meterRegistry);
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.audit.records")
+                .description("Raw events handed to the audit store, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            writer.start(batchSize, lingerMs);
+        }
+    }
+
+    /**
+     * Queues a received event for the audit store. Never blocks.
+     */
+    public void append(String tokenRef, int partition, long offset, String outcome, String payload) {
+        if (!enabled) {
+            return;
+        }
+        CardEventAuditRecordDto record = new CardEventAuditRecordDto();
+        record.setTokenRef(tokenRef);
+        record.setPartition(partition);
+        record.setOffset(offset);
+        record.setReceivedAt(LocalDateTime.now());
+        record.setOutcome(outcome);
+        record.setPayload(payload);
+        if (!writer.offer(record)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes everything queued on the calling thread.
+     */
+    void flush() {
+        writer.flush();
+    }
+
+    private void write(List<CardEventAuditRecordDto> records) {
+        try {
+            Map<LocalDate, List<CardEventAuditRecordDto>> byDay = new TreeMap<>();
+            for (CardEventAuditRecordDto record : records) {
+                byDay.computeIfAbsent(record.getReceivedAt().toLocalDate(), day -> new ArrayList<>()).add(record);
+            }
+            // DDL commits implicitly on MySQL, so day tables are created outside the batch transaction
+            byDay.keySet().forEach(this::createTables);
+            transactionTemplate.executeWithoutResult(status -> byDay.forEach(this::writeBatch));
+            writtenCounter.increment(records.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(records.size());
+            log.error("Failed to write audit batch; its records are lost",
+                    kv("records", records.size()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+    }
+
+    private void createTables(LocalDate day) {
+        if (createdDays.contains(day)) {
+            return;
+        }
+        String suffix = day.format(DAY_FORMAT);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE_PREFIX + suffix + " ("
+                + "batch_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "first_received_at TIMESTAMP NOT NULL, "
+                + "record_count INT NOT NULL, "
+                + "payload LONGBLOB NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + REFS_TABLE_PREFIX + suffix + " ("
+                + "token_ref VARCHAR(255) NOT NULL, "
+                + "batch_id BIGINT NOT NULL, "
+                + "PRIMARY KEY (token_ref, batch_id))");
+        createdDays.add(day);
+    }
+
+    private void writeBatch(LocalDate day, List<CardEventAuditRecordDto> records) {
+        String suffix = day.format(DAY_FORMAT);
+        byte[] payload = compress(records);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE_PREFIX + suffix
+                    + " (first_received_at, record_count, payload) VALUES (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setTimestamp(1, Timestamp.valueOf(records.get(0).getReceivedAt()));
+            statement.setInt(2, records.size());
+            statement.setBytes(3, payload);
+            return statement;
+        }, keyHolder);
+        long batchId = keyHolder.getKey().longValue();
+
+        Set<String> tokenRefs = new LinkedHashSet<>();
+        records.forEach(record -> tokenRefs.add(record.getTokenRef()));
+        List<Object[]> refs = new ArrayList<>(tokenRefs.size());
+        tokenRefs.forEach(tokenRef -> refs.add(new Object[] { tokenRef, batchId }));
+        jdbcTemplate.batchUpdate("INSERT INTO " + REFS_TABLE_PREFIX + suffix + " (token_ref, batch_id) VALUES (?, ?)", refs);
+    }
+
+    /**
+     * Returns the audited events of {@code tokenRef} received between {@code from} and
+     * {@code to} (inclusive days), oldest first.
+     */
+    public List<CardEventAuditRecordDto> find(String tokenRef, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusDays(maxQueryDays).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("At most " + maxQueryDays + " days can be searched at once");
+        }
+
+        List<CardEventAuditRecordDto> found = new ArrayList<>();
+        for (LocalDate day : existingDays()) {
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            String suffix = day.format(DAY_FORMAT);
+            List<byte[]> batches = jdbcTemplate.queryForList("SELECT a.payload FROM " + TABLE_PREFIX + suffix + " a "
+                    + "JOIN " + REFS_TABLE_PREFIX + suffix + " r ON r.batch_id = a.batch_id "
+                    + "WHERE r.token_ref = ? ORDER BY a.batch_id", byte[].class, tokenRef);
+            for (byte[] batch : batches) {
+                for (CardEventAuditRecordDto record : decompress(batch)) {
+                    if (tokenRef.equals(record.getTokenRef())) {
+                        found.add(record);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drops the day tables older than the retention period.
+     */
+    @Scheduled(cron = "${cards.audit.retention-cron:0 15 0 * * *}")
+    public void dropExpired() {
+        LocalDate oldestKept = LocalDate.now().minusDays(retentionDays);
+        for (LocalDate day : existingDays()) {
+            if (day.isBefore(oldestKept)) {
+                String suffix = day.format(DAY_FORMAT);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + REFS_TABLE_PREFIX + suffix);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE_PREFIX + suffix);
+                createdDays.remove(day);
+                log.info("Dropped expired audit day", kv("day", day));
+            }
+        }
+    }
+
+    private Set<LocalDate> existingDays() {
+        return jdbcTemplate.execute((ConnectionCallback<Set<LocalDate>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String pattern = metaData.storesUpperCaseIdentifiers() ? TABLE_PREFIX.toUpperCase() + "%" : TABLE_PREFIX + "%";
+            Set<LocalDate> days = new TreeSet<>();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, pattern, new String[] { "TABLE" })) {
+                while (tables.next()) {
+                    Matcher matcher = DAY_TABLE.matcher(tables.getString("TABLE_NAME"));
+                    if (matcher.matches()) {
+                        days.add(LocalDate.parse(matcher.group(1), DAY_FORMAT));
+                    }
+                }
+            }
+            return days;
+        });
+    }
+
+    private byte[] compress(List<CardEventAuditRecordDto> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            for (CardEventAuditRecordDto record : records) {
+                out.write(recordWriter.writeValueAsBytes(record));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<CardEventAuditRecordDto> decompress(byte[] batch) {
+        List<CardEventAuditRecordDto> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(batch)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                records.add(recordReader.readValue(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Records still queued are written before the data source goes away
+        writer.shutdown();
+    }
+}
@@ -1,35 +1,342 @@
 package com.example.cardsservice.service;
 
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.dto.NonCacheable;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CustomerCardView;
+import com.example.cardsservice.jfr.CardLookupEvent;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.mapper.CardPayloads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Card reads for {@code GET /cards} and the eligibility check.
+ * <p>
+ * Card lists are cached per customer and served stale-while-revalidate: a list younger
+ * than {@code fresh-ms} is served as is, one younger than {@code stale-ms} is served
+ * immediately while a background refresh reloads it, and anything older is read through.
+ * Database reads go through the {@code cardsDb} circuit breaker; while it is open, or when
+ * a read fails, the last known list (up to {@code retain-ms} old) is served without its
+ * {@link NonCacheable} fields instead of failing, so read latency does not follow the
+ * database during an incident. Only a customer with nothing cached gets the error.
+ * <p>
+ * When this instance commits a change to a customer's cards, the cached list is
+ * invalidated: it is read through again, and only kept to be served degraded. Changes
+ * committed by other instances are picked up by the stale-while-revalidate refresh.
+ * <p>
+ * The cache holds at most {@code max-entries} customers; beyond that the least recently
+ * read one is evicted, so customers new to the cache are always admitted.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CardIntegrationService {
 
+    private static final List<String> NON_CACHEABLE_FIELDS = nonCacheableFields();
+
     private final RestTemplate restTemplate;
 
-    private final com.example.cardsservice.repository.CardRepository cardRepository;
+    private final CustomerCardViewService customerCardViews;
+
+    private final ObjectMapper objectMapper;
+
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker dbCircuitBreaker;
+    private final Map<Long, CachedCards> cache = Collections.synchronizedMap(
+            new LinkedHashMap<Long, CachedCards>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedCards> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final Counter freshCounter;
+    private final Counter staleCounter;
+    private final Counter degradedCounter;
+    private final Counter missCounter;
+    private final Counter refreshFailedCounter;
+
+    @Value("${cards.read-cache.fresh-ms:1000}")
+    private long freshMs = 1000;
+
+    @Value("${cards.read-cache.stale-ms:30000}")
+    private long staleMs = 30_000;
+
+    @Value("${cards.read-cache.retain-ms:600000}")
+    private long retainMs = 600_000;
+
+    @Value("${cards.read-cache.max-entries:50000}")
+    private int maxEntries = 50_000;
+
+    public CardIntegrationService(RestTemplate restTemplate,
+            CustomerCardViewService customerCardViews,
+            ObjectMapper objectMapper,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${cards.read-cache.refresh-threads:2}") int refreshThreads) {
+        this.restTemplate = restTemplate;
+        this.customerCardViews = customerCardViews;
+        this.objectMapper = objectMapper;
+        this.dbCircuitBreaker = circuitBreakerRegistry.circuitBreaker("cardsDb");
+        // Refreshes beyond the queue are dropped; the next stale read asks again
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1_000), r -> {
+                    Thread thread = new Thread(r, "cards-read-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.freshCounter = readCounter(meterRegistry, "fresh");
+        this.staleCounter = readCounter(meterRegistry, "stale");
+        this.degradedCounter = readCounter(meterRegistry, "degraded");
+        this.missCounter = readCounter(meterRegistry, "miss");
+        this.refreshFailedCounter = Counter.builder("cards.read_cache.refresh_failures")
+                .description("Background card list refreshes that failed or were not permitted by the breaker")
+                .register(meterRegistry);
+        Gauge.builder("cards.read_cache.size", cache, Map::size)
+                .description("Customers with a cached card list")
+                .register(meterRegistry);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.read_cache.reads")
+                .description("GET /cards reads by how they were answered: fresh or stale from the cache, "
+                        + "degraded while the database was unavailable, or a miss read through")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static List<String> nonCacheableFields() {
+        List<String> fields = new ArrayList<>();
+        for (Field field : CardResponseDto.class.getDeclaredFields()) {
+            if (field.isAnnotationPresent(NonCacheable.class)) {
+                fields.add(field.getName());
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    /**
+     * Returns the cards of the customer with the given canonical mobile number as the
+     * JSON body of {@code GET /cards}: the stored customer view when built and in use,
+     * otherwise mapped from {@code cards}; possibly from the read cache, see the class comment.
+     */
+    public CardListResult getCards(long mobileKey) {
+        CachedCards cached = cache.get(mobileKey);
+        long ageMs = cached == null ? Long.MAX_VALUE : cached.ageMs();
+        boolean servable = cached != null && !cached.invalidated;
+        if (servable && ageMs < freshMs) {
+            freshCounter.increment();
+            return CardListResult.current(cached.body, cached::cborBody);
+        }
+        if (servable && ageMs < staleMs && !isBreakerOpen()) {
+            staleCounter.increment();
+            refreshAsync(mobileKey);
+            return CardListResult.stale(cached.body, cached::cborBody, TimeUnit.MILLISECONDS.toSeconds(ageMs));
+        }
+
+        try {
+            CachedCards loaded = loadThroughBreaker(mobileKey);
+            missCounter.increment();
+            return CardListResult.current(loaded.body, loaded::cborBody);
+        } catch (RuntimeException e) {
+            if (cached == null || ageMs >= retainMs) {
+                throw e;
+            }
+            degradedCounter.increment();
+            log.warn("Serving last known card list while the card database is unavailable",
+                    kv("ageMs", ageMs),
+                    kv("breakerState", dbCircuitBreaker.getState()),
+                    kv("errorType", e.getClass().getSimpleName()));
+            return CardListResult.degraded(cached.degradedBody(), cached::degradedCborBody,
+                    TimeUnit.MILLISECONDS.toSeconds(ageMs), NON_CACHEABLE_FIELDS);
+        }
+    }
+
+    private boolean isBreakerOpen() {
+        io.github.resilience4j.circuitbreaker.CircuitBreaker.State state = dbCircuitBreaker.getState();
+        return state == io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN
+                || state == io.github.resilience4j.circuitbreaker.CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private void refreshAsync(long mobileKey) {
+        if (!refreshing.add(mobileKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadThroughBreaker(mobileKey);
+                } catch (RuntimeException e) {
+                    refreshFailedCounter.increment();
+                } finally {
+                    refreshing.remove(mobileKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(mobileKey);
+            refreshFailedCounter.increment();
+        }
+    }
+
+    private CachedCards loadThroughBreaker(long mobileKey) {
+        long startedAtNanos = System.nanoTime();
+        CachedCards loaded = new CachedCards(dbCircuitBreaker.executeSupplier(() -> load(mobileKey)), startedAtNanos);
+        cache.compute(mobileKey, (key, current) -> {
+            // A read that started before the last invalidation may predate the change
+            return current != null && current.invalidatedSince(startedAtNanos) ? current : loaded;
+        });
+        return loaded;
+    }
 
-    public List<com.example.cardsservice.dto.CardResponseDto> getCards(String mobileNumber) {
-        return cardRepository.findByCustomerMobileNumber(mobileNumber).stream()
-                .map(this::mapToDto)
-                .collect(java.util.stream.Collectors.toList());
+    /**
+     * Invalidates the cached lists of customers whose cards this instance changed, once
+     * the change is committed.
+     */
+    @TransactionalEventListener
+    void onCustomerCardsChanged(CustomerCardsChangedEvent event) {
+        for (Long mobileKey : event.getMobileKeys()) {
+            cache.computeIfPresent(mobileKey, (key, cached) -> {
+                cached.invalidate();
+                return cached;
+            });
+        }
     }
 
-    private com.example.cardsservice.dto.CardResponseDto mapToDto(com.example.cardsservice.entity.Card card) {
-        com.example.cardsservice.dto.CardResponseDto dto = new com.example.cardsservice.dto.CardResponseDto();
-        dto.setTokenRef(card.getTokenRef());
-        dto.setMaskedCardNumber(card.getMaskedCardNumber());
-        dto.setLast4(card.getLast4());
-        dto.setProgramCode(card.getProgramCode());
-        dto.setLifecycleStatus(card.getLifecycleStatus());
-        dto.setEventTimestamp(card.getEventTimestamp());
-        return dto;
+    private byte[] load(long mobileKey) {
+        CardLookupEvent jfrEvent = new CardLookupEvent();
+        jfrEvent.begin();
+        Optional<CustomerCardView> view = customerCardViews.isKeyed() ? customerCardViews.find(mobileKey)
+                : Optional.empty();
+
+        byte[] body;
+        int resultCount;
+        if (view.isPresent()) {
+            body = view.get().getCards();
+            resultCount = view.get().getCardCount();
+        } else {
+            List<Card> cards = customerCardViews.findCards(mobileKey);
+            try {
+                body = objectMapper.writeValueAsBytes(cards.stream().map(CardMapper::toResponseDto).toList());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            resultCount = cards.size();
+        }
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.source = view.isPresent() ? "view" : "database";
+            jfrEvent.hit = resultCount > 0;
+            jfrEvent.resultCount = resultCount;
+            jfrEvent.commit();
+        }
+        return body;
+    }
+
+    /**
+     * Drops cached lists too old to be served even while the database is unavailable.
+     */
+    @Scheduled(fixedDelayString = "${cards.read-cache.sweep-interval-ms:60000}")
+    void evictExpired() {
+        cache.values().removeIf(cached -> cached.ageMs() >= retainMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private final class CachedCards {
+
+        private final byte[] body;
+        private final long loadedAtNanos;
+        // Encoded on the first request for CBOR, so JSON-only callers never pay for it
+        private volatile byte[] cborBody;
+        // Built on the first degraded serve only, which happens during incidents
+        private volatile byte[] degradedBody;
+        private volatile byte[] degradedCborBody;
+        private volatile boolean invalidated;
+        private volatile long invalidatedAtNanos;
+
+        private CachedCards(byte[] body, long loadedAtNanos) {
+            this.body = body;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        void invalidate() {
+            invalidatedAtNanos = System.nanoTime();
+            invalidated = true;
+        }
+
+        boolean invalidatedSince(long nanos) {
+            return invalidated && invalidatedAtNanos - nanos >= 0;
+        }
+
+        long ageMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadedAtNanos);
+        }
+
+        byte[] degradedBody() {
+            if (degradedBody == null) {
+                try {
+                    JsonNode cards = objectMapper.readTree(body);
+                    for (JsonNode card : cards) {
+                        ((ObjectNode) card).remove(NON_CACHEABLE_FIELDS);
+                    }
+                    degradedBody = objectMapper.writeValueAsBytes(cards);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return degradedBody;
+        }
+
+        byte[] cborBody() {
+            if (cborBody == null) {
+                cborBody = CardPayloads.jsonToCbor(body);
+            }
+            return cborBody;
+        }
+
+        byte[] degradedCborBody() {
+            if (degradedCborBody == null) {
+                degradedCborBody = CardPayloads.jsonToCbor(degradedBody());
+            }
+            return degradedCborBody;
+        }
     }
 
     @org.springframework.beans.factory.annotation.Value("${eligibility.url}")
@@ -0,0 +1,227 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardLifecycleTransitionDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CardLifecycleTransition;
+import com.example.cardsservice.executor.BatchingWriter;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Append-only history of card lifecycle and raw status changes
+ * ({@code card_lifecycle_history}), indexed by card and by customer on event time.
+ * <p>
+ * Ingestion only records an event whose status differs from the stored one, and only
+ * by queueing it: a single writer inserts queued transitions with JDBC batches, one
+ * transaction per linger window. A full queue drops the transition and counts it, so
+ * the history is best-effort by design; it never holds up a card write. The bulk
+ * backfill writes its transitions synchronously in its own chunk transaction.
+ */
+@Service
+@Slf4j
+public class CardLifecycleHistoryService {
+
+    private static final String INSERT_SQL = "INSERT INTO card_lifecycle_history (token_ref, customer_mobile_key, "
+            + "previous_status_id, lifecycle_status_id, previous_raw_status_id, raw_status_id, event_timestamp, "
+            + "recorded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT token_ref, previous_status_id, lifecycle_status_id, "
+            + "previous_raw_status_id, raw_status_id, event_timestamp, recorded_at FROM card_lifecycle_history ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardAttributeDictionary dictionary;
+    private final BatchingWriter<CardLifecycleTransition> writer;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    @Value("${cards.lifecycle-history.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${cards.lifecycle-history.linger-ms:200}")
+    private long lingerMs = 200;
+
+    public CardLifecycleHistoryService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            CardAttributeDictionary dictionary,
+            MeterRegistry meterRegistry,
+            @Value("${cards.lifecycle-history.queue-capacity:20000}") int queueCapacity,
+            @Value("${cards.lifecycle-history.max-rows:10000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dictionary = dictionary;
+        this.writer = new BatchingWriter<>("card-lifecycle-history-writer", queueCapacity, this::writeQueued);
+
+        // Rows are written to the response as they are read; MySQL honours the fetch size with useCursorFetch=true
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingJdbcTemplate.setFetchSize(500);
+        streamingJdbcTemplate.setMaxRows(maxRows);
+
+        this.writtenCounter = transitionCounter(meterRegistry, "written");
+        this.droppedCounter = transitionCounter(meterRegistry, "dropped");
+        this.failedCounter = transitionCounter(meterRegistry, "failed");
+        Gauge.builder("cards.lifecycle_history.queue.size", writer, BatchingWriter::size)
+                .description("Lifecycle transitions waiting for the batch writer")
+                .register(meterRegistry);
+    }
+
+    private static Counter transitionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.lifecycle_history.transitions")
+                .description("Lifecycle transitions handed to the history, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start(batchSize, lingerMs);
+    }
+
+    /**
+     * Returns the transition from the given previous statuses to the card's current ones,
+     * or {@code null} when neither status changed.
+     */
+    public static CardLifecycleTransition transition(Card card, String previousStatus, String previousRawStatus) {
+        if (Objects.equals(previousStatus, card.getLifecycleStatus())
+                && Objects.equals(previousRawStatus, card.getRawStatus())) {
+            return null;
+        }
+        CardLifecycleTransition transition = new CardLifecycleTransition();
+        transition.setTokenRef(card.getTokenRef());
+        transition.setCustomerMobileKey(card.getCustomerMobileKey());
+        transition.setPreviousStatus(previousStatus);
+        transition.setLifecycleStatus(card.getLifecycleStatus());
+        transition.setPreviousRawStatus(previousRawStatus);
+        transition.setRawStatus(card.getRawStatus());
+        transition.setEventTimestamp(card.getEventTimestamp());
+        transition.setRecordedAt(LocalDateTime.now());
+        return transition;
+    }
+
+    /**
+     * Queues the card's transition, if its status changed. Never blocks.
+     */
+    public void record(Card card, String previousStatus, String previousRawStatus) {
+        CardLifecycleTransition transition = transition(card, previousStatus, previousRawStatus);
+        if (transition != null && !writer.offer(transition)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes everything queued on the calling thread.
+     */
+    void flush() {
+        writer.flush();
+    }
+
+    private void writeQueued(List<CardLifecycleTransition> transitions) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(transitions));
+        } catch (RuntimeException e) {
+            failedCounter.increment(transitions.size());
+            log.error("Failed to write lifecycle history batch; its transitions are lost",
+                    kv("transitions", transitions.size()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+    }
+
+    /**
+     * Inserts the transitions in the caller's transaction.
+     */
+    public void write(List<CardLifecycleTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(transitions.size());
+        for (CardLifecycleTransition t : transitions) {
+            rows.add(new Object[] { t.getTokenRef(), t.getCustomerMobileKey(),
+                    dictionary.encode(t.getPreviousStatus()), dictionary.encode(t.getLifecycleStatus()),
+                    dictionary.encode(t.getPreviousRawStatus()), dictionary.encode(t.getRawStatus()),
+                    t.getEventTimestamp() == null ? null : Timestamp.valueOf(t.getEventTimestamp()),
+                    Timestamp.valueOf(t.getRecordedAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        writtenCounter.increment(transitions.size());
+    }
+
+    /**
+     * Streams a card's transitions in event-time order to {@code sink}; either bound may be null.
+     */
+    public void streamByCard(String tokenRef, LocalDateTime from, LocalDateTime to,
+            Consumer<CardLifecycleTransitionDto> sink) {
+        stream("token_ref = ?", tokenRef, from, to, sink);
+    }
+
+    /**
+     * Streams the transitions of every card a customer held at the time, in event-time order.
+     */
+    public void streamByCustomer(long mobileKey, LocalDateTime from, LocalDateTime to,
+            Consumer<CardLifecycleTransitionDto> sink) {
+        stream("customer_mobile_key = ?", mobileKey, from, to, sink);
+    }
+
+    private void stream(String keyCondition, Object key, LocalDateTime from, LocalDateTime to,
+            Consumer<CardLifecycleTransitionDto> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append("WHERE ").append(keyCondition);
+        List<Object> args = new ArrayList<>(3);
+        args.add(key);
+        if (from != null) {
+            sql.append(" AND event_timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND event_timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        // Served by the (key, event_timestamp) index in index order
+        sql.append(" ORDER BY event_timestamp, id");
+
+        streamingJdbcTemplate.query(sql.toString(), rs -> {
+            sink.accept(toDto(rs));
+        }, args.toArray());
+    }
+
+    private CardLifecycleTransitionDto toDto(ResultSet rs) throws SQLException {
+        CardLifecycleTransitionDto dto = new CardLifecycleTransitionDto();
+        dto.setTokenRef(rs.getString("token_ref"));
+        dto.setPreviousStatus(dictionary.decode(rs.getObject("previous_status_id", Integer.class)));
+        dto.setLifecycleStatus(dictionary.decode(rs.getObject("lifecycle_status_id", Integer.class)));
+        dto.setPreviousRawStatus(dictionary.decode(rs.getObject("previous_raw_status_id", Integer.class)));
+        dto.setRawStatus(dictionary.decode(rs.getObject("raw_status_id", Integer.class)));
+        Timestamp eventTimestamp = rs.getTimestamp("event_timestamp");
+        dto.setEventTimestamp(eventTimestamp == null ? null : eventTimestamp.toLocalDateTime());
+        dto.setRecordedAt(rs.getTimestamp("recorded_at").toLocalDateTime());
+        return dto;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Transitions still queued are written before the data source goes away
+        writer.shutdown();
+    }
+}
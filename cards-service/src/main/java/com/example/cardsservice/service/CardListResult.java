@@ -0,0 +1,75 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.mapper.CardPayloads;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@code GET /cards} body together with how old it is. A stale result comes from the
+ * read cache; a degraded one was served while the database was unavailable and lacks the
+ * fields in {@link #getOmittedFields()}. The body is JSON; {@link #getCborBody()} is the
+ * same document as CBOR, encoded once per cached list.
+ */
+public class CardListResult {
+
+    private final byte[] body;
+    private final Supplier<byte[]> cborBody;
+    private final boolean stale;
+    private final long ageSeconds;
+    private final List<String> omittedFields;
+
+    private CardListResult(byte[] body, Supplier<byte[]> cborBody, boolean stale, long ageSeconds,
+            List<String> omittedFields) {
+        this.body = body;
+        this.cborBody = cborBody;
+        this.stale = stale;
+        this.ageSeconds = ageSeconds;
+        this.omittedFields = omittedFields;
+    }
+
+    public static CardListResult current(byte[] body) {
+        return current(body, () -> CardPayloads.jsonToCbor(body));
+    }
+
+    static CardListResult current(byte[] body, Supplier<byte[]> cborBody) {
+        return new CardListResult(body, cborBody, false, 0, List.of());
+    }
+
+    public static CardListResult stale(byte[] body, long ageSeconds) {
+        return stale(body, () -> CardPayloads.jsonToCbor(body), ageSeconds);
+    }
+
+    static CardListResult stale(byte[] body, Supplier<byte[]> cborBody, long ageSeconds) {
+        return new CardListResult(body, cborBody, true, ageSeconds, List.of());
+    }
+
+    public static CardListResult degraded(byte[] body, long ageSeconds, List<String> omittedFields) {
+        return degraded(body, () -> CardPayloads.jsonToCbor(body), ageSeconds, omittedFields);
+    }
+
+    static CardListResult degraded(byte[] body, Supplier<byte[]> cborBody, long ageSeconds,
+            List<String> omittedFields) {
+        return new CardListResult(body, cborBody, true, ageSeconds, omittedFields);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getCborBody() {
+        return cborBody.get();
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+
+    public List<String> getOmittedFields() {
+        return omittedFields;
+    }
+}
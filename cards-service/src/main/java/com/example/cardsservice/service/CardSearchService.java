@@ -0,0 +1,127 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardSearchPageDto;
+import com.example.cardsservice.dto.CardSearchRequestDto;
+import com.example.cardsservice.dto.CardSearchResultDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Operational card search for support teams.
+ * <p>
+ * Each filter on its own, and program or issuer together with status, has an
+ * {@code idx_search_*} index on {@code cards} ending in {@code id}: the page of ids is
+ * then a keyset range read from the index alone ({@code id > afterId ORDER BY id}), and
+ * only the rows of that page are fetched by primary key. Other combinations range-read
+ * the index of one filter and check the remaining filters against each row, so they
+ * may scan past non-matching cards before a page fills. Page size is capped at
+ * {@code max-page-size} and each query at {@code query-timeout-seconds}, so a search
+ * never turns into a long scan next to ingestion. Runs in a read-only transaction,
+ * which a replication-aware data source routes to a replica.
+ */
+@Service
+public class CardSearchService {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CardRepository cardRepository;
+    private final CardAttributeDictionary dictionary;
+    private final Counter searchCounter;
+
+    @Value("${cards.search.max-page-size:200}")
+    private int maxPageSize = 200;
+
+    public CardSearchService(JdbcTemplate jdbcTemplate,
+            CardRepository cardRepository,
+            CardAttributeDictionary dictionary,
+            MeterRegistry meterRegistry,
+            @Value("${cards.search.query-timeout-seconds:2}") int queryTimeoutSeconds) {
+        JdbcTemplate searchJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        searchJdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(searchJdbcTemplate);
+        this.cardRepository = cardRepository;
+        this.dictionary = dictionary;
+
+        this.searchCounter = Counter.builder("cards.search.requests")
+                .description("Operational card searches")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public CardSearchPageDto search(CardSearchRequestDto request) {
+        if ((request.getLast4() == null) != (request.getMobileKey() == null)) {
+            throw new IllegalArgumentException("last4 and mobile number must be given together");
+        }
+        if (request.getLast4() == null && request.getBin() == null && request.getProgramCode() == null
+                && request.getLifecycleStatus() == null && request.getIssuedBySystem() == null) {
+            throw new IllegalArgumentException("At least one search filter is required");
+        }
+        searchCounter.increment();
+        int limit = Math.max(1, Math.min(request.getLimit(), maxPageSize));
+
+        CardSearchPageDto page = new CardSearchPageDto();
+        page.setCards(List.of());
+
+        StringBuilder sql = new StringBuilder("SELECT id FROM cards WHERE id > :afterId");
+        MapSqlParameterSource params = new MapSqlParameterSource("afterId",
+                request.getAfterId() == null ? 0L : request.getAfterId());
+        if (request.getLast4() != null) {
+            sql.append(" AND last4 = :last4 AND customer_mobile_key = :mobileKey");
+            params.addValue("last4", request.getLast4()).addValue("mobileKey", request.getMobileKey());
+        }
+        if (request.getBin() != null) {
+            sql.append(" AND bin = :bin");
+            params.addValue("bin", request.getBin());
+        }
+        // A value missing from the dictionary is on no card
+        if (!addCodeFilter(sql, params, "program_code_id", request.getProgramCode())
+                || !addCodeFilter(sql, params, "lifecycle_status_id", request.getLifecycleStatus())
+                || !addCodeFilter(sql, params, "issued_by_system_id", request.getIssuedBySystem())) {
+            return page;
+        }
+        // One row past the page tells whether there is a next one
+        sql.append(" ORDER BY id LIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<Long> ids = namedJdbcTemplate.queryForList(sql.toString(), params, Long.class);
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+
+        List<CardSearchResultDto> cards = new ArrayList<>(ids.size());
+        for (Card card : cardRepository.findAllById(ids)) {
+            cards.add(CardMapper.toSearchResultDto(card));
+        }
+        cards.sort(Comparator.comparing(CardSearchResultDto::getId));
+        page.setCards(cards);
+        page.setNextAfterId(hasMore ? ids.get(ids.size() - 1) : null);
+        return page;
+    }
+
+    private boolean addCodeFilter(StringBuilder sql, MapSqlParameterSource params, String column, String value) {
+        if (value == null) {
+            return true;
+        }
+        Integer code = dictionary.find(value);
+        if (code == null) {
+            return false;
+        }
+        sql.append(" AND ").append(column).append(" = :").append(column);
+        params.addValue(column, code);
+        return true;
+    }
+}
@@ -0,0 +1,421 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.dto.ViewRebuildJobDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CustomerCardView;
+import com.example.cardsservice.mapper.CardMapper;
+import com.example.cardsservice.mapper.MobileNumbers;
+import com.example.cardsservice.repository.CardRepository;
+import com.example.cardsservice.repository.CustomerCardViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Maintains {@code customer_cards}, the per-customer card list served by {@code GET /cards}.
+ * <p>
+ * Each row holds the customer's cards as the JSON the read API returns, so a lookup is
+ * one primary-key read regardless of how many cards the customer holds. Ingestion
+ * updates the row in the transaction that upserts the card, under a row lock taken in
+ * key order; the first write for a customer builds the row from {@code cards}. A row is
+ * only served once built; until then reads fall back to {@code cards} by mobile key.
+ * Writes that bypass ingestion (the bulk backfill) delete the rows they touch, and the
+ * rebuild job regenerates every row from {@code cards}.
+ * <p>
+ * Views are only used once {@link MobileKeyMigration} has keyed every card: before that
+ * a key lookup misses the rows not keyed yet. Until it reports completion, reads go to
+ * {@code cards} by key or spelling and ingestion deletes the rows it touches instead of
+ * building them.
+ */
+@Service
+@Slf4j
+public class CustomerCardViewService {
+
+    // Inserts an unbuilt row, or locks the existing one, without a second transaction. A plain
+    // INSERT that hits a duplicate only takes a shared lock on MySQL, and two writers upgrading
+    // it to the row lock deadlock
+    private static final String UPSERT_EMPTY_MYSQL_SQL = "INSERT INTO customer_cards (mobile_key, card_count) "
+            + "VALUES (?, 0) ON DUPLICATE KEY UPDATE mobile_key = mobile_key";
+    private static final String UPSERT_EMPTY_SQL = "MERGE INTO customer_cards v USING (VALUES (CAST(? AS BIGINT))) "
+            + "k (mobile_key) ON v.mobile_key = k.mobile_key WHEN MATCHED THEN UPDATE SET card_count = v.card_count "
+            + "WHEN NOT MATCHED THEN INSERT (mobile_key, card_count) VALUES (k.mobile_key, 0)";
+
+    private final CustomerCardViewRepository viewRepository;
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final String upsertEmptySql;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader cardsReader;
+    private final Map<String, ViewRebuildJobDto> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "customer-view-rebuild"));
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    // Set once MobileKeyMigration reported completion and, if it keyed rows, the views were rebuilt
+    private volatile boolean keyed;
+
+    @Value("${cards.customer-view.rebuild-page-size:1000}")
+    private int rebuildPageSize = 1000;
+
+    public CustomerCardViewService(CustomerCardViewRepository viewRepository,
+            CardRepository cardRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.viewRepository = viewRepository;
+        this.cardRepository = cardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.upsertEmptySql = "MySQL".equals(databaseName(jdbcTemplate)) ? UPSERT_EMPTY_MYSQL_SQL : UPSERT_EMPTY_SQL;
+        this.objectMapper = objectMapper;
+        this.cardsReader = objectMapper.readerForListOf(CardResponseDto.class);
+
+        this.hitCounter = readCounter(meterRegistry, "hit");
+        this.missCounter = readCounter(meterRegistry, "miss");
+    }
+
+    private static String databaseName(JdbcTemplate jdbcTemplate) {
+        try {
+            return JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                    Objects.requireNonNull(jdbcTemplate.getDataSource()), DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine the database of customer_cards", e);
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.customer_view.reads")
+                .description("Card lookups answered from customer_cards (hit) or from the cards table (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether every card carries its mobile key, so lookups by key are complete and views
+     * are maintained and served.
+     */
+    public boolean isKeyed() {
+        return keyed;
+    }
+
+    /**
+     * Called by {@link MobileKeyMigration} once no card is left without a key. When it
+     * keyed rows, every view is rebuilt first, since they were built from incomplete key
+     * lookups; if that fails, views stay unused until the next start.
+     */
+    void onMobileKeysMigrated(boolean rebuild) {
+        if (rebuild) {
+            ViewRebuildJobDto job = newRebuildJob();
+            runRebuild(job);
+            if (job.getStatus() != ViewRebuildJobDto.Status.COMPLETED) {
+                return;
+            }
+        }
+        keyed = true;
+        log.info("Customer views in use");
+    }
+
+    /**
+     * Returns the built view row for {@code mobileKey}, if any.
+     */
+    public Optional<CustomerCardView> find(long mobileKey) {
+        Optional<CustomerCardView> view = viewRepository.findById(mobileKey).filter(v -> v.getCards() != null);
+        (view.isPresent() ? hitCounter : missCounter).increment();
+        return view;
+    }
+
+    /**
+     * Reads the customer's cards from {@code cards}: by key, and before the mobile-key
+     * migration completed also by the spellings of rows not keyed yet.
+     */
+    public List<Card> findCards(long mobileKey) {
+        return keyed ? cardRepository.findByCustomerMobileKey(mobileKey)
+                : cardRepository.findByCustomerMobileKeyOrCustomerMobileNumberIn(mobileKey, MobileNumbers.spellings(mobileKey));
+    }
+
+    /**
+     * Applies a saved card to the views of its customer and, when its mobile number
+     * changed, of its previous customer. Runs in the transaction that saved the card.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCardSaved(Card card, String previousMobileNumber) {
+        onCardsSaved(List.of(new SavedCard(card, previousMobileNumber)));
+    }
+
+    /**
+     * Same as {@link #onCardSaved} for the cards of one ingestion batch, in the order
+     * they were saved. The batch's customer rows are locked, and created where missing,
+     * with one batched upsert in ascending key order, so two batches sharing customers
+     * cannot deadlock, and each row is rewritten once with all of its changes. The changed customers are published as a
+     * {@link CustomerCardsChangedEvent}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCardsSaved(List<SavedCard> saved) {
+        // Per customer: the card entry to upsert by tokenRef, or null to remove it
+        Map<Long, Map<String, CardResponseDto>> changes = new TreeMap<>();
+        for (SavedCard entry : saved) {
+            Card card = entry.getCard();
+            Long key = MobileNumbers.toKey(card.getCustomerMobileNumber());
+            Long previousKey = MobileNumbers.toKey(entry.getPreviousMobileNumber());
+            if (previousKey != null && !previousKey.equals(key)) {
+                changes.computeIfAbsent(previousKey, k -> new LinkedHashMap<>()).put(card.getTokenRef(), null);
+            }
+            if (key != null) {
+                changes.computeIfAbsent(key, k -> new LinkedHashMap<>())
+                        .put(card.getTokenRef(), CardMapper.toResponseDto(card));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new CustomerCardsChangedEvent(new ArrayList<>(changes.keySet())));
+        if (!keyed) {
+            // Not served yet; rebuilt on first write or by the migration's rebuild
+            viewRepository.deleteAllByIdInBatch(changes.keySet());
+            return;
+        }
+
+        // Flush the saved cards once: left to auto-flush, every query below would
+        // dirty-check the whole batch again
+        entityManager.flush();
+        FlushModeType flushMode = entityManager.getFlushMode();
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        try {
+            lockOrCreate(changes.keySet());
+
+            List<Long> unbuilt = new ArrayList<>();
+            List<CustomerCardView> views = viewRepository.findWithLockByMobileKeyInOrderByMobileKey(changes.keySet());
+            for (CustomerCardView view : views) {
+                if (view.getCards() == null) {
+                    unbuilt.add(view.getMobileKey());
+                }
+            }
+            // The first write for a customer starts from cards; the saved cards are merged either way
+            Map<Long, List<CardResponseDto>> loaded = load(unbuilt);
+            for (CustomerCardView view : views) {
+                apply(view, changes.get(view.getMobileKey()), loaded);
+            }
+        } finally {
+            entityManager.setFlushMode(flushMode);
+        }
+    }
+
+    /**
+     * Locks the rows of {@code mobileKeys} in ascending key order in the current
+     * transaction, first inserting unbuilt ones where missing, so concurrent writers meet
+     * on the same row locks in the same order.
+     */
+    private void lockOrCreate(Collection<Long> mobileKeys) {
+        List<Object[]> rows = new ArrayList<>(mobileKeys.size());
+        for (Long mobileKey : new TreeSet<>(mobileKeys)) {
+            rows.add(new Object[] { mobileKey });
+        }
+        jdbcTemplate.batchUpdate(upsertEmptySql, rows);
+    }
+
+    private void apply(CustomerCardView view, Map<String, CardResponseDto> changes,
+            Map<Long, List<CardResponseDto>> loaded) {
+        boolean built = view.getCards() != null;
+        if (!built && changes.values().stream().allMatch(Objects::isNull)) {
+            return;
+        }
+        List<CardResponseDto> cards = built ? decode(view.getCards())
+                : loaded.getOrDefault(view.getMobileKey(), new ArrayList<>());
+        boolean changed = !built;
+        for (Map.Entry<String, CardResponseDto> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                changed |= cards.removeIf(card -> card.getTokenRef().equals(change.getKey()));
+            } else {
+                upsert(cards, change.getValue());
+                changed = true;
+            }
+        }
+        if (changed) {
+            write(view, cards);
+        }
+    }
+
+    private static void upsert(List<CardResponseDto> cards, CardResponseDto entry) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).getTokenRef().equals(entry.getTokenRef())) {
+                cards.set(i, entry);
+                return;
+            }
+        }
+        cards.add(entry);
+    }
+
+    /**
+     * Locks the row for {@code mobileKey}, first inserting an unbuilt one when missing.
+     * Returns null when the row was deleted in between.
+     */
+    private CustomerCardView lockOrCreate(long mobileKey) {
+        jdbcTemplate.update(upsertEmptySql, mobileKey);
+        return viewRepository.findWithLockByMobileKey(mobileKey).orElse(null);
+    }
+
+    private Map<Long, List<CardResponseDto>> load(List<Long> mobileKeys) {
+        Map<Long, List<CardResponseDto>> cards = new HashMap<>();
+        if (!mobileKeys.isEmpty()) {
+            for (Card card : cardRepository.findByCustomerMobileKeyIn(mobileKeys)) {
+                cards.computeIfAbsent(card.getCustomerMobileKey(), k -> new ArrayList<>())
+                        .add(CardMapper.toResponseDto(card));
+            }
+        }
+        return cards;
+    }
+
+    private List<CardResponseDto> load(long mobileKey) {
+        List<CardResponseDto> cards = new ArrayList<>();
+        for (Card card : cardRepository.findByCustomerMobileKey(mobileKey)) {
+            cards.add(CardMapper.toResponseDto(card));
+        }
+        return cards;
+    }
+
+    private void write(CustomerCardView view, List<CardResponseDto> cards) {
+        try {
+            view.setCards(objectMapper.writeValueAsBytes(cards));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        view.setCardCount(cards.size());
+        view.setUpdatedAt(LocalDateTime.now());
+        viewRepository.save(view);
+    }
+
+    private List<CardResponseDto> decode(byte[] cards) {
+        try {
+            return new ArrayList<>(cardsReader.<List<CardResponseDto>>readValue(cards));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Queues a job regenerating every view row from {@code cards}.
+     */
+    public ViewRebuildJobDto submitRebuild() {
+        ViewRebuildJobDto job = newRebuildJob();
+        jobExecutor.submit(() -> runRebuild(job));
+        return job;
+    }
+
+    private ViewRebuildJobDto newRebuildJob() {
+        ViewRebuildJobDto job = new ViewRebuildJobDto();
+        job.setJobId(UUID.randomUUID().toString());
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+
+    public Optional<ViewRebuildJobDto> getRebuildJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Runs a rebuild on the calling thread. Walks the distinct mobile keys of
+     * {@code cards} in index order and rebuilds each customer in its own short
+     * transaction, so ingestion only ever waits for one customer's row.
+     */
+    void runRebuild(ViewRebuildJobDto job) {
+        job.setStatus(ViewRebuildJobDto.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        log.info("Starting customer view rebuild", kv("jobId", job.getJobId()));
+
+        try {
+            long after = 0;
+            List<Long> keys;
+            while (!(keys = cardRepository.findMobileKeysAfter(after, PageRequest.of(0, rebuildPageSize))).isEmpty()) {
+                for (Long key : keys) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        CustomerCardView view = lockOrCreate(key);
+                        if (view != null) {
+                            write(view, load(key));
+                        }
+                    });
+                    job.getCustomersRebuilt().incrementAndGet();
+                }
+                after = keys.get(keys.size() - 1);
+            }
+
+            job.setStatus(ViewRebuildJobDto.Status.COMPLETED);
+            log.info("Customer view rebuild completed",
+                    kv("jobId", job.getJobId()),
+                    kv("customers", job.getCustomersRebuilt().get()));
+        } catch (RuntimeException e) {
+            job.setStatus(ViewRebuildJobDto.Status.FAILED);
+            job.setError(e.getMessage());
+            log.error("Customer view rebuild failed",
+                    kv("jobId", job.getJobId()),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * A card saved by ingestion, with the mobile number it had before the save.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SavedCard {
+        private final Card card;
+        private final String previousMobileNumber;
+    }
+}
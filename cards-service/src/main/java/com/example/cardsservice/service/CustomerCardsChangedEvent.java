@@ -0,0 +1,17 @@
+package com.example.cardsservice.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+
+/**
+ * Published in the transaction that changed the cards of these customers, keyed by
+ * canonical mobile number. The read cache drops their lists once it commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CustomerCardsChangedEvent {
+
+    private final Collection<Long> mobileKeys;
+}
@@ -0,0 +1,416 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.consumer.CardEventConsumer;
+import com.example.cardsservice.dto.CardEventDto;
+import com.example.cardsservice.dto.DlqReplayJobDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Replays parked cards from the DLQ once the cause is fixed.
+ * <p>
+ * A job reads an offset or time range of the DLQ with its own unsubscribed consumer
+ * (nothing is committed, so it can be re-run), keeps the records matching the
+ * {@code issuedBySystem} and error-type filters, and feeds each one back through
+ * {@link CardEventConsumer}: the card is upserted unless the DB already holds a newer
+ * version, then synced to C360, and the job waits for the sync outcome. Records are
+ * released at most {@code ratePerSecond} and synced by {@code parallelism} workers,
+ * keyed by card so each card's records stay in order; while the {@code c360Sync}
+ * breaker is open the job waits instead of adding load. Jobs run one at a time.
+ */
+@Service
+@Slf4j
+public class DlqReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final CardEventConsumer cardEventConsumer;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectReader eventReader;
+    private final Map<String, DlqReplayJobDto> jobs = new ConcurrentHashMap<>();
+    private final Set<String> cancelRequested = ConcurrentHashMap.newKeySet();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "dlq-replay"));
+
+    private final Counter syncedCounter;
+    private final Counter syncFailedCounter;
+    private final Counter skippedCounter;
+    private final Counter filteredCounter;
+    private final Counter erroredCounter;
+
+    @Value("${c360.sync.dlq.topic:card-events-dlq}")
+    private String dlqTopic = "card-events-dlq";
+
+    @Value("${cards.dlq-replay.max-rate-per-second:200}")
+    private int maxRatePerSecond = 200;
+
+    @Value("${cards.dlq-replay.max-parallelism:16}")
+    private int maxParallelism = 16;
+
+    @Value("${cards.dlq-replay.sync-timeout-ms:60000}")
+    private long syncTimeoutMs = 60_000;
+
+    @Value("${cards.dlq-replay.breaker-wait-ms:1000}")
+    private long breakerWaitMs = 1_000;
+
+    public DlqReplayService(ConsumerFactory<String, String> consumerFactory,
+            CardEventConsumer cardEventConsumer,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.cardEventConsumer = cardEventConsumer;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("c360Sync");
+        this.eventReader = objectMapper.readerFor(CardEventDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        this.syncedCounter = recordCounter(meterRegistry, "synced");
+        this.syncFailedCounter = recordCounter(meterRegistry, "sync_failed");
+        this.skippedCounter = recordCounter(meterRegistry, "skipped");
+        this.filteredCounter = recordCounter(meterRegistry, "filtered");
+        this.erroredCounter = recordCounter(meterRegistry, "errored");
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.dlq.replay.records")
+                .description("Number of DLQ records handled by replay jobs")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates and queues a replay job described by {@code request}'s selection, filter
+     * and throttle fields.
+     */
+    public DlqReplayJobDto submit(DlqReplayJobDto request) {
+        if ((request.getFromOffset() != null || request.getToOffset() != null)
+                && (request.getFromTime() != null || request.getToTime() != null)) {
+            throw new IllegalArgumentException("Select by offset range or by time range, not both");
+        }
+        if (request.getRatePerSecond() < 1 || request.getRatePerSecond() > maxRatePerSecond) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + maxRatePerSecond);
+        }
+        if (request.getParallelism() < 1 || request.getParallelism() > maxParallelism) {
+            throw new IllegalArgumentException("parallelism must be between 1 and " + maxParallelism);
+        }
+
+        request.setJobId(UUID.randomUUID().toString());
+        request.setTopic(dlqTopic);
+        jobs.put(request.getJobId(), request);
+
+        jobExecutor.submit(() -> run(request));
+        return request;
+    }
+
+    public Optional<DlqReplayJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Stops a queued or running job after the records already released; returns the job.
+     */
+    public Optional<DlqReplayJobDto> cancel(String jobId) {
+        DlqReplayJobDto job = jobs.get(jobId);
+        if (job != null) {
+            cancelRequested.add(jobId);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Runs a job on the calling thread.
+     */
+    void run(DlqReplayJobDto job) {
+        if (cancelRequested.contains(job.getJobId())) {
+            job.setStatus(DlqReplayJobDto.Status.CANCELLED);
+            return;
+        }
+        job.setStatus(DlqReplayJobDto.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        log.info("Starting DLQ replay",
+                kv("jobId", job.getJobId()),
+                kv("topic", job.getTopic()),
+                kv("ratePerSecond", job.getRatePerSecond()),
+                kv("parallelism", job.getParallelism()));
+
+        RateLimiter rateLimiter = RateLimiter.of("dlqReplay-" + job.getJobId(), RateLimiterConfig.custom()
+                .limitForPeriod(job.getRatePerSecond())
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(5))
+                .build());
+        ExecutorService[] lanes = new ExecutorService[job.getParallelism()];
+        for (int i = 0; i < lanes.length; i++) {
+            int lane = i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, "dlq-replay-lane-" + lane));
+        }
+        // Bounds the records released but not yet synced
+        Semaphore released = new Semaphore(job.getParallelism() * 4);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer("cards-dlq-replay",
+                "dlq-replay-" + job.getJobId().substring(0, 8), null, overrides)) {
+            Map<TopicPartition, Long> endOffsets = assign(consumer, job);
+            Set<TopicPartition> remaining = new HashSet<>(endOffsets.keySet());
+
+            while (!remaining.isEmpty() && !cancelRequested.contains(job.getJobId())) {
+                ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                for (ConsumerRecord<String, String> record : records) {
+                    if (cancelRequested.contains(job.getJobId())) {
+                        break;
+                    }
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    job.getRecordsScanned().incrementAndGet();
+                    if (!matches(record, job)) {
+                        job.getRecordsFiltered().incrementAndGet();
+                        filteredCounter.increment();
+                        continue;
+                    }
+
+                    awaitBreaker(job);
+                    if (!rateLimiter.acquirePermission()) {
+                        throw new IllegalStateException("Replay rate limiter timed out");
+                    }
+                    released.acquire();
+                    String key = record.key();
+                    String value = record.value();
+                    lanes[Math.floorMod(key == null ? 0 : key.hashCode(), lanes.length)].execute(() -> {
+                        try {
+                            replay(value, job);
+                        } finally {
+                            released.release();
+                        }
+                    });
+                }
+
+                for (TopicPartition partition : new ArrayList<>(remaining)) {
+                    if (consumer.position(partition) >= endOffsets.get(partition)) {
+                        remaining.remove(partition);
+                        consumer.pause(Set.of(partition));
+                    }
+                }
+            }
+
+            awaitLanes(lanes);
+            boolean cancelled = cancelRequested.contains(job.getJobId());
+            job.setStatus(cancelled ? DlqReplayJobDto.Status.CANCELLED : DlqReplayJobDto.Status.COMPLETED);
+            log.info(cancelled ? "DLQ replay cancelled" : "DLQ replay completed",
+                    kv("jobId", job.getJobId()),
+                    kv("scanned", job.getRecordsScanned().get()),
+                    kv("synced", job.getRecordsSynced().get()),
+                    kv("syncFailed", job.getRecordsSyncFailed().get()),
+                    kv("skipped", job.getRecordsSkipped().get()),
+                    kv("filtered", job.getRecordsFiltered().get()),
+                    kv("errored", job.getRecordsErrored().get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            for (ExecutorService lane : lanes) {
+                lane.shutdownNow();
+            }
+            cancelRequested.remove(job.getJobId());
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Assigns the selected partitions positioned at the start of the range and returns
+     * the exclusive end offset of each, fixed at job start so the job terminates.
+     */
+    private Map<TopicPartition, Long> assign(Consumer<String, String> consumer, DlqReplayJobDto job) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        List<PartitionInfo> infos = consumer.partitionsFor(job.getTopic());
+        if (infos != null) {
+            for (PartitionInfo info : infos) {
+                if (job.getPartition() == null || job.getPartition() == info.partition()) {
+                    partitions.add(new TopicPartition(info.topic(), info.partition()));
+                }
+            }
+        }
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("No partitions of " + job.getTopic() + " match the selection");
+        }
+
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> logEnd = consumer.endOffsets(partitions);
+        Map<TopicPartition, Long> from = new HashMap<>();
+        Map<TopicPartition, Long> to = new HashMap<>();
+        Map<TopicPartition, OffsetAndTimestamp> fromTimes = job.getFromTime() == null ? Map.of()
+                : consumer.offsetsForTimes(timestamps(partitions, job.getFromTime().toEpochMilli()));
+        Map<TopicPartition, OffsetAndTimestamp> toTimes = job.getToTime() == null ? Map.of()
+                : consumer.offsetsForTimes(timestamps(partitions, job.getToTime().toEpochMilli()));
+
+        long total = 0;
+        for (TopicPartition partition : partitions) {
+            long start = beginning.get(partition);
+            long end = logEnd.get(partition);
+            if (job.getFromTime() != null) {
+                OffsetAndTimestamp offset = fromTimes.get(partition);
+                start = offset == null ? end : offset.offset();
+            } else if (job.getFromOffset() != null) {
+                start = Math.max(start, job.getFromOffset());
+            }
+            if (job.getToTime() != null) {
+                OffsetAndTimestamp offset = toTimes.get(partition);
+                end = offset == null ? end : offset.offset();
+            } else if (job.getToOffset() != null) {
+                end = Math.min(end, job.getToOffset());
+            }
+            if (start < end) {
+                from.put(partition, start);
+                to.put(partition, end);
+                total += end - start;
+            }
+        }
+        job.setTotalRecords(total);
+
+        consumer.assign(from.keySet());
+        from.forEach(consumer::seek);
+        return to;
+    }
+
+    private static Map<TopicPartition, Long> timestamps(List<TopicPartition> partitions, long epochMillis) {
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            timestamps.put(partition, epochMillis);
+        }
+        return timestamps;
+    }
+
+    private boolean matches(ConsumerRecord<String, String> record, DlqReplayJobDto job) {
+        if (job.getErrorType() != null) {
+            Header header = record.headers().lastHeader(C360SyncService.DLQ_ERROR_TYPE_HEADER);
+            String errorType = header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+            if (!job.getErrorType().equalsIgnoreCase(errorType)) {
+                return false;
+            }
+        }
+        if (job.getIssuedBySystem() != null) {
+            try {
+                CardEventDto event = eventReader.readValue(record.value());
+                return job.getIssuedBySystem().equalsIgnoreCase(event.getIssuedBySystem());
+            } catch (Exception e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void replay(String value, DlqReplayJobDto job) {
+        job.getRecordsReplayed().incrementAndGet();
+        try {
+            CompletableFuture<Boolean> sync = cardEventConsumer.consume(value);
+            if (sync == null) {
+                // Invalid, or the DB already holds a newer version that was synced on its own
+                job.getRecordsSkipped().incrementAndGet();
+                skippedCounter.increment();
+            } else if (Boolean.TRUE.equals(sync.get(syncTimeoutMs, TimeUnit.MILLISECONDS))) {
+                job.getRecordsSynced().incrementAndGet();
+                syncedCounter.increment();
+            } else {
+                // Back on the retry topic or left syncPending by the normal failure path
+                job.getRecordsSyncFailed().incrementAndGet();
+                syncFailedCounter.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markErrored(job, e);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            markErrored(job, e);
+        }
+    }
+
+    private void markErrored(DlqReplayJobDto job, Exception e) {
+        job.getRecordsErrored().incrementAndGet();
+        erroredCounter.increment();
+        log.warn("DLQ replay record failed",
+                kv("jobId", job.getJobId()),
+                kv("errorType", e.getClass().getSimpleName()),
+                kv("errorMessage", e.getMessage()));
+    }
+
+    private void awaitBreaker(DlqReplayJobDto job) throws InterruptedException {
+        while (isOpen(circuitBreaker.getState()) && !cancelRequested.contains(job.getJobId())) {
+            Thread.sleep(breakerWaitMs);
+            job.getBreakerWaitMs().addAndGet(breakerWaitMs);
+        }
+    }
+
+    private static boolean isOpen(CircuitBreaker.State state) {
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private void awaitLanes(ExecutorService[] lanes) throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(1, TimeUnit.HOURS);
+        }
+    }
+
+    private void fail(DlqReplayJobDto job, Exception e) {
+        job.setStatus(DlqReplayJobDto.Status.FAILED);
+        job.setError(e.getMessage());
+        log.error("DLQ replay failed",
+                kv("jobId", job.getJobId()),
+                kv("errorType", e.getClass().getSimpleName()),
+                kv("errorMessage", e.getMessage()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.mapper.MobileNumbers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Background migration filling {@code cards.customer_mobile_key} for rows written before
+ * the column existed. Walks {@code cards} by id in small batches with a pause between
+ * them, so it can run alongside ingestion; rows written meanwhile already carry the key
+ * and are left alone. Until it completes, {@link CustomerCardViewService} looks customers
+ * up by key or spelling and leaves the customer views unused; once rows were keyed, the
+ * views are rebuilt before they are used again. Numbers that do not reduce to a key stay
+ * null and are not reachable through {@code GET /cards} afterwards.
+ */
+@Component
+@Slf4j
+public class MobileKeyMigration {
+
+    private static final String SELECT_SQL = "SELECT id, customer_mobile_number FROM cards WHERE id > ? "
+            + "AND customer_mobile_key IS NULL AND customer_mobile_number IS NOT NULL ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE cards SET customer_mobile_key = ? WHERE id = ? AND customer_mobile_key IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerCardViewService customerCardViews;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "mobile-key-migration"));
+
+    private final Counter keyedCounter;
+    private final Counter unkeyedCounter;
+
+    @Value("${cards.migration.mobile-key.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cards.migration.mobile-key.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${cards.migration.mobile-key.pause-ms:50}")
+    private long pauseMs = 50;
+
+    public MobileKeyMigration(JdbcTemplate jdbcTemplate,
+            CustomerCardViewService customerCardViews,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.customerCardViews = customerCardViews;
+
+        this.keyedCounter = rowCounter(meterRegistry, "keyed");
+        this.unkeyedCounter = rowCounter(meterRegistry, "unkeyed");
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cards.migration.mobile_key.rows")
+                .description("Rows visited by the mobile-key migration")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.submit(this::run);
+        } else {
+            customerCardViews.onMobileKeysMigrated(false);
+        }
+    }
+
+    /**
+     * Runs the migration on the calling thread, then the view rebuild when rows were
+     * keyed, and returns the number of rows keyed.
+     */
+    long run() {
+        log.info("Starting mobile key migration", kv("batchSize", batchSize));
+        long keyed = 0;
+        long unkeyed = 0;
+        try {
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Object[]> updates = new ArrayList<>(batchSize);
+                List<Long> ids = new ArrayList<>(batchSize);
+                jdbcTemplate.query(SELECT_SQL, rs -> {
+                    long id = rs.getLong("id");
+                    ids.add(id);
+                    Long key = MobileNumbers.toKey(rs.getString("customer_mobile_number"));
+                    if (key != null) {
+                        updates.add(new Object[] { key, id });
+                    }
+                }, afterId, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                }
+                keyed += updates.size();
+                unkeyed += ids.size() - updates.size();
+                keyedCounter.increment(updates.size());
+                unkeyedCounter.increment(ids.size() - updates.size());
+                afterId = ids.get(ids.size() - 1);
+
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+
+            log.info("Mobile key migration completed", kv("keyed", keyed), kv("unkeyed", unkeyed));
+            customerCardViews.onMobileKeysMigrated(keyed > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Mobile key migration failed; it resumes on the next start",
+                    kv("keyed", keyed),
+                    kv("errorType", e.getClass().getSimpleName()),
+                    kv("errorMessage", e.getMessage()));
+        }
+        return keyed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.cardsservice.tracing;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts a {@link TailSamplingSpanHandler} in front of the span handlers Spring Boot
+ * registers on the Brave tracer (Zipkin and Micrometer's reporters). Head sampling
+ * ({@code management.tracing.sampling.probability}) should stay at 1.0 so errors and
+ * slow syncs are never lost before the tail decision.
+ */
+@Configuration
+@ConditionalOnClass(TracingCustomizer.class)
+@ConditionalOnProperty(name = "cards.tracing.tail-sampling.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TailSamplingConfig {
+
+    private final MeterRegistry meterRegistry;
+    private final TailSamplingSpanHandler.Settings settings;
+
+    private volatile TailSamplingSpanHandler handler;
+
+    public TailSamplingConfig(MeterRegistry meterRegistry,
+            @Value("${cards.tracing.tail-sampling.latency-threshold-ms:1000}") long latencyThresholdMs,
+            @Value("${cards.tracing.tail-sampling.baseline-rate:0.01}") double baselineRate,
+            @Value("${cards.tracing.tail-sampling.idle-ms:2000}") long idleMs,
+            @Value("${cards.tracing.tail-sampling.max-trace-age-ms:30000}") long maxTraceAgeMs,
+            @Value("${cards.tracing.tail-sampling.max-buffered-traces:10000}") int maxBufferedTraces,
+            @Value("${cards.tracing.tail-sampling.max-spans-per-trace:256}") int maxSpansPerTrace) {
+        this.meterRegistry = meterRegistry;
+        this.settings = new TailSamplingSpanHandler.Settings()
+                .latencyThresholdMs(latencyThresholdMs)
+                .baselineRate(baselineRate)
+                .idleMs(idleMs)
+                .maxTraceAgeMs(maxTraceAgeMs)
+                .maxBufferedTraces(maxBufferedTraces)
+                .maxSpansPerTrace(maxSpansPerTrace);
+    }
+
+    @Bean
+    public TracingCustomizer tailSamplingTracingCustomizer() {
+        return builder -> {
+            // Customizers run after Boot has added every SpanHandler bean
+            List<SpanHandler> downstream = new ArrayList<>(builder.spanHandlers());
+            builder.clearSpanHandlers();
+            handler = new TailSamplingSpanHandler(downstream, settings, meterRegistry);
+            builder.addSpanHandler(handler);
+            log.info("Tail sampling {} span handler(s): latency threshold {}ms, baseline {}",
+                    downstream.size(), settings.latencyThresholdMs, settings.baselineRate);
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${cards.tracing.tail-sampling.sweep-interval-ms:500}")
+    public void flushDueTraces() {
+        TailSamplingSpanHandler current = handler;
+        if (current != null) {
+            current.flushDue();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.cardsservice.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tail-based sampling in front of the exporting span handlers (Zipkin). Every trace is
+ * head-sampled, finished spans are buffered per trace id, and once a trace has gone
+ * quiet (or grown too old) it is exported only if a span errored, it took longer than
+ * the latency threshold, or its id falls in the random baseline. The baseline is
+ * derived from the trace id, so every service keeps the same traces.
+ * <p>
+ * Spans that finish after their trace was decided, typically C360 retries resuming
+ * after a backoff, follow the decision; an errored late span is exported and turns
+ * the decision to keep. Buffers are bounded in traces and spans per trace, and the
+ * oldest trace is decided early when the buffer is full.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    static final String KEPT = "kept";
+    static final String DROPPED = "dropped";
+
+    private final List<SpanHandler> delegates;
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+    private final Map<String, Boolean> decided;
+
+    private final Counter keptError;
+    private final Counter keptSlow;
+    private final Counter keptBaseline;
+    private final Counter dropped;
+    private final Counter lateSpans;
+
+    public TailSamplingSpanHandler(List<SpanHandler> delegates, Settings settings, MeterRegistry meterRegistry) {
+        this(delegates, settings, meterRegistry, System::nanoTime);
+    }
+
+    TailSamplingSpanHandler(List<SpanHandler> delegates, Settings settings, MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.delegates = new ArrayList<>(delegates);
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+
+        final int decidedCapacity = settings.maxBufferedTraces;
+        this.decided = new LinkedHashMap<String, Boolean>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > decidedCapacity;
+            }
+        };
+
+        this.keptError = traceCounter(meterRegistry, KEPT, "error");
+        this.keptSlow = traceCounter(meterRegistry, KEPT, "slow");
+        this.keptBaseline = traceCounter(meterRegistry, KEPT, "baseline");
+        this.dropped = traceCounter(meterRegistry, DROPPED, "none");
+
+        this.lateSpans = Counter.builder("cards.tracing.tail_sampling.late_spans")
+                .description("Spans finished after their trace was decided")
+                .register(meterRegistry);
+
+        Gauge.builder("cards.tracing.tail_sampling.buffered_traces", this, TailSamplingSpanHandler::bufferedTraces)
+                .description("Traces buffered while waiting for a sampling decision")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            // Never exported; let the delegates release whatever they track for it
+            forward(context, span, cause);
+            return true;
+        }
+
+        String traceId = context.traceIdString();
+        PendingTrace decideNow = null;
+        Boolean lateDecision;
+        synchronized (this) {
+            lateDecision = decided.get(traceId);
+            if (lateDecision == null) {
+                PendingTrace trace = pending.get(traceId);
+                if (trace == null) {
+                    if (pending.size() >= settings.maxBufferedTraces) {
+                        decideNow = removeOldest();
+                    }
+                    trace = new PendingTrace(traceId, nanoClock.getAsLong());
+                    pending.put(traceId, trace);
+                }
+                trace.add(context, span, cause, nanoClock.getAsLong(), settings.maxSpansPerTrace);
+            } else if (!lateDecision && isError(span)) {
+                decided.put(traceId, Boolean.TRUE);
+            }
+        }
+
+        if (lateDecision != null) {
+            lateSpans.increment();
+            if (lateDecision || isError(span)) {
+                forward(context, span, cause);
+            }
+        }
+        if (decideNow != null) {
+            decide(decideNow);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handlesAbandoned() {
+        for (SpanHandler delegate : delegates) {
+            if (delegate.handlesAbandoned()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides every trace that has been idle for {@code idleMs} or buffered for
+     * {@code maxTraceAgeMs}; called periodically.
+     */
+    public void flushDue() {
+        long now = nanoClock.getAsLong();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(settings.idleMs);
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(settings.maxTraceAgeMs);
+
+        List<PendingTrace> due = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PendingTrace> it = pending.values().iterator();
+            while (it.hasNext()) {
+                PendingTrace trace = it.next();
+                if (now - trace.lastSpanAt >= idleNanos || now - trace.firstSpanAt >= maxAgeNanos) {
+                    it.remove();
+                    due.add(trace);
+                }
+            }
+        }
+        due.forEach(this::decide);
+    }
+
+    synchronized int bufferedTraces() {
+        return pending.size();
+    }
+
+    private PendingTrace removeOldest() {
+        Iterator<PendingTrace> it = pending.values().iterator();
+        PendingTrace oldest = it.next();
+        it.remove();
+        return oldest;
+    }
+
+    private void decide(PendingTrace trace) {
+        Counter reason = trace.error ? keptError
+                : trace.durationMicros() >= TimeUnit.MILLISECONDS.toMicros(settings.latencyThresholdMs) ? keptSlow
+                : inBaseline(trace.traceId) ? keptBaseline
+                : null;
+        boolean keep = reason != null;
+        synchronized (this) {
+            decided.put(trace.traceId, keep);
+        }
+
+        if (keep) {
+            reason.increment();
+            for (BufferedSpan buffered : trace.spans) {
+                forward(buffered.context, buffered.span, buffered.cause);
+            }
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void forward(TraceContext context, MutableSpan span, Cause cause) {
+        for (SpanHandler delegate : delegates) {
+            if (!delegate.end(context, span, cause)) {
+                return;
+            }
+        }
+    }
+
+    boolean inBaseline(String traceId) {
+        // Low 64 bits of the id are random, so this is a uniform, trace-consistent draw
+        String low = traceId.length() > 16 ? traceId.substring(traceId.length() - 16) : traceId;
+        long bucket = Long.remainderUnsigned(Long.parseUnsignedLong(low, 16), 10_000);
+        return bucket < Math.round(settings.baselineRate * 10_000);
+    }
+
+    private static boolean isError(MutableSpan span) {
+        return span.error() != null || span.tag("error") != null;
+    }
+
+    private static Counter traceCounter(MeterRegistry meterRegistry, String decision, String reason) {
+        return Counter.builder("cards.tracing.tail_sampling.traces")
+                .description("Traces kept or dropped by tail sampling")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tail-sampling limits, bound from {@code cards.tracing.tail-sampling.*}.
+     */
+    public static class Settings {
+        long latencyThresholdMs = 1_000;
+        double baselineRate = 0.01;
+        long idleMs = 2_000;
+        long maxTraceAgeMs = 30_000;
+        int maxBufferedTraces = 10_000;
+        int maxSpansPerTrace = 256;
+
+        public Settings latencyThresholdMs(long latencyThresholdMs) {
+            this.latencyThresholdMs = latencyThresholdMs;
+            return this;
+        }
+
+        public Settings baselineRate(double baselineRate) {
+            this.baselineRate = baselineRate;
+            return this;
+        }
+
+        public Settings idleMs(long idleMs) {
+            this.idleMs = idleMs;
+            return this;
+        }
+
+        public Settings maxTraceAgeMs(long maxTraceAgeMs) {
+            this.maxTraceAgeMs = maxTraceAgeMs;
+            return this;
+        }
+
+        public Settings maxBufferedTraces(int maxBufferedTraces) {
+            this.maxBufferedTraces = Math.max(1, maxBufferedTraces);
+            return this;
+        }
+
+        public Settings maxSpansPerTrace(int maxSpansPerTrace) {
+            this.maxSpansPerTrace = Math.max(1, maxSpansPerTrace);
+            return this;
+        }
+    }
+
+    private static final class PendingTrace {
+        private final String traceId;
+        private final long firstSpanAt;
+        private final List<BufferedSpan> spans = new ArrayList<>();
+        private long lastSpanAt;
+        private long startMicros = Long.MAX_VALUE;
+        private long finishMicros = Long.MIN_VALUE;
+        private boolean error;
+
+        private PendingTrace(String traceId, long now) {
+            this.traceId = traceId;
+            this.firstSpanAt = now;
+            this.lastSpanAt = now;
+        }
+
+        private void add(TraceContext context, MutableSpan span, Cause cause, long now, int maxSpans) {
+            lastSpanAt = now;
+            error |= isError(span);
+            if (span.startTimestamp() > 0) {
+                startMicros = Math.min(startMicros, span.startTimestamp());
+            }
+            finishMicros = Math.max(finishMicros, span.finishTimestamp());
+            // Past the cap only the outcome still counts; the span itself is not kept
+            if (spans.size() < maxSpans) {
+                spans.add(new BufferedSpan(context, span, cause));
+            }
+        }
+
+        private long durationMicros() {
+            return startMicros == Long.MAX_VALUE || finishMicros < startMicros ? 0 : finishMicros - startMicros;
+        }
+    }
+
+    private static final class BufferedSpan {
+        private final TraceContext context;
+        private final MutableSpan span;
+        private final Cause cause;
+
+        private BufferedSpan(TraceContext context, MutableSpan span, Cause cause) {
+            this.context = context;
+            this.span = span;
+            this.cause = cause;
+        }
+    }
+}
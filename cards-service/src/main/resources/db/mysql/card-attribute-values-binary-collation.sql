@@ -0,0 +1,11 @@
+-- Makes card_attribute_values compare attribute values byte for byte.
+--
+-- Under the default utf8mb4 collations, values differing only in case or accents are the same
+-- key, so the unique index refuses the second spelling and CardAttributeDictionary refuses to
+-- encode it. Run on every schema, including one created by Hibernate (ddl-auto cannot set a
+-- column collation). Tightening the collation cannot create duplicates, so it is safe on a
+-- populated table; cards stored before under a merged spelling are only corrected by their
+-- next event or a backfill.
+
+ALTER TABLE card_attribute_values
+    MODIFY attribute_value VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL;
@@ -0,0 +1,18 @@
+-- Drops the string attribute columns of cards replaced by card_attribute_values codes.
+--
+-- Run only once all of the following hold:
+--   1. no instance of the release writing only the strings is left;
+--   2. CardAttributeMigration logged "Card attribute migration completed" after that;
+--   3. every instance runs a release whose Card entity no longer maps these columns
+--      (the legacy* fields) nor CardBackfillService writes them.
+-- Until then running instances read and write these columns, and dropping them fails
+-- every card write.
+
+ALTER TABLE cards
+    DROP COLUMN program_code,
+    DROP COLUMN program_category,
+    DROP COLUMN network,
+    DROP COLUMN lifecycle_status,
+    DROP COLUMN raw_status,
+    DROP COLUMN issued_by_system,
+    DROP COLUMN issuance_channel;
@@ -2,24 +2,36 @@ package com.example.cardsservice.consumer;
 
 import com.example.cardsservice.dto.CardEventDto;
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.SyncPriority;
 import com.example.cardsservice.repository.CardRepository;
 import com.example.cardsservice.service.C360SyncService;
+import com.example.cardsservice.service.CardEventAuditService;
+import com.example.cardsservice.service.CardLifecycleHistoryService;
+import com.example.cardsservice.service.CustomerCardViewService;
+import com.example.cardsservice.service.CustomerCardViewService.SavedCard;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,17 +40,31 @@ class CardEventConsumerTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private CustomerCardViewService customerCardViews;
+
     @Mock
     private C360SyncService c360SyncService;
 
-    @InjectMocks
+    @Mock
+    private CardEventAuditService audit;
+
+    @Mock
+    private CardLifecycleHistoryService lifecycleHistory;
+
     private CardEventConsumer cardEventConsumer;
+    private SimpleMeterRegistry meterRegistry;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private CardEventDto eventDto;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardEventConsumer = new CardEventConsumer(cardRepository, customerCardViews,
+                TransactionOperations.withoutTransaction(), c360SyncService, new InFlightSyncTracker(meterRegistry),
+                audit, lifecycleHistory, meterRegistry);
+
         eventDto = new CardEventDto();
         eventDto.setTokenRef("tok_123");
         eventDto.setMaskedCardNumber("4111xxxx1111");
@@ -56,7 +82,7 @@ class CardEventConsumerTest {
 
         when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.empty());
         when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(c360SyncService.syncToC360(any(Card.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         cardEventConsumer.consume(message);
@@ -64,7 +90,9 @@ class CardEventConsumerTest {
         // Assert
         ArgumentCaptor<Card> cardCaptor = ArgumentCaptor.forClass(Card.class);
         verify(cardRepository).save(cardCaptor.capture());
-        verify(c360SyncService).syncToC360(any(Card.class));
+        verify(customerCardViews).onCardSaved(cardCaptor.getValue(), null);
+        verify(c360SyncService).syncToC360(any(Card.class), any(SyncPriority.class));
+        verify(audit).append("tok_123", -1, -1L, "saved", message);
 
         Card savedCard = cardCaptor.getValue();
         assertEquals("tok_123", savedCard.getTokenRef());
@@ -88,7 +116,7 @@ class CardEventConsumerTest {
 
         when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.of(existingCard));
         when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(c360SyncService.syncToC360(any(Card.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         cardEventConsumer.consume(message);
@@ -101,6 +129,35 @@ class CardEventConsumerTest {
         assertEquals("ACTIVE", savedCard.getLifecycleStatus());
     }
 
+    @Test
+    void consume_TransitionToBlocked_ShouldSyncAsCriticalOnlyOnChange() throws Exception {
+        // Arrange
+        Card existingCard = new Card();
+        existingCard.setTokenRef("tok_123");
+        existingCard.setLifecycleStatus("ACTIVE");
+        existingCard.setEventTimestamp(LocalDateTime.now().minusHours(2));
+
+        eventDto.setLifecycleStatus("BLOCKED");
+        eventDto.setEventTimestamp(LocalDateTime.now().minusHours(1).format(DateTimeFormatter.ISO_DATE_TIME));
+        String blocked = objectMapper.writeValueAsString(eventDto);
+        eventDto.setProgramCode("PROG002");
+        eventDto.setEventTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        String cosmeticWhileBlocked = objectMapper.writeValueAsString(eventDto);
+
+        when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.of(existingCard));
+        when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        // Act
+        cardEventConsumer.consume(blocked);
+        cardEventConsumer.consume(cosmeticWhileBlocked);
+
+        // Assert
+        verify(c360SyncService).syncToC360(any(Card.class), eq(SyncPriority.CRITICAL));
+        verify(c360SyncService).syncToC360(any(Card.class), eq(SyncPriority.NORMAL));
+        verify(lifecycleHistory).record(any(Card.class), eq("ACTIVE"), isNull());
+    }
+
     @Test
     void consume_StaleEvent_ShouldIgnore() throws Exception {
         // Arrange
@@ -118,7 +175,7 @@ class CardEventConsumerTest {
 
         // Assert
         verify(cardRepository, never()).save(any(Card.class));
-        verify(c360SyncService, never()).syncToC360(any(Card.class));
+        verify(c360SyncService, never()).syncToC360(any(Card.class), any(SyncPriority.class));
     }
 
     @Test
@@ -133,7 +190,8 @@ class CardEventConsumerTest {
         // Assert
         verify(cardRepository, never()).findByTokenRef(anyString());
         verify(cardRepository, never()).save(any(Card.class));
-        verify(c360SyncService, never()).syncToC360(any(Card.class));
+        verify(c360SyncService, never()).syncToC360(any(Card.class), any(SyncPriority.class));
+        verifyNoInteractions(audit);
     }
 
     @Test
@@ -146,7 +204,7 @@ class CardEventConsumerTest {
 
         // Assert
         verify(cardRepository, never()).save(any(Card.class));
-        verify(c360SyncService, never()).syncToC360(any(Card.class));
+        verify(c360SyncService, never()).syncToC360(any(Card.class), any(SyncPriority.class));
     }
 
     @Test
@@ -156,13 +214,13 @@ class CardEventConsumerTest {
 
         when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.empty());
         when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(c360SyncService.syncToC360(any(Card.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         cardEventConsumer.consume(message);
 
         // Assert
-        verify(c360SyncService, times(1)).syncToC360(any(Card.class));
+        verify(c360SyncService, times(1)).syncToC360(any(Card.class), any(SyncPriority.class));
     }
 
     @Test
@@ -180,7 +238,7 @@ class CardEventConsumerTest {
 
         when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.empty());
         when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(c360SyncService.syncToC360(any(Card.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         cardEventConsumer.consume(message);
@@ -201,4 +259,106 @@ class CardEventConsumerTest {
         assertEquals("CORE_BANKING", savedCard.getIssuedBySystem());
         assertEquals("MOBILE", savedCard.getIssuanceChannel());
     }
+
+    @Test
+    void onMessages_Batch_ShouldReadOnceAndSaveViewsTogether() throws Exception {
+        // Arrange
+        String first = objectMapper.writeValueAsString(eventDto);
+        eventDto.setTokenRef("tok_456");
+        String second = objectMapper.writeValueAsString(eventDto);
+
+        when(cardRepository.findByTokenRefIn(List.of("tok_123", "tok_456"))).thenReturn(List.of());
+        when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        // Act
+        cardEventConsumer.onMessages(List.of(record(10, first), record(11, second)), null);
+
+        // Assert
+        verify(cardRepository, never()).findByTokenRef(anyString());
+        verify(cardRepository, times(2)).save(any(Card.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SavedCard>> saved = ArgumentCaptor.forClass(List.class);
+        verify(customerCardViews).onCardsSaved(saved.capture());
+        assertEquals(List.of("tok_123", "tok_456"),
+                saved.getValue().stream().map(card -> card.getCard().getTokenRef()).collect(Collectors.toList()));
+        verify(c360SyncService, times(2)).syncToC360(any(Card.class), eq(SyncPriority.NORMAL));
+        verify(audit).append("tok_123", 0, 10L, "saved", first);
+        verify(audit).append("tok_456", 0, 11L, "saved", second);
+    }
+
+    @Test
+    void onMessages_RepeatedTokenRef_ShouldApplyLaterEventOnSavedState() throws Exception {
+        // Arrange
+        eventDto.setEventTimestamp(LocalDateTime.now().minusMinutes(1).format(DateTimeFormatter.ISO_DATE_TIME));
+        String active = objectMapper.writeValueAsString(eventDto);
+        eventDto.setLifecycleStatus("BLOCKED");
+        eventDto.setEventTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        String blocked = objectMapper.writeValueAsString(eventDto);
+
+        Card stored = new Card();
+        stored.setTokenRef("tok_123");
+        stored.setLifecycleStatus("ACTIVE");
+        stored.setEventTimestamp(LocalDateTime.now().minusMinutes(1));
+        when(cardRepository.findByTokenRefIn(List.of("tok_123"))).thenReturn(List.of(), List.of(stored));
+        when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        // Act
+        cardEventConsumer.onMessages(List.of(record(10, active), record(11, blocked)), null);
+
+        // Assert
+        verify(cardRepository, times(2)).findByTokenRefIn(List.of("tok_123"));
+        verify(customerCardViews, times(2)).onCardsSaved(anyList());
+        verify(c360SyncService).syncToC360(any(Card.class), eq(SyncPriority.NORMAL));
+        verify(c360SyncService).syncToC360(any(Card.class), eq(SyncPriority.CRITICAL));
+    }
+
+    @Test
+    void onMessages_BatchWriteFails_ShouldRetryRecordsOneByOne() throws Exception {
+        // Arrange
+        String first = objectMapper.writeValueAsString(eventDto);
+        eventDto.setTokenRef("tok_456");
+        String second = objectMapper.writeValueAsString(eventDto);
+
+        when(cardRepository.findByTokenRefIn(anyCollection())).thenReturn(List.of());
+        when(cardRepository.findByTokenRef(anyString())).thenReturn(Optional.empty());
+        when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new IllegalStateException("deadlock")).when(customerCardViews).onCardsSaved(anyList());
+        when(c360SyncService.syncToC360(any(Card.class), any(SyncPriority.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        // Act
+        cardEventConsumer.onMessages(List.of(record(10, first), record(11, second)), null);
+
+        // Assert
+        verify(customerCardViews, times(2)).onCardSaved(any(Card.class), isNull());
+        verify(c360SyncService, times(2)).syncToC360(any(Card.class), any(SyncPriority.class));
+        verify(audit).append("tok_123", 0, 10L, "saved", first);
+        verify(audit).append("tok_456", 0, 11L, "saved", second);
+    }
+
+    @Test
+    void consume_ValidMessage_ShouldRecordStageTimersAndFreshness() throws Exception {
+        // Arrange
+        eventDto.setEventTimestamp(LocalDateTime.now().minusSeconds(2).format(DateTimeFormatter.ISO_DATE_TIME));
+        String message = objectMapper.writeValueAsString(eventDto);
+
+        when(cardRepository.findByTokenRef("tok_123")).thenReturn(Optional.empty());
+        when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        cardEventConsumer.consume(message);
+
+        // Assert
+        for (String stage : new String[] { "decode", "db_read", "db_write", "dispatch" }) {
+            assertEquals(1, meterRegistry.get("cards.ingest.stage.duration").tag("stage", stage).timer().count());
+        }
+        Timer freshness = meterRegistry.get("cards.event.freshness").tag("stage", "persisted").timer();
+        assertEquals(1, freshness.count());
+        assertTrue(freshness.totalTime(TimeUnit.MILLISECONDS) >= 2000);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String message) {
+        return new ConsumerRecord<>("card-events", 0, offset, null, message);
+    }
 }
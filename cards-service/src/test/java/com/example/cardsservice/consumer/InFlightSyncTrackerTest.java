@@ -0,0 +1,88 @@
+package com.example.cardsservice.consumer;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.CardSyncTask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InFlightSyncTrackerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("card-events", 0);
+
+    @Mock
+    private Consumer<String, String> consumer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InFlightSyncTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new InFlightSyncTracker(meterRegistry);
+        ReflectionTestUtils.setField(tracker, "drainTimeoutMs", 50L);
+    }
+
+    @Test
+    void onPartitionsRevoked_QueuedSync_ShouldCancelToSyncPendingAndCommitProcessedOffsets() {
+        // Arrange
+        Card card = new Card();
+        CardSyncTask queued = new CardSyncTask(card, c -> CompletableFuture.completedFuture(true), c -> c.setSyncPending(true));
+        tracker.track(PARTITION, 41, queued.result());
+        tracker.track(PARTITION, 42, null);
+
+        // Act
+        tracker.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+
+        // Assert
+        assertTrue(queued.result().isCancelled());
+        assertTrue(card.isSyncPending());
+        verify(consumer).commitSync(eq(Map.of(PARTITION, new OffsetAndMetadata(43))), any(Duration.class));
+        assertEquals(1, meterRegistry.get("cards.consumer.rebalance.syncs").tag("outcome", "cancelled")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("cards.consumer.rebalance.duration").tag("phase", "revoked")
+                .timer().count());
+        assertEquals(0, tracker.inFlight(PARTITION));
+
+        // A worker picking the task up after the handoff must not sync it
+        queued.run();
+        assertTrue(queued.result().isCancelled());
+    }
+
+    @Test
+    void onPartitionsRevoked_SyncFinishingWithinDrainTimeout_ShouldBeDrainedNotCancelled() {
+        // Arrange
+        ReflectionTestUtils.setField(tracker, "drainTimeoutMs", 5_000L);
+        CompletableFuture<Boolean> sync = new CompletableFuture<>();
+        tracker.track(PARTITION, 7, sync);
+        CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS).execute(() -> sync.complete(true));
+
+        // Act
+        tracker.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+
+        // Assert
+        assertFalse(sync.isCancelled());
+        verify(consumer).commitSync(eq(Map.of(PARTITION, new OffsetAndMetadata(8))), any(Duration.class));
+        assertEquals(1, meterRegistry.get("cards.consumer.rebalance.syncs").tag("outcome", "drained")
+                .counter().count());
+    }
+}
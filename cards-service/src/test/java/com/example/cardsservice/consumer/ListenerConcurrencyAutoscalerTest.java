@@ -0,0 +1,153 @@
+package com.example.cardsservice.consumer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListenerConcurrencyAutoscalerTest {
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private ConcurrentMessageListenerContainer<String, String> container;
+
+    @Mock
+    private ObjectProvider<DataSource> dataSource;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ListenerConcurrencyAutoscaler autoscaler;
+    private final ListenerConcurrencyAutoscaler.Bounds bounds = new ListenerConcurrencyAutoscaler.Bounds(1, 6);
+    private final Map<MetricName, Metric> clientMetrics = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        autoscaler = new ListenerConcurrencyAutoscaler(listenerRegistry, meterRegistry, dataSource,
+                new MockEnvironment());
+    }
+
+    private void runningWithOneConsumerOnThreePartitions() {
+        when(listenerRegistry.getListenerContainer(CardEventConsumer.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getConcurrency()).thenReturn(1);
+        when(container.getAssignedPartitions()).thenReturn(List.of(
+                new TopicPartition("card-events", 0), new TopicPartition("card-events", 1),
+                new TopicPartition("card-events", 2)));
+    }
+
+    @Test
+    void desiredConcurrency_ShouldDrainLagWithinTargetAndStayInBounds() {
+        assertEquals(2, ListenerConcurrencyAutoscaler.desiredConcurrency(6_000, 10, 30_000, 1, 6, 12));
+        assertEquals(1, ListenerConcurrencyAutoscaler.desiredConcurrency(0, 10, 30_000, 1, 6, 12));
+        assertEquals(6, ListenerConcurrencyAutoscaler.desiredConcurrency(1_000_000, 10, 30_000, 1, 6, 12));
+        // More consumers than owned partitions would sit idle
+        assertEquals(3, ListenerConcurrencyAutoscaler.desiredConcurrency(1_000_000, 10, 30_000, 1, 6, 3));
+    }
+
+    @Test
+    void evaluate_LaggingListener_ShouldRestartContainerWithHigherConcurrency() {
+        // Arrange
+        runningWithOneConsumerOnThreePartitions();
+        processed(100, 10);
+        lag(6_000);
+
+        // Act
+        autoscaler.evaluate(CardEventConsumer.LISTENER_ID, bounds, false);
+
+        // Assert
+        ArgumentCaptor<Runnable> restart = ArgumentCaptor.forClass(Runnable.class);
+        verify(container).stop(restart.capture());
+        restart.getValue().run();
+        verify(container).setConcurrency(2);
+        verify(container).start();
+        assertEquals(1, meterRegistry.get("cards.consumer.autoscaling.changes")
+                .tag("listener", CardEventConsumer.LISTENER_ID).tag("direction", "up").counter().count());
+        assertEquals(2, meterRegistry.get("cards.consumer.concurrency.desired").gauge().value());
+    }
+
+    @Test
+    void evaluate_DbPoolSaturated_ShouldNotScaleUp() {
+        // Arrange
+        runningWithOneConsumerOnThreePartitions();
+        processed(100, 10);
+        lag(6_000);
+
+        // Act
+        autoscaler.evaluate(CardEventConsumer.LISTENER_ID, bounds, true);
+
+        // Assert
+        verify(container, never()).stop(any(Runnable.class));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> listener = (Map<String, Object>) autoscaler.describe().get(CardEventConsumer.LISTENER_ID);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lastEvaluation = (Map<String, Object>) listener.get("lastEvaluation");
+        assertEquals("db_pool_saturated", lastEvaluation.get("reason"));
+        assertEquals(6_000L, lastEvaluation.get("lag"));
+    }
+
+    @Test
+    void evaluate_BatchListener_ShouldCostPerRecordNotPerPoll() {
+        // Arrange: ten 100ms polls of 100 records each is 1ms per record
+        runningWithOneConsumerOnThreePartitions();
+        processed(10, 100);
+        metric("records-consumed-total", Map.of(), 1_000);
+        lag(6_000);
+
+        // Act
+        autoscaler.evaluate(CardEventConsumer.LISTENER_ID, bounds, false);
+
+        // Assert
+        verify(container, never()).stop(any(Runnable.class));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> listener = (Map<String, Object>) autoscaler.describe().get(CardEventConsumer.LISTENER_ID);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lastEvaluation = (Map<String, Object>) listener.get("lastEvaluation");
+        assertEquals("steady", lastEvaluation.get("reason"));
+        assertEquals(1.0, lastEvaluation.get("meanProcessingMs"));
+    }
+
+    private void processed(int records, long millisEach) {
+        Timer timer = Timer.builder("spring.kafka.listener")
+                .tag("name", CardEventConsumer.LISTENER_ID + "-0")
+                .tag("result", "success")
+                .register(meterRegistry);
+        for (int i = 0; i < records; i++) {
+            timer.record(Duration.ofMillis(millisEach));
+        }
+    }
+
+    private void lag(double records) {
+        metric("records-lag", Map.of("topic", "card-events", "partition", "0"), records);
+        doReturn(Map.of("consumer-card-repo-group-1", clientMetrics)).when(container).metrics();
+    }
+
+    private void metric(String name, Map<String, String> tags, double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        clientMetrics.put(new MetricName(name, "consumer-fetch-manager-metrics", "", tags), metric);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.cardsservice.consumer;
+
+import com.example.cardsservice.service.C360SyncService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncBackpressureControllerTest {
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @Mock
+    private C360SyncService c360SyncService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SyncBackpressureController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        controller = new SyncBackpressureController(listenerRegistry, c360SyncService, circuitBreakerRegistry,
+                meterRegistry, 100, 2000);
+        ReflectionTestUtils.setField(controller, "highWatermark", 100);
+        ReflectionTestUtils.setField(controller, "lowWatermark", 20);
+
+        lenient().when(listenerRegistry.getListenerContainer(CardEventConsumer.LISTENER_ID)).thenReturn(container);
+        lenient().when(container.isRunning()).thenReturn(true);
+    }
+
+    @Test
+    void evaluate_AboveHighWatermark_ShouldPauseUntilDrainedToLowWatermark() {
+        // Arrange
+        when(c360SyncService.inFlightSyncs()).thenReturn(150, 50, 20);
+
+        // Act
+        controller.evaluate();
+        controller.evaluate();
+        boolean pausedBetweenWatermarks = controller.isPaused();
+        controller.evaluate();
+
+        // Assert
+        assertTrue(pausedBetweenWatermarks);
+        assertFalse(controller.isPaused());
+        verify(container, times(1)).pause();
+        verify(container, times(1)).resume();
+        assertEquals(1, meterRegistry.get("cards.consumer.backpressure.pauses").tag("reason", "in_flight")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("cards.consumer.backpressure.paused").timer().count());
+    }
+
+    @Test
+    void evaluate_BreakerOpen_ShouldPauseAndWaitForBreakerToLeaveOpen() {
+        // Arrange
+        when(c360SyncService.inFlightSyncs()).thenReturn(0);
+        circuitBreakerRegistry.circuitBreaker("c360Sync").transitionToOpenState();
+
+        // Act
+        controller.evaluate();
+        boolean pausedWhileOpen = controller.isPaused();
+        circuitBreakerRegistry.circuitBreaker("c360Sync").transitionToHalfOpenState();
+
+        // Assert
+        assertTrue(pausedWhileOpen);
+        assertFalse(controller.isPaused(), "the transition out of OPEN should resume immediately");
+        verify(container, times(1)).pause();
+        verify(container, times(1)).resume();
+        assertEquals(1, meterRegistry.get("cards.consumer.backpressure.pauses").tag("reason", "breaker_open")
+                .counter().count());
+    }
+
+    @Test
+    void evaluate_BreakerOpenWithAutomaticHalfOpen_ShouldPauseRetryListenersUntilHalfOpen() {
+        // Arrange
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .waitDurationInOpenState(Duration.ofHours(1))
+                .build());
+        controller = new SyncBackpressureController(listenerRegistry, c360SyncService, circuitBreakerRegistry,
+                meterRegistry, 100, 2000);
+        MessageListenerContainer retryContainer = mock(MessageListenerContainer.class);
+        MessageListenerContainer criticalRetryContainer = mock(MessageListenerContainer.class);
+        when(listenerRegistry.getListenerContainer(CardRetryConsumer.LISTENER_ID)).thenReturn(retryContainer);
+        when(listenerRegistry.getListenerContainer(CardRetryConsumer.CRITICAL_LISTENER_ID))
+                .thenReturn(criticalRetryContainer);
+        when(retryContainer.isRunning()).thenReturn(true);
+        when(criticalRetryContainer.isRunning()).thenReturn(true);
+        when(c360SyncService.inFlightSyncs()).thenReturn(0);
+
+        // Act
+        circuitBreakerRegistry.circuitBreaker("c360Sync").transitionToOpenState();
+        boolean pausedWhileOpen = controller.isRetryListenersPaused();
+        circuitBreakerRegistry.circuitBreaker("c360Sync").transitionToHalfOpenState();
+
+        // Assert
+        assertTrue(pausedWhileOpen);
+        assertFalse(controller.isRetryListenersPaused());
+        verify(retryContainer).pause();
+        verify(retryContainer).resume();
+        verify(criticalRetryContainer).pause();
+        verify(criticalRetryContainer).resume();
+    }
+
+    @Test
+    void initWatermarks_Unset_ShouldDeriveFromC360ConnectionCapacity() {
+        // Arrange
+        SyncBackpressureController derived = new SyncBackpressureController(listenerRegistry, c360SyncService,
+                circuitBreakerRegistry, meterRegistry, 100, 2000);
+
+        // Act
+        derived.initWatermarks();
+
+        // Assert
+        assertEquals(1050, ReflectionTestUtils.getField(derived, "highWatermark"));
+        assertEquals(210, ReflectionTestUtils.getField(derived, "lowWatermark"));
+    }
+
+    @Test
+    void initWatermarks_HighWatermarkAboveConnectionCapacity_ShouldFailStartup() {
+        // Arrange
+        SyncBackpressureController oversized = new SyncBackpressureController(listenerRegistry, c360SyncService,
+                circuitBreakerRegistry, meterRegistry, 100, 300);
+        ReflectionTestUtils.setField(oversized, "highWatermark", 500);
+        ReflectionTestUtils.setField(oversized, "lowWatermark", 100);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, oversized::initWatermarks);
+    }
+}
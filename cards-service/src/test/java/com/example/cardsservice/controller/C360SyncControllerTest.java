@@ -3,6 +3,9 @@ package com.example.cardsservice.controller;
 import com.example.cardsservice.entity.Card;
 import com.example.cardsservice.repository.CardRepository;
 import com.example.cardsservice.service.C360SyncService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +24,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -124,6 +128,26 @@ class C360SyncControllerTest {
                 .andExpect(jsonPath("$.currentPage").value(0));
     }
 
+    @Test
+    void getPendingSyncCards_AcceptCbor_ShouldReturnCbor() throws Exception {
+        // Arrange
+        Page<Card> page = new PageImpl<>(List.of(testCard), PageRequest.of(0, 50), 1);
+        when(cardRepository.findBySyncPending(eq(true), any(PageRequest.class))).thenReturn(page);
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/cards/sync/pending")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1, response.get("totalElements").asInt());
+        assertEquals("tok_test_123", response.get("cards").get(0).get("tokenRef").asText());
+        assertEquals(2, response.get("cards").get(0).get("syncRetryCount").asInt());
+    }
+
     @Test
     void manualSyncAllPending_ShouldProcessMultipleCards() throws Exception {
         // Arrange
@@ -143,9 +167,9 @@ class C360SyncControllerTest {
         Page<Card> page = new PageImpl<>(cards, PageRequest.of(0, 100), 3);
 
         when(cardRepository.findBySyncPending(eq(true), any(PageRequest.class))).thenReturn(page);
-        when(c360SyncService.syncToC360(card1)).thenReturn(CompletableFuture.completedFuture(true));
-        when(c360SyncService.syncToC360(card2)).thenReturn(CompletableFuture.completedFuture(true));
-        when(c360SyncService.syncToC360(card3)).thenReturn(CompletableFuture.completedFuture(false));
+        when(c360SyncService.resync(card1)).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.resync(card2)).thenReturn(CompletableFuture.completedFuture(true));
+        when(c360SyncService.resync(card3)).thenReturn(CompletableFuture.completedFuture(false));
 
         // Act & Assert
         mockMvc.perform(post("/api/cards/sync/manual/all")
@@ -1,18 +1,33 @@
 package com.example.cardsservice.controller;
 
 import com.example.cardsservice.service.CardIntegrationService;
+import com.example.cardsservice.service.CardListResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CardController.class)
@@ -24,14 +39,92 @@ class CardControllerTest {
     @MockBean
     private CardIntegrationService cardIntegrationService;
 
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @TestConfiguration
+    static class CircuitBreakers {
+
+        @Bean
+        CircuitBreakerRegistry circuitBreakerRegistry() {
+            return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                    .waitDurationInOpenState(Duration.ofSeconds(10))
+                    .build());
+        }
+    }
+
     @Test
     void getCards_ShouldReturnList() throws Exception {
-        when(cardIntegrationService.getCards(anyString())).thenReturn(Collections.emptyList());
+        when(cardIntegrationService.getCards(anyLong())).thenReturn(CardListResult.current("[]".getBytes(StandardCharsets.UTF_8)));
 
         mockMvc.perform(get("/cards")
                 .header("X-Mobile-Number", "1234567890")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Cards-Stale"));
+    }
+
+    @Test
+    void getCards_DegradedList_ShouldReturnStalenessHeaders() throws Exception {
+        when(cardIntegrationService.getCards(anyLong())).thenReturn(CardListResult.degraded(
+                "[]".getBytes(StandardCharsets.UTF_8), 42, List.of("lifecycleStatus")));
+
+        mockMvc.perform(get("/cards")
+                .header("X-Mobile-Number", "1234567890"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cards-Stale", "true"))
+                .andExpect(header().string("Age", "42"))
+                .andExpect(header().string("X-Cards-Omitted-Fields", "lifecycleStatus"));
+    }
+
+    @Test
+    void getCards_AcceptCbor_ShouldReturnCbor() throws Exception {
+        when(cardIntegrationService.getCards(anyLong())).thenReturn(CardListResult.current(
+                "[{\"last4\":\"1111\"}]".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] body = mockMvc.perform(get("/cards")
+                .header("X-Mobile-Number", "1234567890")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode cards = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals("1111", cards.get(0).get("last4").asText());
+    }
+
+    @Test
+    void getCards_AnyMediaType_ShouldDefaultToJson() throws Exception {
+        when(cardIntegrationService.getCards(anyLong())).thenReturn(CardListResult.current(
+                "[]".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/cards")
+                .header("X-Mobile-Number", "1234567890")
+                .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void getCards_InvalidMobileNumber_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/cards")
+                .header("X-Mobile-Number", "12345")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cardIntegrationService);
+    }
+
+    @Test
+    void getCards_BreakerOpen_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        when(cardIntegrationService.getCards(anyLong())).thenThrow(
+                CallNotPermittedException.createCallNotPermittedException(circuitBreakerRegistry.circuitBreaker("cardsDb")));
+
+        mockMvc.perform(get("/cards")
+                .header("X-Mobile-Number", "1234567890"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "10"));
     }
 
     @Test
@@ -0,0 +1,112 @@
+package com.example.cardsservice.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrRecordingEndpoint();
+        ReflectionTestUtils.setField(endpoint, "dumpDir", tempDir.toString());
+        ReflectionTestUtils.setField(endpoint, "maxRecordings", 1);
+        ReflectionTestUtils.setField(endpoint, "maxDurationSeconds", 60L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Map<String, Object> recording : endpoint.recordings()) {
+            long id = (Long) recording.get("id");
+            if ("RUNNING".equals(recording.get("state"))) {
+                endpoint.stop(id);
+            }
+            endpoint.stop(id);
+        }
+    }
+
+    @Test
+    void startStopDownload_ShouldCaptureCardEvents() throws Exception {
+        // Arrange
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start("test", 3600L, null, null);
+        assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+        long id = (Long) started.getBody().get("id");
+        assertEquals(60L, started.getBody().get("durationSeconds"));
+
+        CardIngestEvent event = new CardIngestEvent();
+        event.begin();
+        event.partition = 2;
+        event.tokenRef = "tok_jfr";
+        event.outcome = "saved";
+        event.commit();
+
+        // Act
+        assertEquals("STOPPED", endpoint.stop(id).getBody().get("state"));
+        WebEndpointResponse<Resource> download = endpoint.download(id);
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath());
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.example.cards.Ingest")
+                && "tok_jfr".equals(e.getString("tokenRef")) && e.getInt("partition") == 2));
+    }
+
+    @Test
+    void start_BeyondMaxRecordings_ShouldBeRejected() throws Exception {
+        // Arrange
+        endpoint.start("first", null, null, null);
+
+        // Act
+        WebEndpointResponse<Map<String, Object>> second = endpoint.start("second", null, null, null);
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, second.getStatus());
+    }
+
+    @Test
+    void start_NameWithPathSegments_ShouldBeRejected() throws Exception {
+        // Act
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start("../../etc/cron.d/x", null, null, null);
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, started.getStatus());
+        assertTrue(endpoint.recordings().isEmpty());
+    }
+
+    @Test
+    void download_ShouldWriteInsideDumpDir() throws Exception {
+        // Arrange
+        long id = (Long) endpoint.start("test", null, null, null).getBody().get("id");
+        endpoint.stop(id);
+
+        // Act
+        WebEndpointResponse<Resource> download = endpoint.download(id);
+
+        // Assert
+        Path file = download.getBody().getFile().toPath();
+        assertEquals(tempDir.toAbsolutePath().normalize(), file.getParent());
+        assertEquals("cards-recording-" + id + ".jfr", file.getFileName().toString());
+    }
+
+    @Test
+    void download_UnknownRecording_ShouldReturnNotFound() throws Exception {
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.download(-1).getStatus());
+    }
+}
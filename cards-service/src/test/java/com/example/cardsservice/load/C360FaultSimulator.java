@@ -0,0 +1,176 @@
+package com.example.cardsservice.load;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scriptable C360 stand-in for MockWebServer. A script is a list of timed phases, each
+ * with a log-normal latency distribution (median and p99), an error rate answered with
+ * 503 and a timeout rate where no response is ever sent. The last phase stays in effect
+ * once the script has run out, so a healthy tail phase models recovery.
+ */
+class C360FaultSimulator extends Dispatcher {
+
+    private static final Pattern TOKEN_REF = Pattern.compile("\"tokenRef\":\"([^\"]+)\"");
+    private static final double Z_99 = 2.326;
+
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> firstAckAt = new ConcurrentHashMap<>();
+    private final Map<String, PhaseStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong totalRequests = new AtomicLong();
+    private volatile long startedAt;
+
+    /**
+     * Starts a new script, clearing everything recorded by a previous run.
+     */
+    void start(List<Phase> script) {
+        phases.clear();
+        phases.addAll(script);
+        firstAckAt.clear();
+        stats.clear();
+        totalRequests.set(0);
+        startedAt = System.currentTimeMillis();
+    }
+
+    long startedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Offset from {@link #start(List)} at which the named phase begins.
+     */
+    long phaseOffsetMs(String name) {
+        long offset = 0;
+        for (Phase phase : phases) {
+            if (phase.name.equals(name)) {
+                return offset;
+            }
+            offset += phase.durationMs;
+        }
+        throw new IllegalArgumentException("Unknown phase: " + name);
+    }
+
+    Map<String, Long> firstAckAt() {
+        return firstAckAt;
+    }
+
+    long totalRequests() {
+        return totalRequests.get();
+    }
+
+    Map<String, Object> phaseReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Phase phase : phases) {
+            PhaseStats phaseStats = stats.get(phase.name);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("durationMs", phase.durationMs);
+            entry.put("requests", phaseStats == null ? 0 : phaseStats.requests.get());
+            entry.put("acked", phaseStats == null ? 0 : phaseStats.acked.get());
+            entry.put("errors", phaseStats == null ? 0 : phaseStats.errors.get());
+            entry.put("timeouts", phaseStats == null ? 0 : phaseStats.timeouts.get());
+            if (phase.durationMs > 0 && phaseStats != null) {
+                entry.put("ackedPerSecond", phaseStats.acked.get() * 1000.0 / phase.durationMs);
+            }
+            report.put(phase.name, entry);
+        }
+        return report;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        Phase phase = currentPhase();
+        PhaseStats phaseStats = stats.computeIfAbsent(phase.name, name -> new PhaseStats());
+        totalRequests.incrementAndGet();
+        phaseStats.requests.incrementAndGet();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < phase.timeoutRate) {
+            phaseStats.timeouts.incrementAndGet();
+            return new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE);
+        }
+
+        long latencyMs = phase.sampleLatencyMs(random);
+        if (random.nextDouble() < phase.errorRate) {
+            phaseStats.errors.incrementAndGet();
+            return new MockResponse().setResponseCode(503).setHeadersDelay(latencyMs, TimeUnit.MILLISECONDS);
+        }
+
+        phaseStats.acked.incrementAndGet();
+        Matcher matcher = TOKEN_REF.matcher(request.getBody().readUtf8());
+        if (matcher.find()) {
+            firstAckAt.putIfAbsent(matcher.group(1), System.currentTimeMillis() + latencyMs);
+        }
+        return new MockResponse().setResponseCode(200).setHeadersDelay(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Phase currentPhase() {
+        long elapsed = System.currentTimeMillis() - startedAt;
+        for (Phase phase : phases) {
+            if (elapsed < phase.durationMs) {
+                return phase;
+            }
+            elapsed -= phase.durationMs;
+        }
+        return phases.get(phases.size() - 1);
+    }
+
+    static final class Phase {
+
+        private final String name;
+        private final long durationMs;
+        private double medianLatencyMs = 20;
+        private double p99LatencyMs = 60;
+        private double errorRate;
+        private double timeoutRate;
+
+        private Phase(String name, long durationMs) {
+            this.name = name;
+            this.durationMs = durationMs;
+        }
+
+        static Phase of(String name, long durationMs) {
+            return new Phase(name, durationMs);
+        }
+
+        Phase latency(double medianMs, double p99Ms) {
+            this.medianLatencyMs = medianMs;
+            this.p99LatencyMs = Math.max(p99Ms, medianMs);
+            return this;
+        }
+
+        Phase errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        Phase timeoutRate(double timeoutRate) {
+            this.timeoutRate = timeoutRate;
+            return this;
+        }
+
+        private long sampleLatencyMs(ThreadLocalRandom random) {
+            double sigma = Math.log(p99LatencyMs / medianLatencyMs) / Z_99;
+            return Math.round(medianLatencyMs * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    private static final class PhaseStats {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong acked = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+    }
+}
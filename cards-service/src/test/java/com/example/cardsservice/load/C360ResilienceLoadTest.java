@@ -0,0 +1,225 @@
+package com.example.cardsservice.load;
+
+import com.example.cardsservice.load.C360FaultSimulator.Phase;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Degraded-dependency scenarios for the C360 sync path. A {@link C360FaultSimulator}
+ * scripts healthy, degraded and recovery phases while events flow at a constant rate
+ * through the real consumer, backoff, {@code c360Sync} breaker, retry topic and DLQ.
+ * <p>
+ * Each scenario reports goodput per phase, breaker transitions relative to the start of
+ * the script, retry-topic and DLQ volume, C360 request amplification and the time to
+ * drain the backlog once C360 recovers. Run with {@code mvn -pl cards-service test -Pload-test}.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "c360.client.response-timeout-ms=1000",
+        // Every failed attempt logs at ERROR; keep the console readable during incidents
+        "logging.level.com.example.cardsservice=OFF"
+})
+@EmbeddedKafka(partitions = 3, topics = { "card-events", "card-events-retry", "card-events-dlq" })
+@DirtiesContext
+class C360ResilienceLoadTest {
+
+    private static final String TOPIC = "card-events";
+    private static final String RECOVERY = "recovery";
+
+    private static final long RATE_PER_SECOND = LoadTestReport.intProperty("loadtest.rate-per-second", 50);
+    private static final long DRAIN_TIMEOUT_SECONDS = LoadTestReport.intProperty("loadtest.timeout-seconds", 180);
+    private static final long TARGET_DRAIN_MS = LoadTestReport.intProperty("loadtest.target.drain-ms", 60_000);
+    private static final long TARGET_BREAKER_OPEN_MS = LoadTestReport.intProperty("loadtest.target.breaker-open-ms", 5_000);
+    // One full in-process attempt chain (1 + c360.sync.max-retries) per card
+    private static final long TARGET_MAX_AMPLIFICATION = LoadTestReport.intProperty("loadtest.target.max-amplification", 4);
+    private static final long TARGET_MAX_RETRY_PUSHES = LoadTestReport.intProperty("loadtest.target.max-retry-pushes-per-event", 2);
+
+    private static final C360FaultSimulator simulator = new C360FaultSimulator();
+    private static final MockWebServer c360 = new MockWebServer();
+
+    private final List<Map<String, Object>> transitions = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void c360Properties(DynamicPropertyRegistry registry) throws IOException {
+        c360.setDispatcher(simulator);
+        c360.start();
+        registry.add("profile360.url", () -> c360.url("/profile360").toString());
+    }
+
+    @AfterAll
+    static void stopC360() throws IOException {
+        c360.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 3);
+        }
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("c360Sync");
+        breaker.reset();
+        breaker.getEventPublisher().onStateTransition(event -> {
+            Map<String, Object> transition = new LinkedHashMap<>();
+            transition.put("atMs", System.currentTimeMillis() - simulator.startedAt());
+            transition.put("transition", event.getStateTransition().name());
+            transitions.add(transition);
+        });
+    }
+
+    @Test
+    void brownout_ShouldKeepGoodputAndDrainAfterRecovery() throws Exception {
+        runScenario("c360-brownout", null,
+                Phase.of("healthy", 5_000),
+                Phase.of("brownout", 15_000).latency(200, 1_500).errorRate(0.3),
+                Phase.of(RECOVERY, 0));
+    }
+
+    @Test
+    void outage_ShouldOpenBreakerAndDrainAfterRecovery() throws Exception {
+        runScenario("c360-outage", "outage",
+                Phase.of("healthy", 5_000),
+                Phase.of("outage", 10_000).latency(5, 20).errorRate(1.0),
+                Phase.of(RECOVERY, 0));
+    }
+
+    @Test
+    void timeouts_ShouldOpenBreakerAndDrainAfterRecovery() throws Exception {
+        runScenario("c360-timeouts", "timeouts",
+                Phase.of("healthy", 5_000),
+                Phase.of("timeouts", 10_000).latency(500, 3_000).timeoutRate(0.6),
+                Phase.of(RECOVERY, 0));
+    }
+
+    /**
+     * @param breakerPhase phase expected to open the breaker, or {@code null} when it should ride through
+     */
+    private void runScenario(String name, String breakerPhase, Phase... script) throws Exception {
+        double retryPushesBefore = counter("c360.sync.retry_queue_push");
+        double dlqPushesBefore = counter("c360.sync.dlq_push");
+        double rejectedBefore = counter("c360.sync.breaker_rejected");
+        double pausedMsBefore = meterRegistry.get("cards.consumer.backpressure.paused").timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+
+        simulator.start(List.of(script));
+        long recoveryOffsetMs = simulator.phaseOffsetMs(RECOVERY);
+
+        // Offer constant load across the healthy and degraded phases
+        List<String> tokenRefs = new ArrayList<>();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE_PER_SECOND;
+        long start = System.nanoTime();
+        for (long i = 0; System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(recoveryOffsetMs); i++) {
+            long wait = start + i * intervalNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String tokenRef = "tok_" + name + "_" + i;
+            tokenRefs.add(tokenRef);
+            kafkaTemplate.send(TOPIC, tokenRef, LoadTestEvents.event(tokenRef, i, System.currentTimeMillis()));
+        }
+        kafkaTemplate.flush();
+
+        Map<String, Long> acked = simulator.firstAckAt();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (!acked.keySet().containsAll(tokenRefs) && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+        }
+
+        long recoveryAt = simulator.startedAt() + recoveryOffsetMs;
+        long syncedCount = tokenRefs.stream().filter(acked::containsKey).count();
+        long lastAckAt = tokenRefs.stream().filter(acked::containsKey).mapToLong(acked::get).max().orElse(recoveryAt);
+        long drainMs = Math.max(0, lastAckAt - recoveryAt);
+        double amplification = (double) simulator.totalRequests() / tokenRefs.size();
+        long retryPushes = (long) (counter("c360.sync.retry_queue_push") - retryPushesBefore);
+        Long breakerOpenedAtMs = transitions.stream()
+                .filter(transition -> String.valueOf(transition.get("transition")).endsWith("_TO_OPEN"))
+                .map(transition -> (Long) transition.get("atMs"))
+                .findFirst()
+                .orElse(null);
+
+        LoadTestReport report = new LoadTestReport(name)
+                .put("producerRatePerSecond", RATE_PER_SECOND)
+                .put("eventsProduced", tokenRefs.size())
+                .put("eventsSynced", syncedCount)
+                .put("phases", simulator.phaseReport())
+                .put("c360Requests", simulator.totalRequests())
+                .put("c360RequestsPerEvent", amplification)
+                .put("retryTopicPushes", retryPushes)
+                .put("retryTopicPushesPerEvent", (double) retryPushes / tokenRefs.size())
+                .put("dlqPushes", (long) (counter("c360.sync.dlq_push") - dlqPushesBefore))
+                .put("breakerRejectedCalls", (long) (counter("c360.sync.breaker_rejected") - rejectedBefore))
+                .put("breakerTransitions", new ArrayList<>(transitions))
+                .put("consumerPausedMs", (long) (meterRegistry.get("cards.consumer.backpressure.paused").timer()
+                        .totalTime(TimeUnit.MILLISECONDS) - pausedMsBefore))
+                .put("recoveryAtMs", recoveryOffsetMs)
+                .put("timeToDrainMs", drainMs);
+
+        report.check("allEventsSynced", syncedCount == tokenRefs.size(),
+                syncedCount + " of " + tokenRefs.size() + " synced within " + DRAIN_TIMEOUT_SECONDS + "s");
+        report.check("timeToDrain", drainMs <= TARGET_DRAIN_MS,
+                drainMs + "ms after recovery, target " + TARGET_DRAIN_MS + "ms");
+        report.check("c360Amplification", amplification <= TARGET_MAX_AMPLIFICATION,
+                String.format("%.2f requests per event, target %d", amplification, TARGET_MAX_AMPLIFICATION));
+        report.check("retryTopicAmplification", retryPushes <= TARGET_MAX_RETRY_PUSHES * tokenRefs.size(),
+                String.format("%.2f retry-topic pushes per event, target %d",
+                        (double) retryPushes / tokenRefs.size(), TARGET_MAX_RETRY_PUSHES));
+        if (breakerPhase == null) {
+            report.check("breakerStayedClosed", breakerOpenedAtMs == null,
+                    "opened at " + breakerOpenedAtMs + "ms");
+        } else {
+            long degradedAtMs = simulator.phaseOffsetMs(breakerPhase);
+            report.check("breakerOpened", breakerOpenedAtMs != null
+                            && breakerOpenedAtMs - degradedAtMs <= TARGET_BREAKER_OPEN_MS,
+                    "opened at " + breakerOpenedAtMs + "ms, degradation at " + degradedAtMs
+                            + "ms, target " + TARGET_BREAKER_OPEN_MS + "ms");
+        }
+
+        Path file = report.write();
+        assertTrue(report.violations().isEmpty(),
+                "Resilience targets missed (report: " + file + "): " + String.join("; ", report.violations()));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.cardsservice.load;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end ingestion load test against the HLD targets: 50k events/min, event to
+ * persist under 500ms and C360 propagation within 5s. Events are produced to an
+ * embedded {@code card-events} topic at a fixed rate, persisted to H2 by the real
+ * consumer and synced to a MockWebServer C360 stand-in.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -pl cards-service test -Pload-test}.
+ * Volume, rate and targets are tunable with {@code -Dloadtest.*} system properties.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "logging.level.com.example.cardsservice=WARN"
+})
+@EmbeddedKafka(partitions = 3, topics = { "card-events", "card-events-retry", "card-events-dlq" })
+@DirtiesContext
+class IngestionLoadTest {
+
+    private static final String TOPIC = "card-events";
+    private static final String GROUP = "card-repo-group";
+    private static final Pattern TOKEN_REF = Pattern.compile("\"tokenRef\":\"([^\"]+)\"");
+
+    private static final long EVENTS = LoadTestReport.intProperty("loadtest.events", 15_000);
+    private static final long WARMUP_EVENTS = LoadTestReport.intProperty("loadtest.warmup-events", 1_000);
+    private static final long RATE_PER_SECOND = LoadTestReport.intProperty("loadtest.rate-per-second", 1_000);
+    private static final long C360_LATENCY_MS = LoadTestReport.intProperty("loadtest.c360-latency-ms", 20);
+    private static final long TIMEOUT_SECONDS = LoadTestReport.intProperty("loadtest.timeout-seconds", 180);
+    private static final long TARGET_EVENTS_PER_MINUTE = LoadTestReport.intProperty("loadtest.target.events-per-minute", 50_000);
+    private static final long TARGET_PERSIST_P99_MS = LoadTestReport.intProperty("loadtest.target.persist-p99-ms", 500);
+    private static final long TARGET_C360_P99_MS = LoadTestReport.intProperty("loadtest.target.c360-p99-ms", 5_000);
+
+    private static final Map<String, Long> c360AckedAt = new ConcurrentHashMap<>();
+    private static final MockWebServer c360 = new MockWebServer();
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void c360Properties(DynamicPropertyRegistry registry) throws IOException {
+        c360.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher matcher = TOKEN_REF.matcher(request.getBody().readUtf8());
+                if (matcher.find()) {
+                    c360AckedAt.putIfAbsent(matcher.group(1), System.currentTimeMillis() + C360_LATENCY_MS);
+                }
+                return new MockResponse().setResponseCode(200)
+                        .setHeadersDelay(C360_LATENCY_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+        c360.start();
+        registry.add("profile360.url", () -> c360.url("/profile360").toString());
+    }
+
+    @AfterAll
+    static void stopC360() throws IOException {
+        c360.shutdown();
+    }
+
+    @Test
+    void ingestion_ShouldMeetHldThroughputAndLatencyTargets() throws Exception {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 3);
+        }
+        warmUp();
+
+        Map<String, Long> sentAt = new ConcurrentHashMap<>();
+        List<Long> lagSamples = new ArrayList<>();
+        AtomicLong maxLag = new AtomicLong();
+
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            ScheduledExecutorService lagSampler = Executors.newSingleThreadScheduledExecutor();
+            lagSampler.scheduleAtFixedRate(() -> {
+                long lag = consumerLag(admin);
+                synchronized (lagSamples) {
+                    lagSamples.add(lag);
+                }
+                maxLag.accumulateAndGet(lag, Math::max);
+            }, 0, 250, TimeUnit.MILLISECONDS);
+
+            // Produce at a fixed rate so latency reflects steady state rather than a burst backlog
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE_PER_SECOND;
+            long start = System.nanoTime();
+            long firstSendMs = System.currentTimeMillis();
+            for (long i = 0; i < EVENTS; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String tokenRef = "tok_load_" + i;
+                long now = System.currentTimeMillis();
+                sentAt.put(tokenRef, now);
+                kafkaTemplate.send(TOPIC, tokenRef, LoadTestEvents.event(tokenRef, i, now));
+            }
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while ((cardRepository.count() < WARMUP_EVENTS + EVENTS
+                    || c360AckedAt.size() < WARMUP_EVENTS + EVENTS) && System.nanoTime() < deadline) {
+                Thread.sleep(200);
+            }
+            lagSampler.shutdownNow();
+
+            List<Card> cards = cardRepository.findAll();
+            long[] persistLatencies = cards.stream()
+                    .filter(card -> sentAt.containsKey(card.getTokenRef()))
+                    .mapToLong(card -> LoadTestEvents.toEpochMillis(card.getCreatedAt()) - sentAt.get(card.getTokenRef()))
+                    .toArray();
+            long[] c360Latencies = c360AckedAt.entrySet().stream()
+                    .filter(entry -> sentAt.containsKey(entry.getKey()))
+                    .mapToLong(entry -> entry.getValue() - sentAt.get(entry.getKey()))
+                    .toArray();
+            long lastPersistMs = cards.stream()
+                    .filter(card -> sentAt.containsKey(card.getTokenRef()))
+                    .mapToLong(card -> LoadTestEvents.toEpochMillis(card.getCreatedAt())).max().orElse(firstSendMs);
+            double seconds = Math.max(1, lastPersistMs - firstSendMs) / 1000.0;
+            double eventsPerMinute = persistLatencies.length * 60 / seconds;
+
+            Map<String, Object> persist = LoadTestReport.percentiles(persistLatencies);
+            Map<String, Object> c360Ack = LoadTestReport.percentiles(c360Latencies);
+            List<Long> lags;
+            synchronized (lagSamples) {
+                lags = new ArrayList<>(lagSamples);
+            }
+
+            LoadTestReport report = new LoadTestReport("ingestion-load")
+                    .put("warmupEvents", WARMUP_EVENTS)
+                    .put("eventsProduced", EVENTS)
+                    .put("producerRatePerSecond", RATE_PER_SECOND)
+                    .put("eventsPersisted", persistLatencies.length)
+                    .put("eventsAckedByC360", c360Latencies.length)
+                    .put("durationSeconds", seconds)
+                    .put("eventsPerSecond", persistLatencies.length / seconds)
+                    .put("eventsPerMinute", eventsPerMinute)
+                    .put("eventToPersist", persist)
+                    .put("eventToC360Ack", c360Ack)
+                    .put("ingestStagesMeanMs", stageMeans())
+                    .put("consumerLag", Map.of(
+                            "max", maxLag.get(),
+                            "p95", LoadTestReport.percentile(lags.stream().mapToLong(Long::longValue).sorted().toArray(), 0.95),
+                            "samples", lags.size()));
+
+            report.check("allEventsPersisted", persistLatencies.length == EVENTS,
+                    persistLatencies.length + " of " + EVENTS + " persisted");
+            report.check("allEventsSyncedToC360", c360Latencies.length == EVENTS,
+                    c360Latencies.length + " of " + EVENTS + " acknowledged");
+            report.check("throughput", eventsPerMinute >= TARGET_EVENTS_PER_MINUTE,
+                    String.format("%.0f events/min, target %d", eventsPerMinute, TARGET_EVENTS_PER_MINUTE));
+            report.check("eventToPersistP99", (long) persist.get("p99Ms") <= TARGET_PERSIST_P99_MS,
+                    persist.get("p99Ms") + "ms, target " + TARGET_PERSIST_P99_MS + "ms");
+            report.check("eventToC360AckP99", (long) c360Ack.get("p99Ms") <= TARGET_C360_P99_MS,
+                    c360Ack.get("p99Ms") + "ms, target " + TARGET_C360_P99_MS + "ms");
+
+            Path file = report.write();
+            assertTrue(report.violations().isEmpty(),
+                    "Load targets missed (report: " + file + "): " + String.join("; ", report.violations()));
+        }
+    }
+
+    /**
+     * Mean time per ingestion stage, including warm-up, from the consumer's own timers.
+     */
+    private Map<String, Object> stageMeans() {
+        Map<String, Object> means = new java.util.LinkedHashMap<>();
+        for (Timer timer : meterRegistry.find("cards.ingest.stage.duration").timers()) {
+            means.put(timer.getId().getTag("stage"), timer.mean(TimeUnit.MILLISECONDS));
+        }
+        return means;
+    }
+
+    /**
+     * Pushes a batch through the whole pipeline first so JIT, connection pools and
+     * Hibernate metadata are warm; warm-up cards are excluded from the measurements.
+     */
+    private void warmUp() throws InterruptedException {
+        for (long i = 0; i < WARMUP_EVENTS; i++) {
+            String tokenRef = "tok_warmup_" + i;
+            kafkaTemplate.send(TOPIC, tokenRef, LoadTestEvents.event(tokenRef, i, System.currentTimeMillis()));
+        }
+        kafkaTemplate.flush();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while ((cardRepository.count() < WARMUP_EVENTS || c360AckedAt.size() < WARMUP_EVENTS)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+        }
+    }
+
+    private static long consumerLag(AdminClient admin) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(GROUP)
+                    .partitionsToOffsetAndMetadata().get(5, TimeUnit.SECONDS);
+            Map<TopicPartition, OffsetSpec> latestSpec = new java.util.HashMap<>();
+            for (int partition = 0; partition < 3; partition++) {
+                latestSpec.put(new TopicPartition(TOPIC, partition), OffsetSpec.latest());
+            }
+            return admin.listOffsets(latestSpec).all().get(5, TimeUnit.SECONDS).entrySet().stream()
+                    .collect(Collectors.summingLong(entry -> {
+                        OffsetAndMetadata offset = committed.get(entry.getKey());
+                        return entry.getValue().offset() - (offset == null ? 0 : offset.offset());
+                    }));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
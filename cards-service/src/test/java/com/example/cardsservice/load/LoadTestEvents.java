@@ -0,0 +1,30 @@
+package com.example.cardsservice.load;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CMS card-event payloads for the load and resilience suites.
+ */
+final class LoadTestEvents {
+
+    private LoadTestEvents() {
+    }
+
+    static String event(String tokenRef, long index, long eventTimeMs) {
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(eventTimeMs), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_DATE_TIME);
+        return "{\"tokenRef\":\"" + tokenRef + "\",\"maskedCardNumber\":\"4111xxxxxxxx1111\",\"last4\":\"1111\","
+                + "\"programCode\":\"PRG_001\",\"programCategory\":\"STANDARD\",\"network\":\"VISA\",\"bin\":\"411111\","
+                + "\"lifecycleStatus\":\"ACTIVE\",\"rawStatus\":\"OPEN\",\"customerMobileNumber\":\""
+                + (9_000_000_000L + index % 100_000) + "\",\"custId\":\"CUST_" + index + "\",\"accountNo\":\"ACC_"
+                + index + "\",\"issuedBySystem\":\"CMS_A\",\"issuanceChannel\":\"DIGITAL\",\"eventTimestamp\":\""
+                + timestamp + "\"}";
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
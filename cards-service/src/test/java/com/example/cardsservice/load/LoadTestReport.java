@@ -0,0 +1,86 @@
+package com.example.cardsservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a load or resilience run, written as JSON under
+ * {@code loadtest.report-dir} (default {@code target/load-reports}).
+ */
+class LoadTestReport {
+
+    private final String name;
+    private final Map<String, Object> results = new LinkedHashMap<>();
+    private final List<String> violations = new ArrayList<>();
+
+    LoadTestReport(String name) {
+        this.name = name;
+    }
+
+    LoadTestReport put(String key, Object value) {
+        results.put(key, value);
+        return this;
+    }
+
+    /**
+     * Records a target check; failed checks are listed in the report and fail the run.
+     */
+    void check(String target, boolean met, String detail) {
+        if (!met) {
+            violations.add(target + ": " + detail);
+        }
+    }
+
+    List<String> violations() {
+        return violations;
+    }
+
+    Path write() throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("name", name);
+        document.put("passed", violations.isEmpty());
+        document.put("violations", violations);
+        document.putAll(results);
+
+        Path dir = Path.of(System.getProperty("loadtest.report-dir", "target/load-reports"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name + ".json");
+        new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), document);
+        return file;
+    }
+
+    static Map<String, Object> percentiles(long[] valuesMs) {
+        long[] sorted = valuesMs.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sorted.length);
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p95Ms", percentile(sorted, 0.95));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        return summary;
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    static long intProperty(String name, long defaultValue) {
+        return Long.parseLong(System.getProperty(name, Long.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cardsservice.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.logstash.logback.argument.StructuredArgument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotPathLoggerTest {
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(HotPathLoggerTest.class);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldLog_WithSampleRate_ShouldAdmitOneLineInN() {
+        // Arrange
+        HotPathLogger.configure("test-sampled", 10, 0);
+        HotPathLogger hotLog = HotPathLogger.getLogger(HotPathLoggerTest.class, "test-sampled");
+
+        // Act
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (hotLog.shouldLog(Level.INFO)) {
+                admitted++;
+                hotLog.log(Level.INFO, "Saved card", "tokenRef", "tok_" + i);
+            }
+        }
+
+        // Assert
+        assertEquals(10, admitted);
+        assertEquals(10, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("sampleRate=10"));
+    }
+
+    @Test
+    void shouldLog_OverRateLimit_ShouldSuppressAndReportCountOnNextLine() {
+        // Arrange
+        HotPathLogger.configure("test-limited", 1, 5);
+        HotPathLogger hotLog = HotPathLogger.getLogger(HotPathLoggerTest.class, "test-limited");
+
+        // Act
+        int admitted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (hotLog.shouldLog(Level.INFO)) {
+                admitted++;
+            }
+        }
+        long suppressed = HotPathLogger.category("test-limited").suppressed();
+        hotLog.log(Level.INFO, "Syncing card to Customer360", "attempt", 1);
+
+        // Assert
+        assertTrue(admitted <= 10, "a window boundary may admit one more batch, got " + admitted);
+        assertEquals(50 - admitted, suppressed);
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals("Syncing card to Customer360 attempt=1 suppressed=" + suppressed, event.getFormattedMessage());
+        assertTrue(Arrays.stream(event.getArgumentArray()).allMatch(StructuredArgument.class::isInstance));
+        assertEquals(0, HotPathLogger.category("test-limited").suppressed());
+    }
+
+    @Test
+    void shouldLog_LevelDisabled_ShouldNotConsumeSamples() {
+        // Arrange
+        HotPathLogger.configure("test-disabled", 1, 1);
+        HotPathLogger hotLog = HotPathLogger.getLogger(HotPathLoggerTest.class, "test-disabled");
+
+        // Act & Assert
+        assertFalse(hotLog.shouldLog(Level.TRACE));
+        assertEquals(0, HotPathLogger.category("test-disabled").suppressed());
+        assertTrue(hotLog.shouldLog(Level.INFO));
+    }
+
+    @Test
+    void redactPayload_ShouldMaskCustomerIdentifiers() {
+        // Arrange
+        String payload = "{\"tokenRef\":\"tok_1\",\"customerMobileNumber\":\"9876543210\","
+                + "\"custId\":\"CUST001\",\"accountNo\":\"ACC123456\",\"maskedCardNumber\":\"4111XXXXXXXX1111\"}";
+
+        // Act
+        String redacted = LogRedaction.redactPayload(payload);
+
+        // Assert
+        assertEquals("{\"tokenRef\":\"tok_1\",\"customerMobileNumber\":\"****3210\","
+                + "\"custId\":\"****\",\"accountNo\":\"****3456\",\"maskedCardNumber\":\"****\"}", redacted);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cardsservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+// Each test drives its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardAttributeDictionaryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CardAttributeDictionary dictionary;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new CardAttributeDictionary(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM card_attribute_values WHERE attribute_value LIKE 'TEST_%'");
+    }
+
+    @Test
+    void encode_RolledBackTransaction_ShouldNotKeepTheCode() {
+        // Act
+        Integer code = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            Integer added = dictionary.encode("TEST_ROLLED_BACK");
+            assertEquals(added, dictionary.encode("TEST_ROLLED_BACK"));
+            assertEquals("TEST_ROLLED_BACK", dictionary.decode(added));
+            return added;
+        });
+
+        // Assert
+        assertNotNull(code);
+        assertNull(dictionary.find("TEST_ROLLED_BACK"));
+    }
+
+    @Test
+    void encode_CommittedTransaction_ShouldCacheTheCode() {
+        // Arrange
+        Integer code = transactionTemplate.execute(status -> dictionary.encode("TEST_COMMITTED"));
+        jdbcTemplate.update("DELETE FROM card_attribute_values WHERE attribute_value = 'TEST_COMMITTED'");
+
+        // Act & Assert
+        assertEquals(code, dictionary.find("TEST_COMMITTED"));
+        assertEquals("TEST_COMMITTED", dictionary.decode(code));
+    }
+
+    @Test
+    void encode_SpellingsDifferingInCase_ShouldKeepEach() {
+        // Act
+        Integer upper = dictionary.encode("TEST_ACTIVE");
+        Integer mixed = dictionary.encode("TEST_Active");
+
+        // Assert
+        assertNotEquals(upper, mixed);
+        assertEquals("TEST_Active", dictionary.decode(mixed));
+    }
+}
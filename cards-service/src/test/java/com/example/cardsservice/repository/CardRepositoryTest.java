@@ -0,0 +1,61 @@
+package com.example.cardsservice.repository;
+
+import com.example.cardsservice.entity.Card;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CardRepositoryTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void markSynced_SyncRequestedAgainSince_ShouldKeepSyncPending() {
+        // Arrange
+        LocalDateTime firstRequest = LocalDateTime.parse("2025-03-01T10:00:00");
+        Card acknowledged = cardRepository.saveAndFlush(card("tok_acknowledged", firstRequest));
+        Card requestedAgain = cardRepository.saveAndFlush(card("tok_requested_again", firstRequest));
+        // The copies the two syncs C360 acknowledged were started with
+        Card acknowledgedSync = card("tok_acknowledged", firstRequest);
+        acknowledgedSync.setId(acknowledged.getId());
+        Card olderSync = card("tok_requested_again", firstRequest);
+        olderSync.setId(requestedAgain.getId());
+
+        // A newer event asked for another sync, which C360 rejected
+        requestedAgain.setSyncRequestedAt(firstRequest.plusSeconds(1));
+        cardRepository.saveAndFlush(requestedAgain);
+        cardRepository.markSyncPending(List.of(requestedAgain.getId()));
+
+        // Act
+        int marked = cardRepository.markSynced(List.of(acknowledgedSync, olderSync), LocalDateTime.now());
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, marked);
+        assertFalse(cardRepository.findByTokenRef("tok_acknowledged").orElseThrow().isSyncPending());
+        assertTrue(cardRepository.findByTokenRef("tok_requested_again").orElseThrow().isSyncPending());
+    }
+
+    private static Card card(String tokenRef, LocalDateTime syncRequestedAt) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setMaskedCardNumber("4111xxxx1111");
+        card.setLast4("1111");
+        card.setSyncPending(true);
+        card.setSyncRequestedAt(syncRequestedAt);
+        return card;
+    }
+}
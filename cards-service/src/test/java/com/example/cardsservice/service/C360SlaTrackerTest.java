@@ -0,0 +1,129 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.entity.Card;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class C360SlaTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private C360SlaTracker slaTracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slaTracker = new C360SlaTracker(meterRegistry);
+    }
+
+    @Test
+    void recordAck_WithinSla_ShouldRecordWithoutBreach() {
+        // Arrange
+        Card card = card("tok_fast", LocalDateTime.now().minusSeconds(1));
+        slaTracker.track(card);
+
+        // Act
+        slaTracker.recordAck(card);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("c360.sync.sla").timer().count());
+        assertTrue(meterRegistry.find("c360.sync.sla.breach").counters().isEmpty());
+        assertEquals(0, meterRegistry.get("c360.sync.oldest_unsynced_age").timeGauge().value(TimeUnit.SECONDS), 1);
+    }
+
+    @Test
+    void recordAck_AfterRetryTopicHop_ShouldCountBreachByMostSevereCause() {
+        // Arrange
+        Card card = card("tok_slow", LocalDateTime.now().minusSeconds(30));
+        slaTracker.track(card);
+        slaTracker.recordFailure(card, WebClientResponseException.create(503, "Unavailable", null, null, null));
+        slaTracker.recordRetryTopic(card);
+        slaTracker.trackRetry(card);
+        slaTracker.recordFailure(card, WebClientResponseException.create(500, "Error", null, null, null));
+        assertTrue(meterRegistry.get("c360.sync.oldest_unsynced_age").timeGauge().value(TimeUnit.SECONDS) >= 29);
+
+        // Act
+        slaTracker.recordAck(card);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("c360.sync.sla.breach").tag("cause", "retry_topic").counter().count());
+        assertTrue(meterRegistry.get("c360.sync.sla").timer().max(TimeUnit.SECONDS) >= 30);
+    }
+
+    @Test
+    void recordRetryTopic_ShouldStopTrackingHandedOffChange() {
+        // Arrange
+        Card handedOff = card("tok_hop", LocalDateTime.now().minusSeconds(30));
+        Card rejected = card("tok_rejected", LocalDateTime.now().minusSeconds(20));
+        slaTracker.track(handedOff);
+        slaTracker.track(rejected);
+
+        // Act
+        slaTracker.recordRetryTopic(handedOff);
+        slaTracker.recordRejected(rejected);
+
+        // Assert
+        assertEquals(0, meterRegistry.get("c360.sync.oldest_unsynced_age").timeGauge().value(TimeUnit.SECONDS), 1);
+    }
+
+    @Test
+    void expireStale_ShouldDropChangesPastExpiry() {
+        // Arrange
+        ReflectionTestUtils.setField(slaTracker, "pendingExpiryMs", 60_000L);
+        slaTracker.track(card("tok_lost", LocalDateTime.now().minusMinutes(5)));
+        slaTracker.track(card("tok_recent", LocalDateTime.now().minusSeconds(10)));
+
+        // Act
+        slaTracker.expireStale();
+
+        // Assert
+        assertEquals(10, meterRegistry.get("c360.sync.oldest_unsynced_age").timeGauge().value(TimeUnit.SECONDS), 1);
+    }
+
+    @Test
+    void recordAbandoned_ShouldAlwaysBreach() {
+        // Arrange
+        Card card = card("tok_dlq", LocalDateTime.now());
+        slaTracker.track(card);
+
+        // Act
+        slaTracker.recordAbandoned(card);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("c360.sync.sla.breach").tag("cause", "latency").counter().count());
+    }
+
+    @Test
+    void classify_ShouldMapErrorsToCauses() {
+        assertEquals(C360SlaTracker.Cause.BREAKER_OPEN, C360SlaTracker.classify(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("c360Sync"))));
+        assertEquals(C360SlaTracker.Cause.SERVER_ERROR, C360SlaTracker.classify(
+                WebClientResponseException.create(HttpStatus.BAD_GATEWAY.value(), "Bad Gateway", null, null, null)));
+        assertEquals(C360SlaTracker.Cause.CLIENT_ERROR, C360SlaTracker.classify(
+                WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request", null, null, null)));
+        assertEquals(C360SlaTracker.Cause.TIMEOUT, C360SlaTracker.classify(new WebClientRequestException(
+                ReadTimeoutException.INSTANCE, org.springframework.http.HttpMethod.POST, URI.create("http://c360"),
+                new org.springframework.http.HttpHeaders())));
+        assertEquals(C360SlaTracker.Cause.ERROR, C360SlaTracker.classify(new IllegalStateException("boom")));
+    }
+
+    private static Card card(String tokenRef, LocalDateTime syncRequestedAt) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setSyncRequestedAt(syncRequestedAt);
+        return card;
+    }
+}
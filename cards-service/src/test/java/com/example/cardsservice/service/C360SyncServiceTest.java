@@ -2,26 +2,45 @@ package com.example.cardsservice.service;
 
 import com.example.cardsservice.dto.CardEventDto;
 import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.executor.SyncExecutors;
+import com.example.cardsservice.executor.SyncPendingRejectionPolicy;
+import com.example.cardsservice.executor.SyncPriority;
+import com.example.cardsservice.producer.SyncFailureProducer;
 import com.example.cardsservice.repository.CardRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,18 +49,21 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class C360SyncServiceTest {
 
+    private static final byte[] PAYLOAD = "{\"tokenRef\":\"tok_test_123\"}".getBytes(StandardCharsets.UTF_8);
+
     private MockWebServer mockWebServer;
 
     @Mock
     private CardRepository cardRepository;
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SyncFailureProducer syncFailureProducer;
 
     @Mock
     private ObjectMapper objectMapper;
 
     private C360SyncService c360SyncService;
+    private io.micrometer.core.instrument.MeterRegistry meterRegistry;
     private Card testCard;
 
     @BeforeEach
@@ -55,13 +77,15 @@ class C360SyncServiceTest {
 
         // Create mock Tracer and MeterRegistry
         io.micrometer.tracing.Tracer tracer = mock(io.micrometer.tracing.Tracer.class);
-        io.micrometer.core.instrument.MeterRegistry meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
+        meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
 
-        c360SyncService = new C360SyncService(webClient, cardRepository, kafkaTemplate, objectMapper, tracer,
-                meterRegistry);
+        c360SyncService = new C360SyncService(webClient, webClient, cardRepository, syncFailureProducer, objectMapper, tracer,
+                meterRegistry, CircuitBreakerRegistry.ofDefaults(), new C360SlaTracker(meterRegistry),
+                SyncExecutors.callerRuns());
 
         ReflectionTestUtils.setField(c360SyncService, "profile360Url", mockWebServer.url("/").toString());
         ReflectionTestUtils.setField(c360SyncService, "retryTopic", "card-events-retry");
+        ReflectionTestUtils.setField(c360SyncService, "criticalRetryTopic", "card-events-retry-critical");
         ReflectionTestUtils.setField(c360SyncService, "maxRetries", 3);
         ReflectionTestUtils.setField(c360SyncService, "initialDelayMs", 10L); // Short delay for tests
 
@@ -83,18 +107,18 @@ class C360SyncServiceTest {
     void syncToC360_Success_ShouldReturnTrue() throws ExecutionException, InterruptedException {
         // Arrange
         mockWebServer.enqueue(new MockResponse().setResponseCode(200));
-        when(cardRepository.save(any(Card.class))).thenReturn(testCard);
 
         // Act
         CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard);
 
         // Assert
         assertTrue(result.get());
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verify(syncFailureProducer, never()).send(anyString(), anyString(), any(byte[].class), anyMap());
+        assertNotNull(testCard.getLastSyncAttempt());
 
-        ArgumentCaptor<Card> cardCaptor = ArgumentCaptor.forClass(Card.class);
-        verify(cardRepository, times(1)).save(cardCaptor.capture());
-        assertNotNull(cardCaptor.getValue().getLastSyncAttempt());
+        c360SyncService.flushSyncedMarks();
+        verify(cardRepository).markSynced(eq(List.of(testCard)), any(LocalDateTime.class));
+        verify(cardRepository, never()).save(any(Card.class));
     }
 
     @Test
@@ -104,16 +128,15 @@ class C360SyncServiceTest {
         mockWebServer.enqueue(new MockResponse().setResponseCode(500));
         mockWebServer.enqueue(new MockResponse().setResponseCode(200));
 
-        when(cardRepository.save(any(Card.class))).thenReturn(testCard);
-
         // Act
         CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard);
 
         // Assert
         assertTrue(result.get());
         assertEquals(3, mockWebServer.getRequestCount());
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        verify(syncFailureProducer, never()).send(anyString(), anyString(), any(byte[].class), anyMap());
+        c360SyncService.flushSyncedMarks();
+        verify(cardRepository, times(1)).markSynced(eq(List.of(testCard)), any(LocalDateTime.class));
     }
 
     @Test
@@ -125,7 +148,9 @@ class C360SyncServiceTest {
         mockWebServer.enqueue(new MockResponse().setResponseCode(500));
         mockWebServer.enqueue(new MockResponse().setResponseCode(500));
 
-        when(objectMapper.writeValueAsString(any(CardEventDto.class))).thenReturn("{\"tokenRef\":\"tok_test_123\"}");
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // Act
         CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard);
@@ -135,7 +160,257 @@ class C360SyncServiceTest {
         // Should be called 4 times: 1 initial + 3 retries
         assertEquals(4, mockWebServer.getRequestCount());
 
-        verify(kafkaTemplate, times(1)).send(eq("card-events-retry"), eq("tok_test_123"), anyString());
+        verify(syncFailureProducer, times(1)).send(eq("card-events-retry"), eq("tok_test_123"), any(byte[].class), anyMap());
+        verify(cardRepository, never()).save(any(Card.class));
+    }
+
+    @Test
+    void syncToC360_RetryThenSuccess_ShouldRecordOnlyFirstAttemptWithBreaker()
+            throws ExecutionException, InterruptedException {
+        // Arrange
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        C360SyncService service = new C360SyncService(WebClient.create(), WebClient.create(), cardRepository,
+                syncFailureProducer, objectMapper, mock(io.micrometer.tracing.Tracer.class), meterRegistry, registry,
+                new C360SlaTracker(meterRegistry), SyncExecutors.callerRuns());
+        ReflectionTestUtils.setField(service, "profile360Url", mockWebServer.url("/").toString());
+        ReflectionTestUtils.setField(service, "maxRetries", 3);
+        ReflectionTestUtils.setField(service, "initialDelayMs", 10L);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Act
+        boolean synced = service.syncToC360(testCard).get();
+
+        // Assert
+        CircuitBreaker.Metrics metrics = registry.circuitBreaker("c360Sync").getMetrics();
+        assertTrue(synced);
+        assertEquals(1, metrics.getNumberOfBufferedCalls());
+        assertEquals(1, metrics.getNumberOfFailedCalls());
+    }
+
+    @Test
+    void retrySync_AllRetriesFail_ShouldPushWithIncrementedRetryCount()
+            throws ExecutionException, InterruptedException, JsonProcessingException {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        }
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        CompletableFuture<Boolean> result = c360SyncService.retrySync(testCard, SyncPriority.NORMAL, 2);
+
+        // Assert
+        assertFalse(result.get());
+        verify(syncFailureProducer).send(eq("card-events-retry"), eq("tok_test_123"), any(byte[].class),
+                eq(Map.of(C360SyncService.RETRY_COUNT_HEADER, "3")));
+    }
+
+    @Test
+    void syncToC360_RetryPushNotAcknowledged_ShouldMarkCardSyncPending()
+            throws ExecutionException, InterruptedException, JsonProcessingException {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        }
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException(
+                        "Expiring 1 record(s) for card-events-retry-0")));
+
+        // Act
+        CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard);
+
+        // Assert
+        assertFalse(result.get());
+        assertTrue(testCard.isSyncPending());
+        c360SyncService.flushPendingMarks();
+        verify(cardRepository).markSyncPending(List.of(1L));
+        verify(cardRepository, never()).save(any(Card.class));
+        assertEquals(0, meterRegistry.get("c360.sync.retry_queue_push").counter().count());
+    }
+
+    @Test
+    void syncToC360_RetryPushNotAcknowledgedAndMarkNotQueueable_ShouldNotSaveInCallback()
+            throws ExecutionException, InterruptedException, JsonProcessingException {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        }
+        // Never persisted, so there is no id to queue a mark for
+        testCard.setId(null);
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException(
+                        "Expiring 1 record(s) for card-events-retry-0")));
+
+        // Act
+        CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard);
+
+        // Assert
+        assertFalse(result.get());
+        c360SyncService.flushPendingMarks();
         verify(cardRepository, never()).save(any(Card.class));
+        verify(cardRepository, never()).markSyncPending(any());
+        assertEquals(1, meterRegistry.get("c360.sync.pending_mark.dropped").counter().count());
+    }
+
+    @Test
+    void syncToC360_CriticalAllRetriesFail_ShouldPushToCriticalRetryTopic()
+            throws ExecutionException, InterruptedException, JsonProcessingException {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        }
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        CompletableFuture<Boolean> result = c360SyncService.syncToC360(testCard, SyncPriority.CRITICAL);
+
+        // Assert
+        assertFalse(result.get());
+        verify(syncFailureProducer, times(1)).send(eq("card-events-retry-critical"), eq("tok_test_123"), any(byte[].class), anyMap());
+        verify(syncFailureProducer, never()).send(eq("card-events-retry"), anyString(), any(byte[].class), anyMap());
+        assertEquals(1, meterRegistry.get("c360.sync.lane.latency").tag("lane", "critical").timer().count());
+        assertEquals(0, meterRegistry.get("c360.sync.lane.latency").tag("lane", "dispatch").timer().count());
+    }
+
+    @Test
+    void syncToC360_RoutinePoolSaturated_ShouldNotDelayCriticalSync() throws Exception {
+        // Arrange - C360 holds routine syncs until released and answers critical ones at once
+        CountDownLatch release = new CountDownLatch(1);
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (!request.getBody().readUtf8().contains("tok_critical")) {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                return new MockResponse().setResponseCode(200);
+            }
+        });
+        ConnectionProvider routinePool = ConnectionProvider.builder("routine-test-pool")
+                .maxConnections(1)
+                .pendingAcquireMaxCount(10)
+                .build();
+        WebClient routineClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(routinePool)))
+                .build();
+        C360SyncService service = new C360SyncService(routineClient, WebClient.create(), cardRepository,
+                syncFailureProducer, objectMapper, mock(io.micrometer.tracing.Tracer.class), meterRegistry,
+                CircuitBreakerRegistry.ofDefaults(), new C360SlaTracker(meterRegistry), SyncExecutors.callerRuns());
+        ReflectionTestUtils.setField(service, "profile360Url", mockWebServer.url("/").toString());
+        Card criticalCard = new Card();
+        criticalCard.setTokenRef("tok_critical");
+
+        List<CompletableFuture<Boolean>> routineSyncs = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                Card card = new Card();
+                card.setTokenRef("tok_routine_" + i);
+                routineSyncs.add(service.syncToC360(card));
+            }
+            // The routine pool's only connection is held; the other routine syncs wait for it
+            assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+
+            // Act
+            boolean synced = service.syncToC360(criticalCard, SyncPriority.CRITICAL).get(2, TimeUnit.SECONDS);
+
+            // Assert
+            assertTrue(synced);
+            assertFalse(routineSyncs.get(2).isDone());
+        } finally {
+            release.countDown();
+        }
+        for (CompletableFuture<Boolean> routineSync : routineSyncs) {
+            assertTrue(routineSync.get(5, TimeUnit.SECONDS));
+        }
+        routinePool.dispose();
+    }
+
+    @Test
+    void syncToC360_CircuitBreakerOpen_ShouldSkipCallAndPushToRetryQueue()
+            throws ExecutionException, InterruptedException, JsonProcessingException {
+        // Arrange
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        registry.circuitBreaker("c360Sync").transitionToOpenState();
+        io.micrometer.core.instrument.MeterRegistry meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
+        C360SyncService service = new C360SyncService(WebClient.create(), WebClient.create(), cardRepository,
+                syncFailureProducer, objectMapper, mock(io.micrometer.tracing.Tracer.class), meterRegistry, registry,
+                new C360SlaTracker(meterRegistry), SyncExecutors.callerRuns());
+        ReflectionTestUtils.setField(service, "profile360Url", mockWebServer.url("/").toString());
+        ReflectionTestUtils.setField(service, "retryTopic", "card-events-retry");
+
+        when(objectMapper.writeValueAsBytes(any(CardEventDto.class))).thenReturn(PAYLOAD);
+        when(syncFailureProducer.send(anyString(), anyString(), any(byte[].class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        CompletableFuture<Boolean> result = service.syncToC360(testCard);
+
+        // Assert
+        assertFalse(result.get());
+        assertEquals(0, mockWebServer.getRequestCount());
+        verify(syncFailureProducer, times(1)).send(eq("card-events-retry"), eq("tok_test_123"), any(byte[].class), anyMap());
+    }
+
+    @Test
+    void syncToC360_SlowC360_ShouldNotHoldExecutorThreadForTheAttemptChain() throws Exception {
+        // Arrange
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        C360SyncService service = new C360SyncService(WebClient.create(), WebClient.create(), cardRepository,
+                syncFailureProducer, objectMapper, mock(io.micrometer.tracing.Tracer.class), meterRegistry,
+                CircuitBreakerRegistry.ofDefaults(), new C360SlaTracker(meterRegistry),
+                new SyncExecutors(single, single, single, single));
+        ReflectionTestUtils.setField(service, "profile360Url", mockWebServer.url("/").toString());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(2, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(2, TimeUnit.SECONDS));
+        when(cardRepository.save(any(Card.class))).thenReturn(testCard);
+        Card otherCard = new Card();
+        otherCard.setTokenRef("tok_test_456");
+
+        try {
+            // Act
+            CompletableFuture<Boolean> first = service.syncToC360(testCard);
+            CompletableFuture<Boolean> second = service.syncToC360(otherCard);
+
+            // Assert - both requests reach C360 while the first is still waiting for its answer
+            assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+            assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+            assertEquals(2, service.inFlightSyncs());
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void syncToC360_ExecutorSaturated_ShouldMarkCardSyncPendingWithoutCalling()
+            throws ExecutionException, InterruptedException {
+        // Arrange
+        io.micrometer.core.instrument.MeterRegistry meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new SyncPendingRejectionPolicy("c360DispatchExecutor", meterRegistry));
+        saturated.shutdown();
+        C360SyncService service = new C360SyncService(WebClient.create(), WebClient.create(), cardRepository,
+                syncFailureProducer, objectMapper, mock(io.micrometer.tracing.Tracer.class), meterRegistry,
+                CircuitBreakerRegistry.ofDefaults(), new C360SlaTracker(meterRegistry),
+                new SyncExecutors(saturated, saturated, saturated, saturated));
+
+        // Act
+        CompletableFuture<Boolean> result = service.syncToC360(testCard);
+
+        // Assert
+        assertFalse(result.get());
+        assertTrue(testCard.isSyncPending());
+        service.flushPendingMarks();
+        verify(cardRepository).markSyncPending(List.of(1L));
+        assertEquals(0, mockWebServer.getRequestCount());
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "c360DispatchExecutor").counter().count());
     }
 }
@@ -0,0 +1,117 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CardAttributeMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CardAttributeDictionary dictionary;
+
+    private CardAttributeMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new CardAttributeMigration(jdbcTemplate, dictionary, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(migration, "batchSize", 2);
+        ReflectionTestUtils.setField(migration, "pauseMs", 0L);
+    }
+
+    @Test
+    void run_LegacyRows_ShouldEncodeStringsAndSkipRowsInStep() {
+        // Arrange
+        cardRepository.save(card("tok_a1", "ACTIVE"));
+        cardRepository.save(card("tok_a2", "ACTIVE"));
+        cardRepository.save(card("tok_a3", "ACTIVE"));
+        cardRepository.save(card("tok_a4", "HOTLISTED"));
+        cardRepository.saveAndFlush(card("tok_a5", "ACTIVE"));
+        // Rows written before the dictionary
+        jdbcTemplate.update("UPDATE cards SET lifecycle_status_id = NULL, network_id = NULL, "
+                + "lifecycle_status = 'BLOCKED', network = 'RUPAY', issued_by_system = 'CMS_A' "
+                + "WHERE token_ref IN ('tok_a1', 'tok_a2')");
+        // A row the previous release updated after it was encoded: its code is behind its string
+        jdbcTemplate.update("UPDATE cards SET lifecycle_status = 'BLOCKED' WHERE token_ref = 'tok_a3'");
+        // A row written before the strings were written again
+        jdbcTemplate.update("UPDATE cards SET lifecycle_status = NULL, network = NULL WHERE token_ref = 'tok_a5'");
+
+        // Act
+        long encoded = migration.run();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(3, encoded);
+        assertEquals(dictionary.find("BLOCKED"), code("tok_a1", "lifecycle_status_id"));
+        assertEquals(dictionary.find("RUPAY"), code("tok_a2", "network_id"));
+        assertEquals(dictionary.find("CMS_A"), code("tok_a2", "issued_by_system_id"));
+        assertEquals(dictionary.find("BLOCKED"), code("tok_a3", "lifecycle_status_id"));
+        assertEquals(dictionary.find("HOTLISTED"), code("tok_a4", "lifecycle_status_id"));
+        assertEquals(dictionary.find("ACTIVE"), code("tok_a5", "lifecycle_status_id"));
+        assertEquals(dictionary.find("VISA"), code("tok_a5", "network_id"));
+    }
+
+    @Test
+    void findByTokenRef_RowNotYetEncoded_ShouldReadLegacyStrings() {
+        // Arrange
+        cardRepository.saveAndFlush(card("tok_a1", "ACTIVE"));
+        jdbcTemplate.update("UPDATE cards SET lifecycle_status_id = NULL, program_code_id = NULL, "
+                + "lifecycle_status = 'BLOCKED', program_code = 'PLATINUM' WHERE token_ref = 'tok_a1'");
+        entityManager.clear();
+
+        // Act
+        Card card = cardRepository.findByTokenRef("tok_a1").orElseThrow();
+
+        // Assert
+        assertEquals("BLOCKED", card.getLifecycleStatus());
+        assertEquals("PLATINUM", card.getProgramCode());
+        assertEquals("VISA", card.getNetwork());
+    }
+
+    @Test
+    void save_ShouldWriteCodesAndLegacyStrings() {
+        // Act
+        cardRepository.saveAndFlush(card("tok_a1", "ACTIVE"));
+
+        // Assert
+        assertEquals("ACTIVE", jdbcTemplate.queryForObject(
+                "SELECT lifecycle_status FROM cards WHERE token_ref = 'tok_a1'", String.class));
+        assertEquals(dictionary.find("ACTIVE"), code("tok_a1", "lifecycle_status_id"));
+    }
+
+    private Integer code(String tokenRef, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM cards WHERE token_ref = ?",
+                Integer.class, tokenRef);
+    }
+
+    private static Card card(String tokenRef, String status) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setMaskedCardNumber("4111xxxx1111");
+        card.setLast4("1111");
+        card.setLifecycleStatus(status);
+        card.setNetwork("VISA");
+        return card;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.BackfillJobDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CardBackfillServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CardAttributeDictionary dictionary;
+
+    @TempDir
+    Path tempDir;
+
+    private CardBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new CardBackfillService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                dictionary, new CardLifecycleHistoryService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                        dictionary, new SimpleMeterRegistry(), 10, 100),
+                new ObjectMapper(), event -> { }, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(backfillService, "chunkSizeBytes", 256);
+        ReflectionTestUtils.setField(backfillService, "batchSize", 2);
+        ReflectionTestUtils.setField(backfillService, "parallelism", 2);
+    }
+
+    @Test
+    void run_Ndjson_ShouldInsertUpdateAndSkipStaleAndInvalid() throws Exception {
+        // Arrange
+        Card existing = new Card();
+        existing.setTokenRef("tok_existing");
+        existing.setMaskedCardNumber("4111xxxx0000");
+        existing.setLast4("0000");
+        existing.setLifecycleStatus("ACTIVE");
+        existing.setEventTimestamp(LocalDateTime.parse("2025-01-01T10:00:00"));
+        cardRepository.saveAndFlush(existing);
+
+        Card newer = new Card();
+        newer.setTokenRef("tok_newer");
+        newer.setMaskedCardNumber("4111xxxx9999");
+        newer.setLast4("9999");
+        newer.setLifecycleStatus("ACTIVE");
+        newer.setEventTimestamp(LocalDateTime.parse("2025-06-01T10:00:00"));
+        cardRepository.saveAndFlush(newer);
+
+        Path file = tempDir.resolve("cards.ndjson");
+        Files.write(file, List.of(
+                ndjson("tok_1", "1111", "ACTIVE", "2025-02-01T10:00:00"),
+                ndjson("tok_2", "2222", "ACTIVE", "2025-02-01T10:00:00"),
+                ndjson("tok_existing", "0000", "BLOCKED", "2025-02-01T10:00:00"),
+                ndjson("tok_newer", "9999", "BLOCKED", "2025-02-01T10:00:00"),
+                "{not json}",
+                "{\"tokenRef\":\"tok_missing_fields\"}",
+                ndjson("tok_3", "3333", "ACTIVE", null)));
+
+        BackfillJobDto job = newJob(file, BackfillJobDto.Format.NDJSON);
+
+        // Act
+        backfillService.run(job, file, false);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(BackfillJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(7, job.getRecordsRead().get());
+        assertEquals(3, job.getRecordsInserted().get());
+        assertEquals(1, job.getRecordsUpdated().get());
+        assertEquals(1, job.getRecordsStale().get());
+        assertEquals(2, job.getRecordsInvalid().get());
+        assertEquals(Files.size(file), job.getProcessedBytes().get());
+
+        Card updated = cardRepository.findByTokenRef("tok_existing").orElseThrow();
+        assertEquals("BLOCKED", updated.getLifecycleStatus());
+        assertTrue(updated.isSyncPending());
+
+        assertEquals("ACTIVE", cardRepository.findByTokenRef("tok_newer").orElseThrow().getLifecycleStatus());
+        assertEquals(List.of("ACTIVE>BLOCKED"), jdbcTemplate.queryForList("SELECT CONCAT(p.attribute_value, '>', "
+                + "s.attribute_value) FROM card_lifecycle_history h "
+                + "JOIN card_attribute_values p ON p.code = h.previous_status_id "
+                + "JOIN card_attribute_values s ON s.code = h.lifecycle_status_id", String.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_lifecycle_history", Integer.class));
+
+        Card inserted = cardRepository.findByTokenRef("tok_2").orElseThrow();
+        assertEquals("2222", inserted.getLast4());
+        assertEquals("9876543210", inserted.getCustomerMobileNumber());
+        assertEquals(9876543210L, inserted.getCustomerMobileKey());
+        assertTrue(inserted.isSyncPending());
+    }
+
+    @Test
+    void run_Csv_ShouldMapHeaderColumns() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("cards.csv");
+        Files.write(file, List.of(
+                "tokenRef,maskedCardNumber,last4,lifecycleStatus,network,customerMobileNumber,eventTimestamp",
+                "tok_csv_1,4111xxxx1111,1111,ACTIVE,VISA,9876543210,2025-02-01T10:00:00",
+                "tok_csv_2,5500xxxx2222,2222,BLOCKED,MASTERCARD,,",
+                "\"tok_csv_3\",\"4111xxxx3333\",3333,ACTIVE,\"VISA, \"\"PLATINUM\"\"\",9876543210,",
+                "\"tok_csv_4,4111xxxx4444,4444,ACTIVE,VISA,,"));
+
+        BackfillJobDto job = newJob(file, BackfillJobDto.Format.CSV);
+
+        // Act
+        backfillService.run(job, file, false);
+
+        // Assert
+        assertEquals(BackfillJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRecordsInserted().get());
+        assertEquals(1, job.getRecordsInvalid().get());
+
+        Card card = cardRepository.findByTokenRef("tok_csv_2").orElseThrow();
+        assertEquals("MASTERCARD", card.getNetwork());
+        assertNull(card.getCustomerMobileNumber());
+        assertNull(card.getEventTimestamp());
+        // Quoted fields keep their commas and escaped quotes
+        assertEquals("VISA, \"PLATINUM\"", cardRepository.findByTokenRef("tok_csv_3").orElseThrow().getNetwork());
+    }
+
+    @Test
+    void run_CsvWithCrlfAndMultiByteHeader_ShouldMapHeaderColumns() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("crlf.csv");
+        Files.writeString(file, "tokenRef,maskedCardNumber,last4,lifecycleStatus,network,libell\u00e9\r\n"
+                + "tok_crlf_1,4111xxxx1111,1111,ACTIVE,VISA,carte privil\u00e8ge\r\n");
+
+        BackfillJobDto job = newJob(file, BackfillJobDto.Format.CSV);
+
+        // Act
+        backfillService.run(job, file, false);
+
+        // Assert
+        assertEquals(BackfillJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getRecordsInserted().get());
+        assertEquals("VISA", cardRepository.findByTokenRef("tok_crlf_1").orElseThrow().getNetwork());
+    }
+
+    @Test
+    void run_Resume_ShouldContinueFromCheckpoint() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("resume.ndjson");
+        String first = ndjson("tok_r1", "1111", "ACTIVE", null);
+        Files.write(file, List.of(first, ndjson("tok_r2", "2222", "ACTIVE", null)));
+        Files.writeString(CardBackfillService.checkpointPath(file), Long.toString(first.length() + 1));
+
+        BackfillJobDto job = newJob(file, BackfillJobDto.Format.NDJSON);
+
+        // Act
+        backfillService.run(job, file, true);
+
+        // Assert
+        assertEquals(BackfillJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(first.length() + 1, job.getResumedFromOffset());
+        assertTrue(cardRepository.findByTokenRef("tok_r1").isEmpty());
+        assertTrue(cardRepository.findByTokenRef("tok_r2").isPresent());
+        assertFalse(Files.exists(CardBackfillService.checkpointPath(file)));
+    }
+
+    @Test
+    void submit_FileOutsideBaseDirectory_ShouldBeRejected() throws Exception {
+        // Arrange
+        Path baseDir = Files.createDirectory(tempDir.resolve("base"));
+        Files.writeString(baseDir.resolve("inside.ndjson"), ndjson("tok_in", "1111", "ACTIVE", null));
+        Files.writeString(tempDir.resolve("outside.ndjson"), ndjson("tok_out", "1111", "ACTIVE", null));
+        ReflectionTestUtils.setField(backfillService, "baseDir", baseDir);
+
+        // Act & Assert
+        assertEquals(baseDir.resolve("inside.ndjson").toRealPath(), backfillService.resolve("inside.ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> backfillService.resolve("../outside.ndjson"));
+        assertThrows(IllegalArgumentException.class,
+                () -> backfillService.resolve(tempDir.resolve("outside.ndjson").toString()));
+        assertThrows(IllegalArgumentException.class, () -> backfillService.resolve("missing.ndjson"));
+    }
+
+    @Test
+    void evictFinishedJobs_ShouldForgetOnlyJobsFinishedBeforeRetention() {
+        // Arrange
+        ReflectionTestUtils.setField(backfillService, "jobRetentionMs", 60_000L);
+        @SuppressWarnings("unchecked")
+        Map<String, BackfillJobDto> jobs = (Map<String, BackfillJobDto>) ReflectionTestUtils.getField(backfillService, "jobs");
+        BackfillJobDto expired = newJob(tempDir.resolve("expired.ndjson"), BackfillJobDto.Format.NDJSON);
+        expired.setJobId("expired");
+        expired.setFinishedAt(LocalDateTime.now().minusMinutes(5));
+        BackfillJobDto recent = newJob(tempDir.resolve("recent.ndjson"), BackfillJobDto.Format.NDJSON);
+        recent.setJobId("recent");
+        recent.setFinishedAt(LocalDateTime.now());
+        BackfillJobDto running = newJob(tempDir.resolve("running.ndjson"), BackfillJobDto.Format.NDJSON);
+        running.setJobId("running");
+        jobs.put(expired.getJobId(), expired);
+        jobs.put(recent.getJobId(), recent);
+        jobs.put(running.getJobId(), running);
+
+        // Act
+        backfillService.evictFinishedJobs();
+
+        // Assert
+        assertTrue(backfillService.getJob("expired").isEmpty());
+        assertTrue(backfillService.getJob("recent").isPresent());
+        assertTrue(backfillService.getJob("running").isPresent());
+    }
+
+    private static BackfillJobDto newJob(Path file, BackfillJobDto.Format format) {
+        BackfillJobDto job = new BackfillJobDto();
+        job.setJobId("job-1");
+        job.setFile(file.toString());
+        job.setFormat(format);
+        return job;
+    }
+
+    private static String ndjson(String tokenRef, String last4, String status, String eventTimestamp) {
+        return "{\"tokenRef\":\"" + tokenRef + "\",\"maskedCardNumber\":\"4111xxxx" + last4
+                + "\",\"last4\":\"" + last4 + "\",\"lifecycleStatus\":\"" + status
+                + "\",\"customerMobileNumber\":\"9876543210\""
+                + (eventTimestamp == null ? "" : ",\"eventTimestamp\":\"" + eventTimestamp + "\"") + "}";
+    }
+}
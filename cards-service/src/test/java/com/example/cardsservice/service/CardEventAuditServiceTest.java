@@ -0,0 +1,92 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardEventAuditRecordDto;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The day tables are created with DDL, which commits; the service manages its own transactions
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardEventAuditServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardEventAuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditService = new CardEventAuditService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(auditService, "retentionDays", -1);
+        auditService.dropExpired();
+    }
+
+    @Test
+    void flush_ShouldWriteCompressedBatchFindableByTokenRefAndDropWhenQueueFull() {
+        // Arrange
+        auditService.append("tok_au1", 0, 10L, "saved", "{\"tokenRef\":\"tok_au1\",\"lifecycleStatus\":\"ACTIVE\"}");
+        auditService.append("tok_au2", 1, 11L, "saved", "{\"tokenRef\":\"tok_au2\"}");
+        auditService.append("tok_au1", 0, 12L, "stale", "{\"tokenRef\":\"tok_au1\",\"lifecycleStatus\":\"BLOCKED\"}");
+        auditService.append("tok_au3", 0, 13L, "saved", "{\"tokenRef\":\"tok_au3\"}");
+
+        // Act
+        auditService.flush();
+
+        // Assert
+        LocalDate today = LocalDate.now();
+        List<CardEventAuditRecordDto> records = auditService.find("tok_au1", today.minusDays(1), today);
+        assertEquals(List.of(10L, 12L), records.stream().map(CardEventAuditRecordDto::getOffset).toList());
+        assertEquals("{\"tokenRef\":\"tok_au1\",\"lifecycleStatus\":\"BLOCKED\"}", records.get(1).getPayload());
+        assertEquals("stale", records.get(1).getOutcome());
+        assertTrue(auditService.find("tok_au3", today, today).isEmpty());
+        assertEquals(3, meterRegistry.get("cards.audit.records").tag("result", "written").counter().count());
+        assertEquals(1, meterRegistry.get("cards.audit.records").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void dropExpired_ShouldDropDayTablesOutsideRetention() {
+        // Arrange
+        auditService.append("tok_au4", 0, 20L, "saved", "{\"tokenRef\":\"tok_au4\"}");
+        auditService.flush();
+        LocalDate today = LocalDate.now();
+
+        // Act
+        auditService.dropExpired();
+        List<CardEventAuditRecordDto> kept = auditService.find("tok_au4", today, today);
+        ReflectionTestUtils.setField(auditService, "retentionDays", -1);
+        auditService.dropExpired();
+
+        // Assert
+        assertEquals(1, kept.size());
+        assertTrue(auditService.find("tok_au4", today, today).isEmpty());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CustomerCardView;
+import com.example.cardsservice.mapper.CardPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardIntegrationServiceTest {
+
+    private static final long MOBILE_KEY = 9876543210L;
+    private static final String CARDS = "[{\"tokenRef\":\"tok_1\",\"last4\":\"1111\",\"lifecycleStatus\":\"ACTIVE\"}]";
+
+    @Mock
+    private CustomerCardViewService customerCardViews;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private MeterRegistry meterRegistry;
+    private CardIntegrationService service;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CardIntegrationService(new RestTemplate(), customerCardViews,
+                new ObjectMapper(), circuitBreakerRegistry, meterRegistry, 1);
+        lenient().when(customerCardViews.isKeyed()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void getCards_FreshEntry_ShouldNotReadDatabaseAgain() {
+        // Arrange
+        when(customerCardViews.find(MOBILE_KEY)).thenReturn(Optional.of(view(CARDS)));
+
+        // Act
+        CardListResult first = service.getCards(MOBILE_KEY);
+        CardListResult second = service.getCards(MOBILE_KEY);
+
+        // Assert
+        assertFalse(first.isStale());
+        assertFalse(second.isStale());
+        assertEquals(CARDS, new String(second.getBody(), StandardCharsets.UTF_8));
+        verify(customerCardViews, times(1)).find(MOBILE_KEY);
+        assertEquals(1.0, meterRegistry.get("cards.read_cache.reads").tag("result", "fresh").counter().count());
+    }
+
+    @Test
+    void getCards_CachedEntry_ShouldEncodeCborOnce() {
+        // Arrange
+        when(customerCardViews.find(MOBILE_KEY)).thenReturn(Optional.of(view(CARDS)));
+
+        // Act
+        byte[] first = service.getCards(MOBILE_KEY).getCborBody();
+        byte[] second = service.getCards(MOBILE_KEY).getCborBody();
+
+        // Assert
+        assertArrayEquals(CardPayloads.jsonToCbor(CARDS.getBytes(StandardCharsets.UTF_8)), first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void getCards_StaleEntry_ShouldServeItAndRefreshInBackground() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "freshMs", 0L);
+        String updated = CARDS.replace("ACTIVE", "BLOCKED");
+        when(customerCardViews.find(MOBILE_KEY)).thenReturn(Optional.of(view(CARDS)), Optional.of(view(updated)));
+        service.getCards(MOBILE_KEY);
+
+        // Act
+        CardListResult stale = service.getCards(MOBILE_KEY);
+
+        // Assert
+        assertTrue(stale.isStale());
+        assertTrue(stale.getOmittedFields().isEmpty());
+        assertEquals(CARDS, new String(stale.getBody(), StandardCharsets.UTF_8));
+        verify(customerCardViews, timeout(2_000).times(2)).find(MOBILE_KEY);
+        assertEquals(1.0, meterRegistry.get("cards.read_cache.reads").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void getCards_BreakerOpen_ShouldServeLastKnownListWithoutNonCacheableFields() {
+        // Arrange
+        when(customerCardViews.find(MOBILE_KEY)).thenReturn(Optional.of(view(CARDS)));
+        service.getCards(MOBILE_KEY);
+        ReflectionTestUtils.setField(service, "freshMs", 0L);
+        circuitBreakerRegistry.circuitBreaker("cardsDb").transitionToOpenState();
+
+        // Act
+        CardListResult degraded = service.getCards(MOBILE_KEY);
+
+        // Assert
+        assertTrue(degraded.isStale());
+        assertEquals(List.of("lifecycleStatus"), degraded.getOmittedFields());
+        assertEquals("[{\"tokenRef\":\"tok_1\",\"last4\":\"1111\"}]",
+                new String(degraded.getBody(), StandardCharsets.UTF_8));
+        verify(customerCardViews, times(1)).find(MOBILE_KEY);
+        assertEquals(1.0, meterRegistry.get("cards.read_cache.reads").tag("result", "degraded").counter().count());
+    }
+
+    @Test
+    void getCards_AfterCustomerCardsChanged_ShouldReadThrough() {
+        // Arrange
+        String updated = CARDS.replace("ACTIVE", "BLOCKED");
+        when(customerCardViews.find(MOBILE_KEY)).thenReturn(Optional.of(view(CARDS)), Optional.of(view(updated)));
+        service.getCards(MOBILE_KEY);
+
+        // Act
+        service.onCustomerCardsChanged(new CustomerCardsChangedEvent(List.of(MOBILE_KEY)));
+        CardListResult result = service.getCards(MOBILE_KEY);
+
+        // Assert
+        assertFalse(result.isStale());
+        assertEquals(updated, new String(result.getBody(), StandardCharsets.UTF_8));
+        verify(customerCardViews, times(2)).find(MOBILE_KEY);
+        assertEquals(2.0, meterRegistry.get("cards.read_cache.reads").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void getCards_BreakerOpenAndNothingCached_ShouldFail() {
+        // Arrange
+        circuitBreakerRegistry.circuitBreaker("cardsDb").transitionToOpenState();
+
+        // Act & Assert
+        assertThrows(CallNotPermittedException.class, () -> service.getCards(MOBILE_KEY));
+        verifyNoInteractions(customerCardViews);
+    }
+
+    @Test
+    void getCards_MobileKeysNotMigrated_ShouldReadCardsInsteadOfView() {
+        // Arrange
+        when(customerCardViews.isKeyed()).thenReturn(false);
+        Card card = new Card();
+        card.setTokenRef("tok_1");
+        when(customerCardViews.findCards(MOBILE_KEY)).thenReturn(List.of(card));
+
+        // Act
+        CardListResult result = service.getCards(MOBILE_KEY);
+
+        // Assert
+        assertTrue(new String(result.getBody(), StandardCharsets.UTF_8).contains("\"tokenRef\":\"tok_1\""));
+        verify(customerCardViews, never()).find(MOBILE_KEY);
+    }
+
+    @Test
+    void getCards_CacheFull_ShouldEvictLeastRecentlyReadCustomer() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "maxEntries", 2);
+        long other = MOBILE_KEY + 1;
+        long newcomer = MOBILE_KEY + 2;
+        when(customerCardViews.find(anyLong())).thenReturn(Optional.of(view(CARDS)));
+        service.getCards(MOBILE_KEY);
+        service.getCards(other);
+        service.getCards(MOBILE_KEY);
+
+        // Act
+        service.getCards(newcomer);
+        service.getCards(newcomer);
+        service.getCards(MOBILE_KEY);
+        service.getCards(other);
+
+        // Assert
+        verify(customerCardViews, times(1)).find(newcomer);
+        verify(customerCardViews, times(1)).find(MOBILE_KEY);
+        verify(customerCardViews, times(2)).find(other);
+    }
+
+    private static CustomerCardView view(String cards) {
+        CustomerCardView view = new CustomerCardView();
+        view.setMobileKey(MOBILE_KEY);
+        view.setCards(cards.getBytes(StandardCharsets.UTF_8));
+        view.setCardCount(1);
+        return view;
+    }
+}
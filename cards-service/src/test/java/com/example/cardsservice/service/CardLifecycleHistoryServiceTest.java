@@ -0,0 +1,82 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardLifecycleTransitionDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CardLifecycleHistoryServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CardAttributeDictionary dictionary;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardLifecycleHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        historyService = new CardLifecycleHistoryService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                dictionary, meterRegistry, 10, 100);
+    }
+
+    @Test
+    void record_ShouldKeepOnlyStatusChangesAndStreamThemByCardAndCustomer() {
+        // Arrange
+        LocalDateTime t0 = LocalDateTime.parse("2025-03-01T10:00:00");
+        Card card = card("tok_h1", 9876500021L, "ACTIVE", "A", t0);
+        historyService.record(card, null, null);
+        historyService.record(card("tok_h1", 9876500021L, "ACTIVE", "A", t0.plusHours(1)), "ACTIVE", "A");
+        historyService.record(card("tok_h1", 9876500021L, "ACTIVE", "A2", t0.plusHours(2)), "ACTIVE", "A");
+        historyService.record(card("tok_h1", 9876500021L, "BLOCKED", "B", t0.plusHours(3)), "ACTIVE", "A2");
+        historyService.record(card("tok_h2", 9876500021L, "HOTLISTED", "H", t0.plusHours(4)), "ACTIVE", "A");
+        historyService.record(card("tok_h3", 9876500022L, "BLOCKED", "B", t0.plusHours(5)), "ACTIVE", "A");
+
+        // Act
+        historyService.flush();
+        List<CardLifecycleTransitionDto> byCard = new ArrayList<>();
+        historyService.streamByCard("tok_h1", null, null, byCard::add);
+        List<CardLifecycleTransitionDto> byCustomerInRange = new ArrayList<>();
+        historyService.streamByCustomer(9876500021L, t0.plusHours(1), t0.plusHours(4), byCustomerInRange::add);
+
+        // Assert
+        assertEquals(List.of("null>ACTIVE", "ACTIVE>ACTIVE", "ACTIVE>BLOCKED"),
+                byCard.stream().map(t -> t.getPreviousStatus() + ">" + t.getLifecycleStatus()).toList());
+        assertEquals("A2", byCard.get(1).getRawStatus());
+        assertEquals(t0.plusHours(3), byCard.get(2).getEventTimestamp());
+        assertEquals(List.of("tok_h1", "tok_h1"), byCustomerInRange.stream().map(CardLifecycleTransitionDto::getTokenRef).toList());
+        assertEquals(5, meterRegistry.get("cards.lifecycle_history.transitions").tag("result", "written").counter().count());
+    }
+
+    private static Card card(String tokenRef, Long mobileKey, String status, String rawStatus, LocalDateTime eventTimestamp) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setCustomerMobileKey(mobileKey);
+        card.setLifecycleStatus(status);
+        card.setRawStatus(rawStatus);
+        card.setEventTimestamp(eventTimestamp);
+        return card;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardSearchPageDto;
+import com.example.cardsservice.dto.CardSearchRequestDto;
+import com.example.cardsservice.dto.CardSearchResultDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CardSearchServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardAttributeDictionary dictionary;
+
+    private CardSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new CardSearchService(jdbcTemplate, cardRepository, dictionary, new SimpleMeterRegistry(), 2);
+        ReflectionTestUtils.setField(searchService, "maxPageSize", 2);
+
+        cardRepository.save(card("tok_s1", "1111", "9876500031", "PRG_S1", "BLOCKED", "CMS_S"));
+        cardRepository.save(card("tok_s2", "2222", "9876500031", "PRG_S1", "ACTIVE", "CMS_S"));
+        cardRepository.save(card("tok_s3", "1111", "9876500032", "PRG_S1", "BLOCKED", "CMS_S"));
+        cardRepository.save(card("tok_s4", "4444", "9876500033", "PRG_S2", "BLOCKED", "CMS_S"));
+        cardRepository.saveAndFlush(card("tok_s5", "5555", "9876500034", "PRG_S1", "BLOCKED", "CMS_T"));
+    }
+
+    @Test
+    void search_ProgramAndStatus_ShouldPageByKeysetWithinMaxPageSize() {
+        // Arrange
+        CardSearchRequestDto request = new CardSearchRequestDto();
+        request.setProgramCode("PRG_S1");
+        request.setLifecycleStatus("BLOCKED");
+        request.setLimit(50);
+
+        // Act
+        CardSearchPageDto first = searchService.search(request);
+        request.setAfterId(first.getNextAfterId());
+        CardSearchPageDto second = searchService.search(request);
+
+        // Assert
+        assertEquals(List.of("tok_s1", "tok_s3"), tokenRefs(first));
+        assertNotNull(first.getNextAfterId());
+        assertEquals(List.of("tok_s5"), tokenRefs(second));
+        assertNull(second.getNextAfterId());
+    }
+
+    @Test
+    void search_Last4WithMobileAndIssuer_ShouldMatchOnlyThatCustomer() {
+        // Arrange
+        CardSearchRequestDto byCustomer = new CardSearchRequestDto();
+        byCustomer.setLast4("1111");
+        byCustomer.setMobileKey(9876500031L);
+        byCustomer.setLimit(10);
+        CardSearchRequestDto byIssuer = new CardSearchRequestDto();
+        byIssuer.setIssuedBySystem("CMS_T");
+        byIssuer.setLimit(10);
+        CardSearchRequestDto unknownProgram = new CardSearchRequestDto();
+        unknownProgram.setProgramCode("PRG_NEVER_SEEN");
+        unknownProgram.setLimit(10);
+
+        // Act
+        CardSearchPageDto customerPage = searchService.search(byCustomer);
+        CardSearchPageDto issuerPage = searchService.search(byIssuer);
+        CardSearchPageDto unknownPage = searchService.search(unknownProgram);
+
+        // Assert
+        assertEquals(List.of("tok_s1"), tokenRefs(customerPage));
+        assertEquals("PRG_S1", customerPage.getCards().get(0).getProgramCode());
+        assertEquals(List.of("tok_s5"), tokenRefs(issuerPage));
+        assertTrue(unknownPage.getCards().isEmpty());
+        assertNull(dictionary.find("PRG_NEVER_SEEN"));
+    }
+
+    @Test
+    void search_Last4WithoutMobileOrNoFilter_ShouldBeRejected() {
+        // Arrange
+        CardSearchRequestDto last4Only = new CardSearchRequestDto();
+        last4Only.setLast4("1111");
+        CardSearchRequestDto unfiltered = new CardSearchRequestDto();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(last4Only));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(unfiltered));
+    }
+
+    private static List<String> tokenRefs(CardSearchPageDto page) {
+        return page.getCards().stream().map(CardSearchResultDto::getTokenRef).toList();
+    }
+
+    private static Card card(String tokenRef, String last4, String mobileNumber, String programCode,
+            String status, String issuedBySystem) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setMaskedCardNumber("4111xxxx" + last4);
+        card.setLast4(last4);
+        card.setCustomerMobileNumber(mobileNumber);
+        card.setProgramCode(programCode);
+        card.setLifecycleStatus(status);
+        card.setIssuedBySystem(issuedBySystem);
+        return card;
+    }
+}
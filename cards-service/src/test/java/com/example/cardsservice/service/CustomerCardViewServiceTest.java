@@ -0,0 +1,177 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.dto.CardResponseDto;
+import com.example.cardsservice.dto.ViewRebuildJobDto;
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.entity.CustomerCardView;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import com.example.cardsservice.repository.CustomerCardViewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class CustomerCardViewServiceTest {
+
+    @Autowired
+    private CustomerCardViewRepository viewRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Object> events = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerCardViewService viewService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        viewService = new CustomerCardViewService(viewRepository, cardRepository, jdbcTemplate, entityManager,
+                events::add, transactionManager, objectMapper, meterRegistry);
+        viewService.onMobileKeysMigrated(false);
+    }
+
+    @Test
+    void onCardSaved_FirstCardOfCustomer_ShouldBuildViewAcrossSpellings() throws Exception {
+        // Arrange
+        cardRepository.save(card("tok_v1", "+919876500001", "ACTIVE"));
+        Card saved = cardRepository.save(card("tok_v2", "09876500001", "ACTIVE"));
+
+        // Act
+        viewService.onCardSaved(saved, null);
+
+        // Assert
+        CustomerCardView view = viewService.find(9876500001L).orElseThrow();
+        assertEquals(2, view.getCardCount());
+        assertEquals(List.of("tok_v1", "tok_v2"), tokenRefs(view));
+        assertEquals(1, meterRegistry.get("cards.customer_view.reads").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void onCardSaved_ExistingView_ShouldReplaceCardAndMoveItOnMobileChange() throws Exception {
+        // Arrange
+        Card first = cardRepository.save(card("tok_m1", "9876500002", "ACTIVE"));
+        viewService.onCardSaved(first, null);
+        Card second = cardRepository.save(card("tok_m2", "9876500002", "ACTIVE"));
+        viewService.onCardSaved(second, null);
+
+        // Act
+        second.setLifecycleStatus("BLOCKED");
+        viewService.onCardSaved(cardRepository.save(second), "9876500002");
+        first.setCustomerMobileNumber("+91 98765 00003");
+        viewService.onCardSaved(cardRepository.save(first), "9876500002");
+
+        // Assert
+        CustomerCardView previous = viewService.find(9876500002L).orElseThrow();
+        assertEquals(List.of("tok_m2"), tokenRefs(previous));
+        assertEquals("BLOCKED", decode(previous).get(0).getLifecycleStatus());
+        assertEquals(List.of("tok_m1"), tokenRefs(viewService.find(9876500003L).orElseThrow()));
+    }
+
+    @Test
+    void onCardsSaved_Batch_ShouldWriteEachCustomerOnceWithAllChanges() throws Exception {
+        // Arrange
+        Card moving = cardRepository.save(card("tok_b1", "9876500005", "ACTIVE"));
+        viewService.onCardSaved(moving, null);
+        moving.setCustomerMobileNumber("9876500006");
+        Card joining = card("tok_b2", "9876500006", "ACTIVE");
+        Card other = card("tok_b3", "9876500006", "BLOCKED");
+
+        // Act
+        viewService.onCardsSaved(List.of(
+                new CustomerCardViewService.SavedCard(cardRepository.save(moving), "9876500005"),
+                new CustomerCardViewService.SavedCard(cardRepository.save(joining), null),
+                new CustomerCardViewService.SavedCard(cardRepository.save(other), null)));
+
+        // Assert
+        assertEquals(List.of(), tokenRefs(viewService.find(9876500005L).orElseThrow()));
+        CustomerCardView view = viewService.find(9876500006L).orElseThrow();
+        assertEquals(3, view.getCardCount());
+        assertEquals(List.of("tok_b1", "tok_b2", "tok_b3"), tokenRefs(view));
+        CustomerCardsChangedEvent changed = (CustomerCardsChangedEvent) events.get(events.size() - 1);
+        assertEquals(List.of(9876500005L, 9876500006L), changed.getMobileKeys());
+    }
+
+    @Test
+    void runRebuild_ShouldRegenerateViewPerMobileKey() throws Exception {
+        // Arrange
+        cardRepository.save(card("tok_r1", "9876500004", "ACTIVE"));
+        cardRepository.save(card("tok_r2", "919876500004", "BLOCKED"));
+        cardRepository.save(card("tok_r3", "12345", "ACTIVE"));
+        ViewRebuildJobDto job = new ViewRebuildJobDto();
+        job.setJobId("job-1");
+
+        // Act
+        viewService.runRebuild(job);
+
+        // Assert
+        assertEquals(ViewRebuildJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getCustomersRebuilt().get());
+        assertEquals(List.of("tok_r1", "tok_r2"), tokenRefs(viewService.find(9876500004L).orElseThrow()));
+    }
+
+    @Test
+    void onCardSaved_MobileKeysNotMigrated_ShouldDropViewAndFindUnkeyedSpellings() {
+        // Arrange
+        viewService = new CustomerCardViewService(viewRepository, cardRepository, jdbcTemplate, entityManager,
+                events::add, transactionManager, objectMapper, meterRegistry);
+        jdbcTemplate.update("INSERT INTO customer_cards (mobile_key, card_count) VALUES (9876500007, 0)");
+        cardRepository.save(card("tok_u1", "+919876500007", "ACTIVE"));
+        Card saved = cardRepository.save(card("tok_u2", "9876500007", "ACTIVE"));
+        cardRepository.flush();
+        // A row written before the key column existed
+        jdbcTemplate.update("UPDATE cards SET customer_mobile_key = NULL WHERE token_ref = 'tok_u1'");
+
+        // Act
+        viewService.onCardSaved(saved, null);
+
+        // Assert
+        assertFalse(viewService.isKeyed());
+        assertFalse(viewRepository.existsById(9876500007L));
+        assertEquals(List.of("tok_u1", "tok_u2"),
+                viewService.findCards(9876500007L).stream().map(Card::getTokenRef).sorted().toList());
+    }
+
+    private List<CardResponseDto> decode(CustomerCardView view) throws IOException {
+        return objectMapper.readerForListOf(CardResponseDto.class).readValue(view.getCards());
+    }
+
+    private List<String> tokenRefs(CustomerCardView view) throws IOException {
+        return decode(view).stream().map(CardResponseDto::getTokenRef).sorted().toList();
+    }
+
+    private static Card card(String tokenRef, String mobileNumber, String status) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setMaskedCardNumber("4111xxxx" + tokenRef.substring(tokenRef.length() - 2));
+        card.setLast4("1111");
+        card.setLifecycleStatus(status);
+        card.setCustomerMobileNumber(mobileNumber);
+        return card;
+    }
+}
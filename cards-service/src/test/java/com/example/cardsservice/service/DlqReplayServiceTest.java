@@ -0,0 +1,133 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.consumer.CardEventConsumer;
+import com.example.cardsservice.dto.DlqReplayJobDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqReplayServiceTest {
+
+    private static final String TOPIC = "card-events-dlq";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+
+    @Mock
+    private CardEventConsumer cardEventConsumer;
+
+    private MockConsumer<String, String> consumer;
+    private SimpleMeterRegistry meterRegistry;
+    private DlqReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, 5L));
+        meterRegistry = new SimpleMeterRegistry();
+        replayService = new DlqReplayService(consumerFactory, cardEventConsumer,
+                CircuitBreakerRegistry.ofDefaults(), new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void run_OffsetRangeWithFilters_ShouldReplayMatchingRecordsAndCountOutcomes() {
+        // Arrange
+        when(consumerFactory.createConsumer(anyString(), anyString(), isNull(), any(Properties.class)))
+                .thenReturn(consumer);
+        String synced = event("tok_1", "CMS");
+        String stale = event("tok_2", "CMS");
+        String syncFailed = event("tok_3", "CMS");
+        when(cardEventConsumer.consume(synced)).thenReturn(CompletableFuture.completedFuture(true));
+        when(cardEventConsumer.consume(stale)).thenReturn(null);
+        when(cardEventConsumer.consume(syncFailed)).thenReturn(CompletableFuture.completedFuture(false));
+
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, "tok_0", event("tok_0", "CMS"), "HttpServerErrorException"));
+            consumer.addRecord(record(1, "tok_1", synced, "WebClientRequestException"));
+            consumer.addRecord(record(2, "tok_x", event("tok_x", "PRIME"), "WebClientRequestException"));
+            consumer.addRecord(record(3, "tok_2", stale, "WebClientRequestException"));
+            consumer.addRecord(record(4, "tok_3", syncFailed, "WebClientRequestException"));
+        });
+
+        DlqReplayJobDto job = new DlqReplayJobDto();
+        job.setJobId("00000000-job");
+        job.setTopic(TOPIC);
+        job.setFromOffset(1L);
+        job.setToOffset(10L);
+        job.setIssuedBySystem("cms");
+        job.setErrorType("webclientrequestexception");
+        job.setRatePerSecond(100);
+        job.setParallelism(2);
+
+        // Act
+        replayService.run(job);
+
+        // Assert
+        assertEquals(DlqReplayJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getTotalRecords());
+        assertEquals(4, job.getRecordsScanned().get());
+        assertEquals(1, job.getRecordsFiltered().get());
+        assertEquals(3, job.getRecordsReplayed().get());
+        assertEquals(1, job.getRecordsSynced().get());
+        assertEquals(1, job.getRecordsSyncFailed().get());
+        assertEquals(1, job.getRecordsSkipped().get());
+        assertEquals(1.0, job.getProgress());
+        verify(cardEventConsumer, never()).consume(contains("tok_0"));
+        assertTrue(consumer.closed());
+        assertEquals(1, meterRegistry.get("cards.dlq.replay.records").tag("result", "synced")
+                .counter().count());
+    }
+
+    @Test
+    void submit_OffsetAndTimeRange_ShouldReject() {
+        // Arrange
+        DlqReplayJobDto request = new DlqReplayJobDto();
+        request.setFromOffset(0L);
+        request.setFromTime(Instant.parse("2025-01-01T00:00:00Z"));
+        request.setRatePerSecond(10);
+        request.setParallelism(1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> replayService.submit(request));
+        verifyNoInteractions(consumerFactory);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key, String value, String errorType) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, offset, key, value);
+        record.headers().add(C360SyncService.DLQ_ERROR_TYPE_HEADER, errorType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static String event(String tokenRef, String issuedBySystem) {
+        return "{\"tokenRef\":\"" + tokenRef + "\",\"issuedBySystem\":\"" + issuedBySystem
+                + "\",\"eventTimestamp\":\"2025-02-01T10:00:00\"}";
+    }
+}
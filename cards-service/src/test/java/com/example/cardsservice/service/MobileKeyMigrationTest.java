@@ -0,0 +1,75 @@
+package com.example.cardsservice.service;
+
+import com.example.cardsservice.entity.Card;
+import com.example.cardsservice.repository.CardAttributeDictionary;
+import com.example.cardsservice.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(CardAttributeDictionary.class)
+class MobileKeyMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final CustomerCardViewService customerCardViews = mock(CustomerCardViewService.class);
+    private MobileKeyMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new MobileKeyMigration(jdbcTemplate, customerCardViews, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(migration, "batchSize", 2);
+        ReflectionTestUtils.setField(migration, "pauseMs", 0L);
+    }
+
+    @Test
+    void run_LegacyRows_ShouldKeyCanonicalNumbersAndRebuildViews() {
+        // Arrange
+        cardRepository.save(card("tok_k1", "+91 98765 00011"));
+        cardRepository.save(card("tok_k2", "09876500011"));
+        cardRepository.save(card("tok_k3", "12345"));
+        cardRepository.save(card("tok_k4", null));
+        cardRepository.flush();
+        // Rows written before the column existed
+        jdbcTemplate.update("UPDATE cards SET customer_mobile_key = NULL");
+
+        // Act
+        long keyed = migration.run();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, keyed);
+        assertEquals(9876500011L, cardRepository.findByTokenRef("tok_k1").orElseThrow().getCustomerMobileKey());
+        assertEquals(9876500011L, cardRepository.findByTokenRef("tok_k2").orElseThrow().getCustomerMobileKey());
+        assertNull(cardRepository.findByTokenRef("tok_k3").orElseThrow().getCustomerMobileKey());
+        assertEquals(2, cardRepository.findByCustomerMobileKey(9876500011L).size());
+        verify(customerCardViews).onMobileKeysMigrated(true);
+    }
+
+    private static Card card(String tokenRef, String mobileNumber) {
+        Card card = new Card();
+        card.setTokenRef(tokenRef);
+        card.setMaskedCardNumber("4111xxxx1111");
+        card.setLast4("1111");
+        card.setLifecycleStatus("ACTIVE");
+        card.setCustomerMobileNumber(mobileNumber);
+        return card;
+    }
+}
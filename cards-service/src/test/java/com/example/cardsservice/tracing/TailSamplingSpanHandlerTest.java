@@ -0,0 +1,132 @@
+package com.example.cardsservice.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanHandlerTest {
+
+    private final List<MutableSpan> exported = new CopyOnWriteArrayList<>();
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private TailSamplingSpanHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        SpanHandler exporter = new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                exported.add(span);
+                return true;
+            }
+        };
+        handler = new TailSamplingSpanHandler(List.of(exporter),
+                new TailSamplingSpanHandler.Settings().latencyThresholdMs(1_000).baselineRate(0).idleMs(2_000),
+                meterRegistry, clock::get);
+    }
+
+    @Test
+    void flushDue_ShouldExportErroredTraceAndDropHealthyOne() {
+        // Arrange
+        handler.end(context(1, 11), span(0, 50, false), SpanHandler.Cause.FINISHED);
+        handler.end(context(1, 12), span(10, 40, true), SpanHandler.Cause.FINISHED);
+        handler.end(context(2, 21), span(0, 50, false), SpanHandler.Cause.FINISHED);
+
+        // Act
+        handler.flushDue();
+        int exportedBeforeIdle = exported.size();
+        advanceMs(2_000);
+        handler.flushDue();
+
+        // Assert
+        assertEquals(0, exportedBeforeIdle);
+        assertEquals(2, exported.size());
+        assertEquals(1, traces("kept", "error"));
+        assertEquals(1, traces("dropped", "none"));
+        assertEquals(0, handler.bufferedTraces());
+    }
+
+    @Test
+    void flushDue_SlowTrace_ShouldBeKept() {
+        // Arrange
+        handler.end(context(3, 31), span(0, 1_500, false), SpanHandler.Cause.FINISHED);
+        advanceMs(2_000);
+
+        // Act
+        handler.flushDue();
+
+        // Assert
+        assertEquals(1, exported.size());
+        assertEquals(1, traces("kept", "slow"));
+    }
+
+    @Test
+    void end_LateErroredSpanOfDroppedTrace_ShouldBeExportedAndFlipDecision() {
+        // Arrange
+        handler.end(context(4, 41), span(0, 50, false), SpanHandler.Cause.FINISHED);
+        advanceMs(2_000);
+        handler.flushDue();
+
+        // Act
+        handler.end(context(4, 42), span(3_000, 3_100, true), SpanHandler.Cause.FINISHED);
+        handler.end(context(4, 43), span(3_200, 3_300, false), SpanHandler.Cause.FINISHED);
+
+        // Assert
+        assertEquals(2, exported.size());
+        assertEquals(2, meterRegistry.get("cards.tracing.tail_sampling.late_spans").counter().count());
+    }
+
+    @Test
+    void inBaseline_ShouldBeConsistentPerTraceAndMatchRate() {
+        // Arrange
+        TailSamplingSpanHandler sampler = new TailSamplingSpanHandler(List.of(),
+                new TailSamplingSpanHandler.Settings().baselineRate(0.1), meterRegistry, clock::get);
+
+        // Act
+        int kept = 0;
+        for (long id = 1; id <= 20_000; id++) {
+            String traceId = context(id * 0x9E3779B97F4A7C15L, 1).traceIdString();
+            if (sampler.inBaseline(traceId)) {
+                kept++;
+                assertTrue(sampler.inBaseline(traceId));
+            }
+        }
+
+        // Assert
+        assertEquals(2_000, kept, 200);
+    }
+
+    private void advanceMs(long ms) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    private double traces(String decision, String reason) {
+        return meterRegistry.get("cards.tracing.tail_sampling.traces")
+                .tag("decision", decision).tag("reason", reason).counter().count();
+    }
+
+    private static TraceContext context(long traceId, long spanId) {
+        return TraceContext.newBuilder().traceId(traceId).spanId(spanId).sampled(true).build();
+    }
+
+    private static MutableSpan span(long startMs, long finishMs, boolean error) {
+        MutableSpan span = new MutableSpan();
+        span.startTimestamp(1_000_000_000L + startMs * 1000);
+        span.finishTimestamp(1_000_000_000L + finishMs * 1000);
+        if (error) {
+            span.error(new IllegalStateException("C360 unavailable"));
+        }
+        return span;
+    }
+}